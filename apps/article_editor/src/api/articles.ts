@@ -1,10 +1,13 @@
 import axios from "axios";
 
+// Credentials keep the server's read-your-writes cookie, so reads right after
+// a save go to the primary instead of a possibly lagging replica.
 const apiClient = axios.create({
   baseURL: "http://localhost:8080/api",
   headers: {
     "Content-Type": "application/json",
   },
+  withCredentials: true,
 });
 
 export interface CreateOrUpdateArticleRequest {
@@ -87,3 +90,47 @@ export const updateArticle = async (
     throw error;
   }
 };
+
+/**
+ * Save a draft of an existing article. The server buffers drafts and writes
+ * them behind, so this is safe to call on every autosave.
+ */
+export const saveArticleDraft = async (
+  id: number,
+  data: Pick<CreateOrUpdateArticleRequest, "title" | "content" | "categoryId">,
+): Promise<void> => {
+  try {
+    await apiClient.put(`/editor/articles/${id}/draft`, data);
+  } catch (error) {
+    if (axios.isAxiosError(error)) {
+      throw new Error(
+        error.response?.data?.message || "Failed to save draft",
+      );
+    }
+    throw error;
+  }
+};
+
+/**
+ * Fetch the latest server-side draft of an article, or null if it has none.
+ */
+export const fetchArticleDraft = async (
+  id: number,
+): Promise<ArticleResponse | null> => {
+  try {
+    const response = await apiClient.get<ArticleResponse>(
+      `/editor/articles/${id}/draft`,
+    );
+    return response.data;
+  } catch (error) {
+    if (axios.isAxiosError(error)) {
+      if (error.response?.status === 404) {
+        return null;
+      }
+      throw new Error(
+        error.response?.data?.message || "Failed to fetch draft",
+      );
+    }
+    throw error;
+  }
+};
@@ -2,9 +2,11 @@ import axios from "axios";
 
 import type { Category } from "@/types/aliases";
 
+// Credentials keep the server's read-your-writes cookie (see articles.ts).
 const apiClient = axios.create({
   baseURL: "http://localhost:8080/api",
   headers: { "Content-Type": "application/json" },
+  withCredentials: true,
 });
 
 interface FolderContent {
@@ -4,7 +4,7 @@ import { Editor } from "./components/editor";
 import { Preview } from "./components/preview";
 import { useLocalStorage } from "./hooks/use-local-storage";
 import { useDraftSave } from "./hooks/use-draft-save";
-import { fetchArticle } from "./api/articles";
+import { fetchArticle, fetchArticleDraft } from "./api/articles";
 import type { ArticleResponse } from "./api/articles";
 import { useTheme } from "./hooks/use-theme";
 
@@ -107,14 +107,18 @@ export const App: React.FC = () => {
       return;
     }
     try {
-      const article = await fetchArticle(id);
-      // Populate blocks and metadata from response
-      const parsedBlocks: ArticleBlock[] = JSON.parse(article.content || "[]");
+      const [article, draft] = await Promise.all([
+        fetchArticle(id),
+        fetchArticleDraft(id),
+      ]);
+      // Continue from the saved draft when there is one
+      const source = draft ?? article;
+      const parsedBlocks: ArticleBlock[] = JSON.parse(source.content || "[]");
       setBlocks(parsedBlocks);
       setMetadata({
-        title: article.title || "",
+        title: source.title || "",
         description: metadata.description || "",
-        parentId: article.categoryId ?? null,
+        parentId: source.categoryId ?? null,
       });
       setCurrentArticle(article);
       setCurrentArticleId(id);
@@ -1,6 +1,6 @@
 import { useState, useCallback } from "react";
 import type { ArticleBlock } from "@/features/articles/types/article-content";
-import { uploadArticle, updateArticle } from "../api/articles";
+import { uploadArticle, updateArticle, saveArticleDraft } from "../api/articles";
 import type { ArticleResponse } from "../api/articles";
 
 type SaveStatus = "idle" | "saving" | "saved" | "error";
@@ -32,6 +32,15 @@ export const useDraftSave = () => {
           articleId != null ? String(articleId) : "",
         );
 
+        // Drafts of existing articles are also kept on the server
+        if (articleId != null) {
+          await saveArticleDraft(articleId, {
+            title: metadata.title,
+            content: JSON.stringify(blocks),
+            categoryId: metadata.parentId ?? null,
+          });
+        }
+
         setLastSaved(new Date());
         setSaveStatus("saved");
 
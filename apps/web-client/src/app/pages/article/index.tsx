@@ -3,7 +3,9 @@
  * @description Page that displays a single article.
  *
  * Functionality:
- * - **Data loading**: Pre-fetches article data via React Query before rendering
+ * - **Data loading**: Pre-fetches the article outline and first section via React Query before rendering
+ * - **Progressive loading**: Fetches the remaining sections in batches once the first screen is shown
+ * - **Reading order**: Links to the previous and next articles and prefetches the next outline
  * - **Content rendering**: Renders articles with formatted blocks (headers, paragraphs, code, math, demos, etc.)
  * - **SEO**: Sets document title dynamically based on article name
  * - **Metadata**: Shows published/draft status with footer messages
@@ -11,10 +13,11 @@
  * - **Error handling**: Validates content structure and handles malformed JSON
  *
  * Data flow:
- * 1. `clientLoader` fetches article by ID from React Query cache or API
- * 2. Article data is passed to component via `useLoaderData()`
- * 3. Component validates content and renders ArticleRenderer
- * 4. User navigates back via ContentLayout breadcrumb (parentId)
+ * 1. `clientLoader` fetches the article outline by ID from React Query cache or API
+ * 2. Outline data is passed to component via `useLoaderData()`
+ * 3. Component renders the first section, then appends the others as `useArticleSections` loads them
+ * 4. The next article's outline is prefetched into the React Query cache, so following the link skips the fetch
+ * 5. User navigates back via ContentLayout breadcrumb (parentId)
  *
  * @example
  * // In route configuration (create-router.tsx)
@@ -25,37 +28,45 @@
  * }
  */
 
-import { QueryClient } from '@tanstack/react-query';
+import { QueryClient, useQueryClient } from '@tanstack/react-query';
 import { useEffect } from 'react';
-import { useLoaderData } from 'react-router-dom';
+import { Link, useLoaderData } from 'react-router-dom';
 
 import { ContentLayout } from '@/components/layouts';
-import { getArticlesQueryOptions } from '@/features/articles/api/get-articles';
+import { paths } from '@/config/paths';
+import {
+  getArticleOutlineQueryOptions,
+  useArticleSections,
+} from '@/features/articles/api/get-article-outline';
 import { ArticleRenderer } from '@/features/articles/components/article-renderer';
-import { ArticleContent } from '@/types/aliases';
+import type { ArticleBlock } from '@/features/articles/types/article-content';
+import { ArticleOutline } from '@/types/aliases';
 
-type LoaderData = ArticleContent & {
-  article: NonNullable<ArticleContent['article']>;
+type LoaderData = ArticleOutline & {
+  id: number;
+  title: string;
+  sections: NonNullable<ArticleOutline['sections']>;
 };
 
 /**
  * Client-side data loader for the article page
  *
- * Fetches a single article by ID before the component renders.
+ * Fetches the outline and first section of an article by ID before the
+ * component renders.
  * Uses React Query for caching and deduplication to avoid redundant API calls.
  * This loader is called by React Router before the component mounts, ensuring
  * article data is available synchronously during render.
  *
  * @param queryClient - TanStack Query client instance for cache management
- * @returns Async loader function that accepts route params and returns article content data
+ * @returns Async loader function that accepts route params and returns the article outline
  * @throws {Response} 400 if articleId is not a valid number
  * @throws {Response} 404 if article doesn't exist
  *
  * @remarks
  * - First checks React Query cache for existing article data (fast path)
- * - Falls back to fetching from API via getArticlesQueryOptions if not cached
+ * - Falls back to fetching from API via getArticleOutlineQueryOptions if not cached
  * - Validates articleId is a positive integer
- * - Expects fetcher to return an `ArticleContent` object
+ * - Expects fetcher to return an `ArticleOutline` object
  * - Throws HTTP responses for error handling by React Router's errorElement
  *
  * @example
@@ -77,24 +88,25 @@ export const clientLoader = (queryClient: QueryClient) => {
       throw new Response('Invalid article ID', { status: 400 });
     }
 
-    // Create query options for fetching the article
-    const query = getArticlesQueryOptions({
+    // Create query options for fetching the outline
+    const query = getArticleOutlineQueryOptions({
       articleId: articleId,
     });
 
     // Try to get from cache first, then fetch if not present
-    const cached = queryClient.getQueryData<ArticleContent>(query.queryKey);
-    const articleContent = cached ?? (await queryClient.fetchQuery(query));
+    const cached = queryClient.getQueryData<ArticleOutline>(query.queryKey);
+    const outline = cached ?? (await queryClient.fetchQuery(query));
 
     // Handle non-existent articles
-    const article = articleContent.article;
-    if (!article) {
+    if (outline.id == null || outline.title == null) {
       throw new Response('Article not found', { status: 404 });
     }
 
     return {
-      ...articleContent,
-      article,
+      ...outline,
+      id: outline.id,
+      title: outline.title,
+      sections: outline.sections ?? [],
     };
   };
 };
@@ -103,11 +115,15 @@ export const clientLoader = (queryClient: QueryClient) => {
  * ArticlePage component - Displays a single article with formatting
  *
  * Renders a complete article page with title, content blocks, navigation,
- * and appropriate status indicators. Content is validated before rendering to
- * prevent JSON parsing errors from breaking the page.
+ * and appropriate status indicators. The first section comes with the
+ * loader data; later sections are appended as they arrive. Content is
+ * validated before rendering to prevent JSON parsing errors from breaking the
+ * page.
  *
  * Features:
  * - **Content rendering**: Uses ArticleRenderer to display formatted blocks
+ * - **Progressive loading**: Shows a loading note until every section has arrived
+ * - **Reading order**: Previous/next links, with the next outline prefetched
  * - **SEO title**: Dynamically updates document title with article name
  * - **Status messages**: Shows published/draft disclaimer based on article state
  * - **Navigation**: Back button to parent category via ContentLayout
@@ -124,12 +140,27 @@ export const clientLoader = (queryClient: QueryClient) => {
  * @example
  * // Rendered by React Router when navigating to /articles/:articleId
  * // Data comes from clientLoader via useLoaderData()
- * const articleContent = useLoaderData() as ArticleContent;
- * // Component then renders ArticleRenderer with article.content
+ * const outline = useLoaderData() as LoaderData;
+ * // Component then renders ArticleRenderer with the blocks of every loaded section
  */
 const ArticlePage = () => {
-  const articleContent = useLoaderData() as LoaderData;
-  const article = articleContent.article;
+  const article = useLoaderData() as LoaderData;
+  const queryClient = useQueryClient();
+  const { sections, loading, error } = useArticleSections(
+    article.id,
+    article.sections.length,
+  );
+  const previous = article.neighbours?.previous;
+  const next = article.neighbours?.next;
+
+  // Fetch the next article's first screen while this one is being read
+  useEffect(() => {
+    if (next?.id != null) {
+      void queryClient.prefetchQuery(
+        getArticleOutlineQueryOptions({ articleId: next.id }),
+      );
+    }
+  }, [queryClient, next?.id]);
 
   // Update document title for SEO
   useEffect(() => {
@@ -139,14 +170,17 @@ const ArticlePage = () => {
     };
   }, [article.title]);
 
-  // Validate content structure
-  let isValidContent = true;
-  try {
-    JSON.parse(article.content || '[]');
-  } catch (error) {
-    isValidContent = false;
-    console.error('Failed to parse article content:', error);
+  // Validate content structure (the API sends each section's blocks as JSON)
+  const loaded = article.first ? [article.first, ...sections] : sections;
+  const isValidContent = loaded.every(
+    (section) => section.blocks === undefined || Array.isArray(section.blocks),
+  );
+  if (!isValidContent) {
+    console.error('Unexpected article content:', loaded);
   }
+  const content = loaded.flatMap(
+    (section) => (section.blocks ?? []) as ArticleBlock[],
+  );
 
   // Show error state if content is malformed
   if (!isValidContent) {
@@ -171,7 +205,39 @@ const ArticlePage = () => {
       isArticle={true}
       articlePublished={article.published}
     >
-      <ArticleRenderer content={article.content} />
+      <ArticleRenderer content={content} />
+      {loading && (
+        <p className="mt-4 text-sm text-muted-foreground">
+          Loading the rest of the article…
+        </p>
+      )}
+      {error && (
+        <p className="mt-4 text-sm text-red-700 dark:text-red-300">
+          Part of the article could not be loaded. Reload the page to try again.
+        </p>
+      )}
+      {(previous || next) && (
+        <nav className="mt-8 flex justify-between gap-4 border-t pt-4 text-sm">
+          {previous?.id != null ? (
+            <Link
+              to={paths.article.getHref(String(previous.id))}
+              className="hover:underline"
+            >
+              ← {previous.title}
+            </Link>
+          ) : (
+            <span />
+          )}
+          {next?.id != null && (
+            <Link
+              to={paths.article.getHref(String(next.id))}
+              className="text-right hover:underline"
+            >
+              {next.title} →
+            </Link>
+          )}
+        </nav>
+      )}
     </ContentLayout>
   );
 };
@@ -0,0 +1,162 @@
+/**
+ * @module features/articles/api/get-article-outline
+ * @description Progressive article loading: the outline first, then the
+ * remaining sections in batches.
+ *
+ * The server splits article content into sections at header blocks. The
+ * outline carries every section heading plus the blocks of the first section,
+ * so the first screen renders from one small response. The other sections are
+ * then fetched by position range.
+ *
+ * @example
+ * // In a loader
+ * const outline = await queryClient.fetchQuery(
+ *   getArticleOutlineQueryOptions({ articleId: 42 }),
+ * );
+ * // In the page
+ * const { sections } = useArticleSections(42, outline.sections.length);
+ */
+
+import {
+  infiniteQueryOptions,
+  queryOptions,
+  useInfiniteQuery,
+} from '@tanstack/react-query';
+import { useEffect } from 'react';
+
+import { api } from '@/lib/api-client';
+import { ArticleOutline, SectionContent } from '@/types/aliases';
+
+type GetArticleOutlineParams = { articleId: number };
+
+/** Sections per range request (the server allows up to 20). */
+const SECTION_BATCH = 5;
+
+/**
+ * Type guard to validate if data is a valid ArticleOutline response
+ */
+const isArticleOutline = (data: unknown): data is ArticleOutline => {
+  return (
+    !!data &&
+    typeof data === 'object' &&
+    'id' in data &&
+    'title' in data &&
+    'sections' in data &&
+    Array.isArray((data as ArticleOutline).sections)
+  );
+};
+
+/**
+ * Fetch the outline and first section of an article.
+ * @param params - Object containing the article ID.
+ * @returns A promise that resolves to the article outline.
+ * @throws Error with context if the fetch fails
+ */
+export const getArticleOutline = <T extends GetArticleOutlineParams>(
+  params: T,
+): Promise<ArticleOutline> => {
+  return api
+    .get(`/articles/${params.articleId}/outline`)
+    .then((data) => {
+      if (!isArticleOutline(data)) {
+        throw new Error(
+          `Invalid outline response for article ${params.articleId}`,
+        );
+      }
+      return data;
+    })
+    .catch((error) => {
+      throw new Error(
+        `Failed to fetch outline of article ${params.articleId}: ${error.message}`,
+      );
+    });
+};
+
+/**
+ * Fetch a range of sections of an article.
+ * @param articleId - The article ID.
+ * @param from - First section position.
+ * @param to - Last section position (inclusive).
+ * @returns A promise that resolves to the sections, in order.
+ */
+export const getArticleSections = (
+  articleId: number,
+  from: number,
+  to: number,
+): Promise<SectionContent[]> => {
+  return api
+    .get(`/articles/${articleId}/sections`, { params: { from, to } })
+    .then((data) => {
+      if (!Array.isArray(data)) {
+        throw new Error(`Invalid sections response for article ${articleId}`);
+      }
+      return data as SectionContent[];
+    });
+};
+
+/**
+ * Generate query options for the outline.
+ * @param params - Object containing the article ID.
+ */
+export const getArticleOutlineQueryOptions = <
+  T extends GetArticleOutlineParams,
+>(
+  params: T,
+) => {
+  return queryOptions({
+    queryKey: ['articles', 'outline', params.articleId] as const,
+    queryFn: () => getArticleOutline(params),
+  });
+};
+
+/**
+ * Generate infinite query options for the sections after the first one.
+ * @param articleId - The article ID.
+ * @param sectionCount - Number of sections in the outline.
+ */
+export const getArticleSectionsQueryOptions = (
+  articleId: number,
+  sectionCount: number,
+) => {
+  return infiniteQueryOptions({
+    queryKey: ['articles', 'sections', articleId, sectionCount] as const,
+    queryFn: ({ pageParam }) =>
+      getArticleSections(
+        articleId,
+        pageParam,
+        Math.min(pageParam + SECTION_BATCH, sectionCount) - 1,
+      ),
+    initialPageParam: 1,
+    getNextPageParam: (_lastPage, _pages, lastPageParam) =>
+      lastPageParam + SECTION_BATCH < sectionCount
+        ? lastPageParam + SECTION_BATCH
+        : undefined,
+    enabled: sectionCount > 1,
+  });
+};
+
+/**
+ * Load every section after the first, one batch after another, as soon as
+ * the page has rendered.
+ * @param articleId - The article ID.
+ * @param sectionCount - Number of sections in the outline.
+ * @returns The loaded sections in order, and whether more are coming.
+ */
+export const useArticleSections = (articleId: number, sectionCount: number) => {
+  const query = useInfiniteQuery(
+    getArticleSectionsQueryOptions(articleId, sectionCount),
+  );
+  const { hasNextPage, isFetchingNextPage, isError, fetchNextPage } = query;
+
+  useEffect(() => {
+    if (hasNextPage && !isFetchingNextPage && !isError) {
+      void fetchNextPage();
+    }
+  }, [hasNextPage, isFetchingNextPage, isError, fetchNextPage]);
+
+  return {
+    sections: query.data?.pages.flat() ?? [],
+    loading: sectionCount > 1 && (query.isPending || hasNextPage),
+    error: isError,
+  };
+};
@@ -14,20 +14,20 @@
  * // Fetch a single article in a loader
  * const query = getArticlesQueryOptions({ articleId: 42 });
  * const result = await queryClient.fetchQuery(query);
- * // TypeScript knows: result.article is Article
+ * // TypeScript knows: result.article is ArticleBody
  */
 
 import { queryOptions } from '@tanstack/react-query';
 
 import { api } from '@/lib/api-client';
-import { Article, ArticleContent, CategorySummary } from '@/types/aliases';
+import { ArticleBody, ArticleContent, CategorySummary } from '@/types/aliases';
 
 type GetArticlesParams = { articleId: number };
 
 /**
- * Type guard to validate if data is a valid Article
+ * Type guard to validate if data is a valid ArticleBody
  */
-const isArticle = (data: unknown): data is Article => {
+const isArticle = (data: unknown): data is ArticleBody => {
   return (
     typeof data === 'object' &&
     data !== null &&
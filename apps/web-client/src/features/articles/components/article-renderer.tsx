@@ -86,18 +86,18 @@ function getImageUrl(filename: string | undefined): string | undefined {
  * Props for the ArticleRenderer component
  */
 interface ArticleRendererProps {
-  /** JSON string representation of article blocks to render */
-  content?: string;
+  /** Article blocks to render, or their JSON string (editor drafts, mocks) */
+  content?: ArticleBlock[] | string;
 }
 
 /**
  * ArticleRenderer component renders article blocks with appropriate styling and behavior.
  *
- * Parses a JSON string of article blocks and renders them with rich formatting,
+ * Takes article blocks (or a JSON string of them) and renders them with rich formatting,
  * mathematical equations, images, and interactive demonstrations.
  *
  * @param props - Component props
- * @param props.content - JSON string of article blocks (parsed from Article.content)
+ * @param props.content - Article blocks, as sent by the reader API, or their JSON string
  * @returns Rendered article content with all block types formatted appropriately
  *
  * @remarks
@@ -111,8 +111,11 @@ interface ArticleRendererProps {
  * return <ArticleRenderer content={article.content} />;
  */
 export const ArticleRenderer = ({ content }: ArticleRendererProps) => {
-  // Parse blocks from JSON string, memoized for performance
+  // Parse blocks only when given a JSON string, memoized for performance
   const blocks = useMemo(() => {
+    if (Array.isArray(content)) {
+      return content;
+    }
     try {
       return JSON.parse(content || '[]') as ArticleBlock[];
     } catch {
@@ -207,6 +210,7 @@ export const ArticleRenderer = ({ content }: ArticleRendererProps) => {
               <figure key={i} className="mb-4 flex flex-col items-center pt-4">
                 <img
                   src={imageUrl}
+                  srcSet={block.srcset}
                   alt={block.caption || 'Figure'}
                   className="h-auto max-h-[60vh] w-full max-w-full rounded object-contain shadow md:max-h-[400px] md:max-w-[600px]"
                   loading="lazy"
@@ -291,7 +295,7 @@ export const ArticleRenderer = ({ content }: ArticleRendererProps) => {
               content: (
                 <ArticleRenderer
                   // Render nested blocks for each tab
-                  content={JSON.stringify(tab.blocks ?? [])}
+                  content={tab.blocks ?? []}
                 />
               ),
             }));
@@ -52,10 +52,14 @@ export type ArticleBlock =
       style: 'info' | 'warning' | 'success' | 'error';
       content: string;
     }
-  /** Figure block rendering an image with optional caption */
+  /**
+   * Figure block rendering an image with optional caption.
+   * `srcset` lists resized variants; the server adds it for uploaded assets.
+   */
   | {
       type: 'figure';
       src: string;
+      srcset?: string;
       caption?: string;
     }
   /** Equation block rendered with KaTeX; optional caption */
@@ -275,7 +275,7 @@ export const handlers = [
       return new HttpResponse(null, { status: 404 });
     }
     return HttpResponse.json({
-      article,
+      article: { ...article, content: JSON.parse(article.content || '[]') },
       breadcrumbs: article.categoryId ? getBreadcrumbs(article.categoryId) : [],
       backgroundArticles: [],
     });
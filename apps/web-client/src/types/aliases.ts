@@ -7,7 +7,12 @@ export type ArticleSummary = components['schemas']['ArticleSummary'];
 export type CategorySummary = components['schemas']['CategorySummary'];
 export type FolderContent = components['schemas']['FolderContent'];
 export type SidebarNode = components['schemas']['SidebarNode'];
+export type ArticleBody = components['schemas']['ArticleBody'];
 export type ArticleContent = components['schemas']['ArticleContent'];
+export type SectionHeading = components['schemas']['SectionHeading'];
+export type SectionContent = components['schemas']['SectionContent'];
+export type ArticleOutline = components['schemas']['ArticleOutline'];
+export type ArticleNeighbours = components['schemas']['ArticleNeighbours'];
 
 // Compound type returned when requesting parent info with children
 export type CategoriesWithParent = {
@@ -280,6 +280,7 @@ export interface components {
             githubUrl?: string;
             demoUrl?: string;
             techStack?: string;
+            tags?: string[];
             imageUrl?: string;
             /** Format: int64 */
             articleId?: number;
@@ -304,6 +305,8 @@ export interface components {
             id?: number;
             title?: string;
             published?: boolean;
+            /** Format: int64 */
+            views?: number;
         };
         SidebarNode: {
             /** Format: int64 */
@@ -322,10 +325,54 @@ export interface components {
             subCategories?: components["schemas"]["CategorySummary"][];
             articles?: components["schemas"]["ArticleSummary"][];
         };
+        ArticleBody: {
+            /** Format: int64 */
+            id?: number;
+            title?: string;
+            /** @description Article blocks, sent as JSON rather than a string */
+            content?: unknown[];
+            /** Format: int64 */
+            categoryId?: number;
+            published?: boolean;
+            /** Format: int64 */
+            order?: number;
+        };
         ArticleContent: {
-            article?: components["schemas"]["Article"];
+            article?: components["schemas"]["ArticleBody"];
             breadcrumbs?: components["schemas"]["CategorySummary"][];
             backgroundArticles?: components["schemas"]["ArticleSummary"][];
+            neighbours?: components["schemas"]["ArticleNeighbours"] | null;
+        };
+        ArticleNeighbours: {
+            previous?: components["schemas"]["ArticleSummary"] | null;
+            next?: components["schemas"]["ArticleSummary"] | null;
+        };
+        SectionHeading: {
+            /** Format: int32 */
+            position?: number;
+            title?: string | null;
+            /** Format: int32 */
+            level?: number | null;
+        };
+        SectionContent: {
+            /** Format: int32 */
+            position?: number;
+            title?: string | null;
+            /** Format: int32 */
+            level?: number | null;
+            /** @description Section blocks, sent as JSON rather than a string */
+            blocks?: unknown[];
+        };
+        ArticleOutline: {
+            /** Format: int64 */
+            id?: number;
+            title?: string;
+            /** Format: int64 */
+            categoryId?: number;
+            published?: boolean;
+            sections?: components["schemas"]["SectionHeading"][];
+            first?: components["schemas"]["SectionContent"] | null;
+            neighbours?: components["schemas"]["ArticleNeighbours"] | null;
         };
     };
     responses: never;
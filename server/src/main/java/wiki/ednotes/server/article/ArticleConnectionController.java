@@ -1,12 +1,14 @@
 package wiki.ednotes.server.article;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import wiki.ednotes.server.change.ChangePublisher;
 
 /**
  * Controller for managing article connections (editor API).
@@ -15,13 +17,17 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/editor/connections")
 public class ArticleConnectionController {
     private final ArticleConnectionRepository connectionRepository;
+    private final ChangePublisher changePublisher;
 
     /**
      * Constructor for ArticleConnectionController.
      * @param connectionRepository the article connection repository
+     * @param changePublisher the change event publisher
      */
-    public ArticleConnectionController(ArticleConnectionRepository connectionRepository) {
+    public ArticleConnectionController(ArticleConnectionRepository connectionRepository,
+            ChangePublisher changePublisher) {
         this.connectionRepository = connectionRepository;
+        this.changePublisher = changePublisher;
     }
 
     /**
@@ -30,8 +36,10 @@ public class ArticleConnectionController {
      * @return the created connection
      */
     @PostMapping
+    @Transactional
     public ResponseEntity<ArticleConnection> createConnection(@RequestBody ArticleConnection connection) {
         ArticleConnection created = connectionRepository.save(connection);
+        changePublisher.connectionChanged(created.getSourceId(), false);
         return ResponseEntity.ok(created);
     }
 
@@ -42,6 +50,7 @@ public class ArticleConnectionController {
      * @return a response indicating the result of the deletion
      */
     @DeleteMapping
+    @Transactional
     public ResponseEntity<Void> deleteConnection(
             @RequestParam Long sourceId,
             @RequestParam Long targetId) {
@@ -51,6 +60,7 @@ public class ArticleConnectionController {
         
         if (connectionRepository.existsById(id)) {
             connectionRepository.deleteById(id);
+            changePublisher.connectionChanged(sourceId, true);
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
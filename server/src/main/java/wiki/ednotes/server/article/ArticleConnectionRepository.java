@@ -2,9 +2,12 @@ package wiki.ednotes.server.article;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ArticleConnectionRepository extends JpaRepository<ArticleConnection, ArticleConnectionId> {
     List<ArticleConnection> findByIdSourceId(Long sourceId);
     List<ArticleConnection> findByIdTargetId(Long targetId);
+    List<ArticleConnection> findByIdSourceIdIn(Collection<Long> sourceIds);
+    List<ArticleConnection> findByIdTargetIdIn(Collection<Long> targetIds);
 }
\ No newline at end of file
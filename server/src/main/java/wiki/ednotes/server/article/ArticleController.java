@@ -1,38 +1,205 @@
 package wiki.ednotes.server.article;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
+import wiki.ednotes.server.cache.HotContentTracker;
+import wiki.ednotes.server.cache.ReaderCache;
+import wiki.ednotes.server.cache.SingleFlight;
+import wiki.ednotes.server.learning.LearningPathService;
 import wiki.ednotes.server.navigation.NavigationService;
+import wiki.ednotes.server.navigation.ReadingOrder;
 import wiki.ednotes.server.navigation.dto.ArticleContent;
+import wiki.ednotes.server.navigation.dto.ArticleNeighbours;
+import wiki.ednotes.server.navigation.dto.ArticleOutline;
+import wiki.ednotes.server.navigation.dto.ArticleSummary;
+import wiki.ednotes.server.navigation.dto.SectionContent;
+import wiki.ednotes.server.related.RelatedArticleIndex;
+import wiki.ednotes.server.startup.StartupWarmup;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Controller for reading articles (reader API).
+ * <p>
+ * Article and outline responses name the previous and next articles in
+ * reading order, in the body and as {@code Link} headers. The next article is
+ * marked {@code prefetch}, so it can be fetched in the background before the
+ * reader gets to it.
  */
 @RestController
 @RequestMapping("/api/articles")
 public class ArticleController {
+    /**
+     * Set by browsers on speculative requests, such as prefetches.
+     */
+    public static final String PURPOSE_HEADER = "Sec-Purpose";
+
+    private final ReaderCache readerCache;
+    private final HotContentTracker hotContent;
+    private final ArticleViewCounter viewCounter;
+    private final RelatedArticleIndex relatedArticles;
+    private final LearningPathService learningPaths;
     private final NavigationService navigationService;
+    private final SingleFlight singleFlight;
+    private final ReadingOrder readingOrder;
+    private final int maxSections;
 
     /**
      * Constructor for ArticleController.
-     * @param navigationService the navigation service
+     * @param readerCache cache of article views
+     * @param hotContent tracker of the most read articles
+     * @param viewCounter write-behind view counter
+     * @param relatedArticles precomputed related articles
+     * @param learningPaths reading orders from the connection graph
+     * @param navigationService section range reads
+     * @param singleFlight coalesces concurrent identical reads
+     * @param readingOrder previous and next articles across the category tree
+     * @param maxSections most sections returned by one range request
      */
-    public ArticleController(NavigationService navigationService) {
+    public ArticleController(ReaderCache readerCache, HotContentTracker hotContent,
+            ArticleViewCounter viewCounter, RelatedArticleIndex relatedArticles,
+            LearningPathService learningPaths, NavigationService navigationService,
+            SingleFlight singleFlight, ReadingOrder readingOrder,
+            @Value("${ednotes.sections.max-range:20}") int maxSections) {
+        this.readerCache = readerCache;
+        this.hotContent = hotContent;
+        this.viewCounter = viewCounter;
+        this.relatedArticles = relatedArticles;
+        this.learningPaths = learningPaths;
         this.navigationService = navigationService;
+        this.singleFlight = singleFlight;
+        this.readingOrder = readingOrder;
+        this.maxSections = maxSections;
     }
 
     /**
-     * Get an article with its breadcrumbs and background references.
+     * Get an article with its breadcrumbs, background references and
+     * neighbours.
      * @param id the ID of the article
-     * @return ArticleContent containing article, breadcrumbs, and background articles
+     * @param warmup set on startup warm-up requests, which are not counted
+     * @param purpose set by browsers on speculative prefetches, which are not counted either
+     * @return ArticleContent containing article, breadcrumbs, background articles and neighbours
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ArticleContent> getArticleById(@PathVariable Long id) {
-        return navigationService.getArticleContent(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<ArticleContent> getArticleById(@PathVariable Long id,
+            @RequestHeader(name = StartupWarmup.WARMUP_HEADER, defaultValue = "false") boolean warmup,
+            @RequestHeader(name = PURPOSE_HEADER, required = false) String purpose) {
+        boolean counted = !warmup && !isPrefetch(purpose);
+        return readerCache.article(id)
+                .map(article -> {
+                    if (counted) {
+                        hotContent.recordArticle(id);
+                        viewCounter.record(id);
+                    }
+                    // The cached content is shared, so neighbours go on a copy.
+                    ArticleNeighbours neighbours = readingOrder.neighbours(id);
+                    ArticleContent content = new ArticleContent(article.getArticle(), article.getBreadcrumbs(),
+                            article.getBackgroundArticles());
+                    content.setNeighbours(neighbours);
+                    return withLinks(ResponseEntity.ok(), neighbours, "").body(content);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * Get the first screen of an article: the headings of all its sections
+     * and the blocks of the first one. Counts as a view, like the full
+     * article.
+     * @param id the ID of the article
+     * @param warmup set on startup warm-up requests, which are not counted
+     * @param purpose set by browsers on speculative prefetches, which are not counted either
+     * @return ArticleOutline with the first section and neighbours
+     */
+    @GetMapping("/{id}/outline")
+    public ResponseEntity<ArticleOutline> getArticleOutline(@PathVariable Long id,
+            @RequestHeader(name = StartupWarmup.WARMUP_HEADER, defaultValue = "false") boolean warmup,
+            @RequestHeader(name = PURPOSE_HEADER, required = false) String purpose) {
+        boolean counted = !warmup && !isPrefetch(purpose);
+        return readerCache.outline(id)
+                .map(outline -> {
+                    if (counted) {
+                        hotContent.recordArticle(id);
+                        viewCounter.record(id);
+                    }
+                    ArticleNeighbours neighbours = readingOrder.neighbours(id);
+                    return withLinks(ResponseEntity.ok(), neighbours, "/outline")
+                            .body(outline.withNeighbours(neighbours));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get a range of sections of an article, by outline position.
+     * @param id the ID of the article
+     * @param from first section position
+     * @param to last section position, inclusive (defaults to from)
+     * @return list of SectionContent in order; positions past the end are left out
+     */
+    @GetMapping("/{id}/sections")
+    public ResponseEntity<List<SectionContent>> getArticleSections(@PathVariable Long id,
+            @RequestParam int from,
+            @RequestParam(required = false) Integer to) {
+        int last = to != null ? to : from;
+        if (from < 0 || last < from || last - from >= maxSections) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(singleFlight.load("sections", List.of(id, from, last),
+                () -> navigationService.getArticleSections(id, from, last)));
+    }
+
+    /**
+     * Get the articles related to an article by content and connections.
+     * @param id the ID of the article
+     * @return list of published ArticleSummary, most related first
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<ArticleSummary>> getRelatedArticles(@PathVariable Long id) {
+        return ResponseEntity.ok(relatedArticles.related(id));
+    }
+
+    /**
+     * Get everything to read before an article, directly or transitively.
+     * @param id the ID of the article
+     * @return list of published ArticleSummary, prerequisites first
+     */
+    @GetMapping("/{id}/prerequisites")
+    public ResponseEntity<List<ArticleSummary>> getPrerequisites(@PathVariable Long id) {
+        return ResponseEntity.ok(singleFlight.load("prerequisites", id, () -> learningPaths.getPrerequisites(id)));
+    }
+
+    /**
+     * Whether a request is a speculative prefetch, which is not counted as a read.
+     * @param purpose value of the {@value #PURPOSE_HEADER} header (nullable)
+     */
+    public static boolean isPrefetch(String purpose) {
+        return purpose != null && purpose.startsWith("prefetch");
+    }
+
+    /**
+     * Add {@code Link} headers for the neighbours of an article, pointing at
+     * the same view of them.
+     * @param suffix path after the article ID, e.g. "/outline"
+     */
+    private static ResponseEntity.BodyBuilder withLinks(ResponseEntity.BodyBuilder response,
+            ArticleNeighbours neighbours, String suffix) {
+        List<String> links = new ArrayList<>(2);
+        if (neighbours.getNext() != null) {
+            links.add("</api/articles/" + neighbours.getNext().getId() + suffix + ">; rel=\"next prefetch\"");
+        }
+        if (neighbours.getPrevious() != null) {
+            links.add("</api/articles/" + neighbours.getPrevious().getId() + suffix + ">; rel=\"prev\"");
+        }
+        if (!links.isEmpty()) {
+            response.header(HttpHeaders.LINK, String.join(", ", links));
+        }
+        return response;
+    }
 }
@@ -0,0 +1,75 @@
+package wiki.ednotes.server.article;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Entity representing the editor's working copy of an article. Drafts live in
+ * their own table and only reach the Articles row when they are published.
+ */
+@Entity
+@Table(name = "ArticleDrafts")
+public class ArticleDraft {
+    @Id
+    @Column(name = "article_id")
+    private Long articleId;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "content", nullable = false)
+    @JdbcTypeCode(SqlTypes.JSON)
+    private String content;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "saved_at", nullable = false)
+    private Instant savedAt;
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public void setArticleId(Long articleId) {
+        this.articleId = articleId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Instant getSavedAt() {
+        return savedAt;
+    }
+
+    public void setSavedAt(Instant savedAt) {
+        this.savedAt = savedAt;
+    }
+}
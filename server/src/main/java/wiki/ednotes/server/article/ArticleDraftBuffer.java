@@ -0,0 +1,419 @@
+package wiki.ednotes.server.article;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import wiki.ednotes.server.change.DraftSignal;
+import wiki.ednotes.server.change.InvalidationBus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Buffers editor drafts in memory and writes them behind to the ArticleDrafts
+ * table. Each save replaces the buffered draft of its article, so a burst of
+ * saves costs one write: a draft is flushed once its article has been idle
+ * for {@code ednotes.drafts.idle-after} ms, or at the latest
+ * {@code ednotes.drafts.max-delay} ms after it was first buffered. All due
+ * drafts go out in one batched upsert, and a final flush runs on shutdown.
+ * If the batch fails, its drafts are written one at a time; a draft the
+ * database rejects outright is dropped, and one that fails for a transient
+ * reason stays buffered for the next flush.
+ * <p>
+ * Publishing copies the latest draft onto the article through
+ * {@link ArticleService#update}, then drops it. Publishing and discarding
+ * take a lock per article (striped), and hold the flush lock only to drop
+ * the draft, so a slow article update never holds up the flushes and
+ * handoffs of other articles.
+ * <p>
+ * A draft is buffered on the node that received its saves. That node
+ * announces it over the {@link InvalidationBus} when it starts buffering
+ * and again once it has written the draft. Before another node reads,
+ * publishes or discards the draft, it asks the holder to write the draft now
+ * and waits up to {@code ednotes.drafts.handoff-timeout} ms. It then works
+ * on the stored row, and the holder has nothing left to write back over it.
+ */
+@Component
+public class ArticleDraftBuffer {
+    private static final Logger log = LoggerFactory.getLogger(ArticleDraftBuffer.class);
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    /** Articles another node announced it buffers a draft of, with when the announcement arrived. */
+    private final Map<Long, Long> heldElsewhere = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Void>> handoffs = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock[] articleLocks = new ReentrantLock[64];
+    private final ArticleDraftRepository draftRepository;
+    private final ArticleRepository articleRepository;
+    private final ArticleService articleService;
+    private final InvalidationBus bus;
+    private final ObjectReader jsonReader;
+    private final long idleAfter;
+    private final long maxDelay;
+    private final long handoffTimeout;
+    private final Counter saves;
+    private final Counter dropped;
+    private final DistributionSummary batchSize;
+
+    /**
+     * Constructor for ArticleDraftBuffer.
+     * @param idleAfter how long an article's drafts must pause before it is flushed, in ms
+     * @param maxDelay how long a draft may stay buffered while edits keep coming, in ms
+     * @param handoffTimeout how long to wait for another node to write its buffered draft, in ms
+     */
+    public ArticleDraftBuffer(ArticleDraftRepository draftRepository,
+            ArticleRepository articleRepository,
+            ArticleService articleService,
+            InvalidationBus bus,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${ednotes.drafts.idle-after:5000}") long idleAfter,
+            @Value("${ednotes.drafts.max-delay:30000}") long maxDelay,
+            @Value("${ednotes.drafts.handoff-timeout:1000}") long handoffTimeout) {
+        this.draftRepository = draftRepository;
+        this.articleRepository = articleRepository;
+        this.articleService = articleService;
+        this.bus = bus;
+        this.jsonReader = objectMapper.reader().with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.idleAfter = idleAfter;
+        this.maxDelay = maxDelay;
+        this.handoffTimeout = handoffTimeout;
+        this.saves = meterRegistry.counter("ednotes.drafts.saves");
+        this.dropped = meterRegistry.counter("ednotes.drafts.dropped");
+        this.batchSize = DistributionSummary.builder("ednotes.drafts.flush.batch")
+                .description("Drafts written per flush")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("ednotes.drafts.buffered", List.of(), pending);
+        for (int i = 0; i < articleLocks.length; i++) {
+            articleLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Buffer the latest draft of an article.
+     * @return the buffered draft, or empty if the article does not exist
+     * @throws IllegalArgumentException if the content is not a JSON document
+     *         Postgres can store as jsonb
+     */
+    public Optional<ArticleDraft> save(Long articleId, ArticleDraft draft) {
+        if (draft.getContent() != null) {
+            checkJson(draft.getContent());
+        }
+        // Only the first save of a burst checks the article; a flush skips
+        // drafts of articles deleted in the meantime.
+        if (!pending.containsKey(articleId) && !articleRepository.existsById(articleId)) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        draft.setArticleId(articleId);
+        draft.setSavedAt(Instant.ofEpochMilli(now));
+        if (draft.getTitle() == null) {
+            draft.setTitle("");
+        }
+        if (draft.getContent() == null) {
+            draft.setContent("[]");
+        }
+        Pending first = new Pending(draft, now, now);
+        Pending merged = pending.merge(articleId, first,
+                (buffered, latest) -> new Pending(latest.draft, buffered.firstSaved, latest.lastSaved));
+        if (merged == first) {
+            announce(DraftSignal.Kind.HELD, articleId);
+        }
+        saves.increment();
+        return Optional.of(draft);
+    }
+
+    /**
+     * Get the latest draft of an article: the newer of the buffered and the
+     * stored one.
+     */
+    public Optional<ArticleDraft> find(Long articleId) {
+        takeOver(articleId);
+        return latest(pending.get(articleId), articleId);
+    }
+
+    /**
+     * Drop the draft of an article, buffered and stored.
+     */
+    public void discard(Long articleId) {
+        takeOver(articleId);
+        ReentrantLock articleLock = articleLock(articleId);
+        articleLock.lock();
+        // Holding the flush lock keeps a flush from writing the draft back.
+        flushLock.lock();
+        try {
+            pending.remove(articleId);
+            draftRepository.deleteById(articleId);
+        } finally {
+            flushLock.unlock();
+            articleLock.unlock();
+        }
+    }
+
+    /**
+     * Apply the latest draft to its article and drop it. A save that arrives
+     * while publishing stays buffered as the next draft. Runs without an
+     * outer transaction, so image imports stay outside the article update's
+     * transaction.
+     * @return the updated article, or empty if there is no draft or no article
+     */
+    public Optional<Article> publish(Long articleId) {
+        takeOver(articleId);
+        ReentrantLock articleLock = articleLock(articleId);
+        articleLock.lock();
+        try {
+            return publishLocked(articleId);
+        } finally {
+            articleLock.unlock();
+        }
+    }
+
+    private Optional<Article> publishLocked(Long articleId) {
+        Pending buffered = pending.get(articleId);
+        Optional<ArticleDraft> draft = latest(buffered, articleId);
+        Optional<Article> published = draft.flatMap(d -> articleRepository.findById(articleId).flatMap(existing -> {
+            Article article = new Article();
+            article.setTitle(d.getTitle());
+            article.setContent(d.getContent());
+            article.setCategoryId(d.getCategoryId());
+            article.setPublished(existing.getPublished());
+            article.setOrder(existing.getOrder());
+            return articleService.update(articleId, article);
+        }));
+        if (published.isPresent()) {
+            // A flush may have written the published draft during the update;
+            // a newer draft, stored or buffered, is kept.
+            flushLock.lock();
+            try {
+                draftRepository.deleteUpTo(articleId, draft.get().getSavedAt());
+                if (buffered != null) {
+                    pending.remove(articleId, buffered);
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        }
+        return published;
+    }
+
+    private ReentrantLock articleLock(Long articleId) {
+        return articleLocks[Math.floorMod(articleId.hashCode(), articleLocks.length)];
+    }
+
+    private Optional<ArticleDraft> latest(Pending buffered, Long articleId) {
+        Optional<ArticleDraft> stored = draftRepository.findById(articleId);
+        if (buffered == null) {
+            return stored;
+        }
+        // Saves may have reached another node after this one's.
+        return stored.filter(d -> d.getSavedAt().isAfter(buffered.draft.getSavedAt()))
+                .or(() -> Optional.of(buffered.draft));
+    }
+
+    /**
+     * Answer the other nodes' signals: note which drafts they buffer, write
+     * ours when asked, and wake requests waiting for a handoff.
+     */
+    @EventListener
+    public void onSignal(DraftSignal signal) {
+        Long articleId = signal.articleId();
+        switch (signal.kind()) {
+            case HELD -> heldElsewhere.put(articleId, System.currentTimeMillis());
+            case FLUSH -> {
+                if (pending.containsKey(articleId)) {
+                    // Off the listener thread, which has to keep reading notifications.
+                    Thread.ofVirtual().name("draft-handoff").start(() -> handOff(articleId));
+                }
+            }
+            case FLUSHED -> {
+                heldElsewhere.remove(articleId);
+                CompletableFuture<Void> waiting = handoffs.remove(articleId);
+                if (waiting != null) {
+                    waiting.complete(null);
+                }
+            }
+        }
+    }
+
+    private void handOff(Long articleId) {
+        flushLock.lock();
+        try {
+            drain(p -> p.draft.getArticleId().equals(articleId));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * If another node announced a buffered draft of the article, ask it to
+     * write the draft and wait until it has, so the stored row is current.
+     * Gives up after the handoff timeout and goes on with the stored row.
+     */
+    private void takeOver(Long articleId) {
+        Long heldSince = heldElsewhere.get(articleId);
+        if (heldSince == null || !bus.isConnected()) {
+            return;
+        }
+        if (System.currentTimeMillis() - heldSince > maxDelay + handoffTimeout) {
+            // Flushed long ago; the FLUSHED signal was missed.
+            heldElsewhere.remove(articleId, heldSince);
+            return;
+        }
+        CompletableFuture<Void> flushed = handoffs.computeIfAbsent(articleId, id -> new CompletableFuture<>());
+        announce(DraftSignal.Kind.FLUSH, articleId);
+        try {
+            flushed.get(handoffTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            handoffs.remove(articleId, flushed);
+            log.warn("No node handed over the draft of article {} within {} ms", articleId, handoffTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Only ever completed normally.
+        }
+    }
+
+    private void announce(DraftSignal.Kind kind, Long articleId) {
+        try {
+            bus.notifyDraft(kind, articleId);
+        } catch (RuntimeException e) {
+            log.debug("Could not send draft signal {} {}: {}", kind, articleId, e.getMessage());
+        }
+    }
+
+    /**
+     * Write the drafts that are due.
+     */
+    @Scheduled(fixedDelayString = "${ednotes.drafts.check-interval:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            drain(p -> now - p.lastSaved >= idleAfter || now - p.firstSaved >= maxDelay);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Final flush of every buffered draft, waiting for a scheduled one that is
+     * still running.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            drain(p -> true);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void checkJson(String content) {
+        // jsonb has no representation for the NUL character.
+        if (content.contains("\\u0000")) {
+            throw new IllegalArgumentException("Draft content contains a NUL character");
+        }
+        try {
+            jsonReader.readTree(content);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Draft content is not valid JSON", e);
+        }
+    }
+
+    private void drain(Predicate<Pending> due) {
+        List<Pending> batch = new ArrayList<>();
+        pending.forEach((id, p) -> {
+            // A save that replaced the entry in the meantime stays buffered.
+            if (due.test(p) && pending.remove(id, p)) {
+                batch.add(p);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            write(batch);
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                requeueOrDrop(batch.get(0), e);
+                return;
+            }
+            log.warn("Could not flush {} drafts, writing them one at a time: {}", batch.size(), e.getMessage());
+        }
+        for (Pending p : batch) {
+            try {
+                write(List.of(p));
+            } catch (RuntimeException e) {
+                requeueOrDrop(p, e);
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        int size = batch.size();
+        Long[] ids = new Long[size];
+        String[] titles = new String[size];
+        String[] contents = new String[size];
+        Long[] categoryIds = new Long[size];
+        Long[] savedAt = new Long[size];
+        for (int i = 0; i < size; i++) {
+            ArticleDraft draft = batch.get(i).draft;
+            ids[i] = draft.getArticleId();
+            titles[i] = draft.getTitle();
+            contents[i] = draft.getContent();
+            categoryIds[i] = draft.getCategoryId();
+            savedAt[i] = draft.getSavedAt().toEpochMilli();
+        }
+        draftRepository.upsertAll(ids, titles, contents, categoryIds, savedAt);
+        batchSize.record(size);
+        for (Long id : ids) {
+            announce(DraftSignal.Kind.FLUSHED, id);
+        }
+    }
+
+    /**
+     * Keep a draft that failed to flush for the next attempt, unless the
+     * database rejected the draft itself, which no retry would fix.
+     */
+    private void requeueOrDrop(Pending p, RuntimeException e) {
+        Long articleId = p.draft.getArticleId();
+        if (e instanceof NonTransientDataAccessException) {
+            dropped.increment();
+            log.warn("Dropping draft of article {} that cannot be stored: {}", articleId, e.getMessage());
+            announce(DraftSignal.Kind.FLUSHED, articleId);
+            return;
+        }
+        // A newer save that arrived in the meantime wins.
+        pending.putIfAbsent(articleId, p);
+        log.warn("Could not flush draft of article {}: {}", articleId, e.getMessage());
+    }
+
+    private record Pending(ArticleDraft draft, long firstSaved, long lastSaved) {
+    }
+}
@@ -0,0 +1,43 @@
+package wiki.ednotes.server.article;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface ArticleDraftRepository extends JpaRepository<ArticleDraft, Long> {
+
+    /**
+     * Write a batch of drafts in one statement. The arrays are parallel and
+     * {@code savedAt} holds epoch milliseconds. A stored draft is only
+     * replaced by a newer one, and drafts of deleted articles are skipped.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO article_drafts (article_id, title, content, category_id, saved_at)
+            SELECT d.article_id, d.title, CAST(d.content AS jsonb), d.category_id, to_timestamp(d.saved_at / 1000.0)
+            FROM unnest(CAST(:ids AS int8[]), CAST(:titles AS text[]), CAST(:contents AS text[]),
+                        CAST(:categoryIds AS int8[]), CAST(:savedAt AS int8[]))
+                 AS d (article_id, title, content, category_id, saved_at)
+            JOIN Articles a ON a.id = d.article_id
+            ON CONFLICT (article_id) DO UPDATE
+            SET title = EXCLUDED.title, content = EXCLUDED.content,
+                category_id = EXCLUDED.category_id, saved_at = EXCLUDED.saved_at
+            WHERE article_drafts.saved_at < EXCLUDED.saved_at
+            """, nativeQuery = true)
+    int upsertAll(@Param("ids") Long[] ids, @Param("titles") String[] titles, @Param("contents") String[] contents,
+            @Param("categoryIds") Long[] categoryIds, @Param("savedAt") Long[] savedAt);
+
+    /**
+     * Delete the stored draft of an article unless a newer one replaced it.
+     * @param savedAt time of the newest draft to delete
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ArticleDraft d WHERE d.articleId = :articleId AND d.savedAt <= :savedAt")
+    int deleteUpTo(@Param("articleId") Long articleId, @Param("savedAt") Instant savedAt);
+}
@@ -9,6 +9,8 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import wiki.ednotes.server.cache.SingleFlight;
+import wiki.ednotes.server.related.RelatedArticleIndex;
 
 /**
  * Controller for managing articles (editor API).
@@ -17,13 +19,23 @@ import org.springframework.web.bind.annotation.RequestMapping;
 @RequestMapping("/api/editor/articles")
 public class ArticleEditorController {
     private final ArticleService articleService;
+    private final SingleFlight singleFlight;
+    private final RelatedArticleIndex relatedArticles;
+    private final ArticleDraftBuffer drafts;
 
     /**
      * Constructor for ArticleEditorController.
      * @param articleService Article service for business logic
+     * @param singleFlight coalesces concurrent identical reads
+     * @param relatedArticles precomputed related articles
+     * @param drafts write-behind buffer for editor drafts
      */
-    public ArticleEditorController(ArticleService articleService) {
+    public ArticleEditorController(ArticleService articleService, SingleFlight singleFlight,
+            RelatedArticleIndex relatedArticles, ArticleDraftBuffer drafts) {
         this.articleService = articleService;
+        this.singleFlight = singleFlight;
+        this.relatedArticles = relatedArticles;
+        this.drafts = drafts;
     }
 
     /**
@@ -33,7 +45,7 @@ public class ArticleEditorController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<Article> getArticleById(@PathVariable Long id) {
-        return articleService.findById(id)
+        return singleFlight.load("editor-article", id, () -> articleService.findById(id))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -50,7 +62,7 @@ public class ArticleEditorController {
     }
 
     /**
-     * Update an existing article.
+     * Update an existing article. Its draft, if any, is dropped.
      * @param id the ID of the article to update
      * @param article the updated article
      * @return the updated article
@@ -58,6 +70,63 @@ public class ArticleEditorController {
     @PutMapping("/{id}")
     public ResponseEntity<Article> updateArticle(@PathVariable Long id, @RequestBody Article article) {
         return articleService.update(id, article)
+                .map(updated -> {
+                    drafts.discard(id);
+                    return ResponseEntity.ok(updated);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get the latest draft of an article.
+     * @param id the ID of the article
+     * @return the draft, if there is one
+     */
+    @GetMapping("/{id}/draft")
+    public ResponseEntity<ArticleDraft> getDraft(@PathVariable Long id) {
+        return drafts.find(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Save a draft of an article. Drafts are buffered and written behind, so
+     * frequent saves are cheap; the article itself is not changed.
+     * @param id the ID of the article
+     * @param draft the title, content and category of the draft
+     * @return the buffered draft, or 400 if the content is not valid JSON
+     */
+    @PutMapping("/{id}/draft")
+    public ResponseEntity<ArticleDraft> saveDraft(@PathVariable Long id, @RequestBody ArticleDraft draft) {
+        try {
+            return drafts.save(id, draft)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Discard the draft of an article.
+     * @param id the ID of the article
+     * @return no content
+     */
+    @DeleteMapping("/{id}/draft")
+    public ResponseEntity<Void> discardDraft(@PathVariable Long id) {
+        drafts.discard(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Copy the latest draft onto the article and discard it. The article
+     * keeps its published flag and order.
+     * @param id the ID of the article
+     * @return the updated article
+     */
+    @PostMapping("/{id}/draft/publish")
+    public ResponseEntity<Article> publishDraft(@PathVariable Long id) {
+        return drafts.publish(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -75,4 +144,13 @@ public class ArticleEditorController {
             return ResponseEntity.notFound().build();
         }
     }
-}
+
+    /**
+     * Recompute the related articles of every article.
+     * @return the number of articles ranked
+     */
+    @PostMapping("/related/rebuild")
+    public ResponseEntity<Integer> rebuildRelatedArticles() {
+        return ResponseEntity.ok(relatedArticles.rebuild());
+    }
+}
\ No newline at end of file
@@ -1,8 +1,39 @@
 package wiki.ednotes.server.article;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 public interface ArticleRepository extends JpaRepository<Article, Long> {
    List<Article> findByCategoryIdOrderByOrderAsc(Long categoryId);
-}
\ No newline at end of file
+
+   <T> List<T> findByIdIn(Collection<Long> ids, Class<T> type);
+
+   <T> List<T> findByPublishedIsTrue(Class<T> type);
+
+   <T> List<T> findByCategoryIdInAndPublishedIsTrueOrderByOrderAsc(Collection<Long> categoryIds, Class<T> type);
+
+   /**
+    * Articles in a topic root or any category whose topicId points at it.
+    */
+   @Query("""
+           SELECT a.id AS id, a.title AS title, a.published AS published, a.categoryId AS categoryId
+           FROM Article a
+           WHERE a.categoryId IN (SELECT c.id FROM Category c WHERE c.id = :topicId OR c.topicId = :topicId)
+           ORDER BY a.order ASC
+           """)
+   List<ArticleTreeRow> findTreeRowsByTopic(@Param("topicId") Long topicId);
+
+   /**
+    * Articles anywhere below a category, using the closure table.
+    */
+   @Query("""
+           SELECT a.id AS id, a.title AS title, a.published AS published, a.categoryId AS categoryId
+           FROM Article a
+           WHERE a.categoryId IN (SELECT cc.id.descendantId FROM CategoryClosure cc WHERE cc.id.ancestorId = :categoryId)
+           ORDER BY a.order ASC
+           """)
+   List<ArticleTreeRow> findTreeRowsBySubtree(@Param("categoryId") Long categoryId);
+}
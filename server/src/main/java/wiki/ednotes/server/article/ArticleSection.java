@@ -0,0 +1,53 @@
+package wiki.ednotes.server.article;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Entity representing one section of an article's content: a header block
+ * and the blocks up to the next header. Derived from Articles.content on save.
+ */
+@Entity
+@Table(name = "ArticleSections")
+public class ArticleSection {
+    @EmbeddedId
+    private ArticleSectionId id;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "level")
+    private Integer level;
+
+    @Column(name = "blocks", nullable = false)
+    @JdbcTypeCode(SqlTypes.JSON)
+    private String blocks;
+
+    public ArticleSectionId getId() {
+        return id;
+    }
+
+    public Long getArticleId() {
+        return id != null ? id.getArticleId() : null;
+    }
+
+    public int getPosition() {
+        return id != null ? id.getPosition() : 0;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Integer getLevel() {
+        return level;
+    }
+
+    public String getBlocks() {
+        return blocks;
+    }
+}
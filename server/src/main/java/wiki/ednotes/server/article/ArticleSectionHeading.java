@@ -0,0 +1,12 @@
+package wiki.ednotes.server.article;
+
+/**
+ * Projection of a section without its blocks, for article outlines.
+ */
+public interface ArticleSectionHeading {
+    Integer getPosition();
+
+    String getTitle();
+
+    Integer getLevel();
+}
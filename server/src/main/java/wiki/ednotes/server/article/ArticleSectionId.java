@@ -0,0 +1,52 @@
+package wiki.ednotes.server.article;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Composite identifier for ArticleSection.
+ */
+@Embeddable
+public class ArticleSectionId implements Serializable {
+    @Column(name = "article_id", nullable = false)
+    private Long articleId;
+
+    @Column(name = "position", nullable = false)
+    private int position;
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public void setArticleId(Long articleId) {
+        this.articleId = articleId;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ArticleSectionId that = (ArticleSectionId) o;
+        return position == that.position && Objects.equals(articleId, that.articleId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(articleId, position);
+    }
+}
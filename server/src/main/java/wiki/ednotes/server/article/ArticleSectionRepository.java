@@ -0,0 +1,53 @@
+package wiki.ednotes.server.article;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ArticleSectionRepository extends JpaRepository<ArticleSection, ArticleSectionId> {
+
+    @Query(value = """
+            SELECT position, title, level FROM article_sections
+            WHERE article_id = :id
+            ORDER BY position
+            """, nativeQuery = true)
+    List<ArticleSectionHeading> findHeadings(@Param("id") Long id);
+
+    List<ArticleSection> findByIdArticleIdAndIdPositionBetweenOrderByIdPositionAsc(Long articleId, int from, int to);
+
+    @Modifying
+    @Query(value = "DELETE FROM article_sections WHERE article_id = :id", nativeQuery = true)
+    int deleteSections(@Param("id") Long id);
+
+    /**
+     * Split content into sections in one statement: every header block starts
+     * a new section, and blocks before the first header form section 0.
+     * Positions are numbered from 0 in content order. Existing sections must
+     * be deleted first.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO article_sections (article_id, position, title, level, blocks)
+            SELECT :id,
+                   row_number() OVER (ORDER BY s.section) - 1,
+                   CASE WHEN s.head ->> 'type' = 'header' THEN s.head ->> 'content' END,
+                   CASE WHEN s.head ->> 'type' = 'header' THEN CAST(s.head ->> 'level' AS int4) END,
+                   s.blocks
+            FROM (
+                SELECT b.section, (array_agg(b.block ORDER BY b.n))[1] AS head, jsonb_agg(b.block ORDER BY b.n) AS blocks
+                FROM (
+                    SELECT e.block, e.n,
+                           count(*) FILTER (WHERE e.block ->> 'type' = 'header') OVER (ORDER BY e.n) AS section
+                    FROM (SELECT CAST(:content AS jsonb) AS content) c
+                    CROSS JOIN LATERAL jsonb_array_elements(
+                            CASE WHEN jsonb_typeof(c.content) = 'array' THEN c.content ELSE '[]' END)
+                         WITH ORDINALITY AS e (block, n)
+                ) b
+                GROUP BY b.section
+            ) s
+            """, nativeQuery = true)
+    int indexSections(@Param("id") Long id, @Param("content") String content);
+}
@@ -1,7 +1,11 @@
 package wiki.ednotes.server.article;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import wiki.ednotes.server.asset.AssetLinker;
+import wiki.ednotes.server.change.ChangePublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,9 +13,19 @@ import java.util.Optional;
 @Service
 public class ArticleService {
     private final ArticleRepository articleRepository;
+    private final ChangePublisher changePublisher;
+    private final AssetLinker assetLinker;
+    private final ArticleSectionRepository sectionRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    public ArticleService(ArticleRepository articleRepository) {
+    public ArticleService(ArticleRepository articleRepository, ChangePublisher changePublisher,
+            AssetLinker assetLinker, ArticleSectionRepository sectionRepository,
+            PlatformTransactionManager transactionManager) {
         this.articleRepository = articleRepository;
+        this.changePublisher = changePublisher;
+        this.assetLinker = assetLinker;
+        this.sectionRepository = sectionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public Optional<Article> findById(Long id) {
@@ -22,24 +36,41 @@ public class ArticleService {
         return articleRepository.findByCategoryIdOrderByOrderAsc(categoryId);
     }
 
-    @Transactional
+    /**
+     * Image sources in the content are rewritten to hashed asset URLs before
+     * the article is written, and the content is split into sections for
+     * progressive loading. Images are imported before the transaction starts,
+     * so a slow download never holds a database connection.
+     */
     public Article create(Article article) {
-        return articleRepository.save(article);
+        article.setContent(assetLinker.rewrite(article.getContent()));
+        return transactionTemplate.execute(status -> {
+            Article created = articleRepository.save(article);
+            sectionRepository.indexSections(created.getId(), created.getContent());
+            changePublisher.articleChanged(created, false);
+            return created;
+        });
     }
 
-    @Transactional
     public Optional<Article> update(Long id, Article article) {
-        return articleRepository.findById(id).map(existing -> {
+        article.setContent(assetLinker.rewrite(article.getContent()));
+        return transactionTemplate.execute(status -> articleRepository.findById(id).map(existing -> {
             article.setId(id);
-            return articleRepository.save(article);
-        });
+            Article saved = articleRepository.save(article);
+            sectionRepository.deleteSections(id);
+            sectionRepository.indexSections(id, saved.getContent());
+            changePublisher.articleChanged(saved, false);
+            return saved;
+        }));
     }
 
     @Transactional
     public boolean delete(Long id) {
-        if (!articleRepository.existsById(id))
+        Optional<Article> existing = articleRepository.findById(id);
+        if (existing.isEmpty())
             return false;
-        articleRepository.deleteById(id);
+        articleRepository.delete(existing.get());
+        changePublisher.articleChanged(existing.get(), true);
         return true;
     }
 }
\ No newline at end of file
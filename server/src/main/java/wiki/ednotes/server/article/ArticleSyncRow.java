@@ -0,0 +1,8 @@
+package wiki.ednotes.server.article;
+
+/**
+ * Projection of the article columns sent to syncing clients.
+ */
+public interface ArticleSyncRow extends ArticleTreeRow {
+    Long getOrder();
+}
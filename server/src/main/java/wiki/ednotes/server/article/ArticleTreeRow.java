@@ -0,0 +1,15 @@
+package wiki.ednotes.server.article;
+
+/**
+ * Projection of the article columns needed to build navigation trees, so tree
+ * queries do not pull the JSON content.
+ */
+public interface ArticleTreeRow {
+    Long getId();
+
+    String getTitle();
+
+    Boolean getPublished();
+
+    Long getCategoryId();
+}
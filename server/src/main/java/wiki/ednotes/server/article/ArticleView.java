@@ -0,0 +1,31 @@
+package wiki.ednotes.server.article;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Entity representing the persisted view count of an article. Kept out of
+ * the Articles table so the periodic counter flush never rewrites article rows.
+ */
+@Entity
+@Table(name = "ArticleViews")
+public class ArticleView {
+    @Id
+    @Column(name = "article_id")
+    private Long articleId;
+
+    @Column(name = "views", nullable = false)
+    private long views;
+
+    protected ArticleView() {}
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public long getViews() {
+        return views;
+    }
+}
@@ -0,0 +1,126 @@
+package wiki.ednotes.server.article;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts article views in memory and writes them behind to the ArticleViews
+ * table. Reads only bump a striped {@link LongAdder}; a scheduled job drains
+ * all counters into one batched upsert, and a final flush runs on shutdown.
+ * <p>
+ * Counters are only created for articles that exist, so the map stays
+ * bounded by the number of articles and entries are never removed (removing
+ * one could race with a concurrent increment).
+ */
+@Component
+public class ArticleViewCounter {
+    private static final Logger log = LoggerFactory.getLogger(ArticleViewCounter.class);
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ArticleViewRepository articleViewRepository;
+    private final DistributionSummary batchSize;
+    private volatile long lastFlush = System.currentTimeMillis();
+
+    /**
+     * Constructor for ArticleViewCounter.
+     */
+    public ArticleViewCounter(ArticleViewRepository articleViewRepository, MeterRegistry meterRegistry) {
+        this.articleViewRepository = articleViewRepository;
+        this.batchSize = DistributionSummary.builder("ednotes.views.flush.batch")
+                .description("Articles written per view counter flush")
+                .register(meterRegistry);
+        meterRegistry.gauge("ednotes.views.flush.lag", this,
+                counter -> (System.currentTimeMillis() - counter.lastFlush) / 1000.0);
+    }
+
+    public void record(Long articleId) {
+        pending.computeIfAbsent(articleId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Views of the given articles: the persisted count plus what has not been
+     * flushed yet.
+     */
+    public Map<Long, Long> counts(Collection<Long> articleIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (ArticleView view : articleViewRepository.findAllById(articleIds)) {
+            counts.put(view.getArticleId(), view.getViews());
+        }
+        for (Long id : articleIds) {
+            LongAdder adder = pending.get(id);
+            if (adder != null) {
+                counts.merge(id, adder.sum(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Write all pending views in a single upsert. Counts of a failed flush are
+     * put back and retried with the next one.
+     */
+    @Scheduled(fixedDelayString = "${ednotes.views.flush-interval:10000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Final flush, waiting for a scheduled one that is still running.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void drain() {
+        List<Long> ids = new ArrayList<>();
+        List<Long> views = new ArrayList<>();
+        pending.forEach((id, adder) -> {
+            long count = adder.sumThenReset();
+            if (count > 0) {
+                ids.add(id);
+                views.add(count);
+            }
+        });
+        if (!ids.isEmpty()) {
+            try {
+                articleViewRepository.addViews(ids.toArray(Long[]::new), views.toArray(Long[]::new));
+            } catch (RuntimeException e) {
+                for (int i = 0; i < ids.size(); i++) {
+                    pending.computeIfAbsent(ids.get(i), id -> new LongAdder()).add(views.get(i));
+                }
+                log.warn("Could not flush views of {} articles: {}", ids.size(), e.getMessage());
+                return;
+            }
+        }
+        batchSize.record(ids.size());
+        lastFlush = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,25 @@
+package wiki.ednotes.server.article;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface ArticleViewRepository extends JpaRepository<ArticleView, Long> {
+
+    /**
+     * Add a batch of view deltas in one statement. The arrays are parallel;
+     * ids of articles deleted since they were counted are skipped.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO article_views (article_id, views)
+            SELECT d.article_id, d.views
+            FROM unnest(CAST(:ids AS int8[]), CAST(:views AS int8[])) AS d (article_id, views)
+            JOIN Articles a ON a.id = d.article_id
+            ON CONFLICT (article_id) DO UPDATE SET views = article_views.views + EXCLUDED.views
+            """, nativeQuery = true)
+    int addViews(@Param("ids") Long[] ids, @Param("views") Long[] views);
+}
@@ -0,0 +1,57 @@
+package wiki.ednotes.server.asset;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Entity representing a stored asset. Assets are content-addressed: the id is
+ * the SHA-256 of the bytes, so an asset never changes once stored.
+ */
+@Entity
+@Table(name = "Assets")
+public class Asset {
+    @Id
+    @Column(name = "hash")
+    private String hash;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    protected Asset() {}
+
+    public Asset(String hash, String contentType, long size) {
+        this.hash = hash;
+        this.contentType = contentType;
+        this.size = size;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getUrl() {
+        return AssetStore.URL_PREFIX + hash;
+    }
+}
@@ -0,0 +1,173 @@
+package wiki.ednotes.server.asset;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Controller serving stored assets (reader API).
+ * <p>
+ * Asset URLs contain the content hash, so responses are cacheable forever.
+ * Bodies are handed to Tomcat's sendfile support when the connector offers
+ * it, so the bytes go from the page cache to the socket without passing
+ * through the JVM; otherwise they are copied with
+ * {@link FileChannel#transferTo}. Single byte ranges are honoured; requests
+ * for several ranges get the whole asset.
+ * <p>
+ * Resized derivatives live under {@code /{hash}/w/{width}} for use in
+ * {@code srcset}. A derivative that has not been generated yet redirects to
+ * the original and is queued for generation.
+ */
+@RestController
+@RequestMapping("/api/assets")
+public class AssetController {
+    private static final String CACHE_FOREVER = "public, max-age=31536000, immutable";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final AssetStore assetStore;
+    private final AssetDerivatives derivatives;
+    private final Counter sendfileCount;
+    private final Counter transferCount;
+
+    /**
+     * Constructor for AssetController.
+     * @param assetStore the asset storage
+     * @param derivatives the resized image variants
+     */
+    public AssetController(AssetStore assetStore, AssetDerivatives derivatives, MeterRegistry meterRegistry) {
+        this.assetStore = assetStore;
+        this.derivatives = derivatives;
+        this.sendfileCount = meterRegistry.counter("ednotes.assets.served", "mode", "sendfile");
+        this.transferCount = meterRegistry.counter("ednotes.assets.served", "mode", "transfer");
+    }
+
+    /**
+     * Get an asset by its content hash.
+     * @param hash the SHA-256 of the asset
+     */
+    @GetMapping("/{hash}")
+    public void getAsset(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Optional<Asset> found = assetStore.find(hash);
+        if (found.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        Asset asset = found.get();
+        serve(assetStore.path(hash), asset.getContentType(), asset.getSize(), "\"" + hash + "\"",
+                request, response);
+    }
+
+    /**
+     * Get a resized derivative of an image asset.
+     * @param hash the SHA-256 of the original asset
+     * @param width one of the configured derivative widths
+     */
+    @GetMapping("/{hash}/w/{width}")
+    public void getDerivative(@PathVariable String hash, @PathVariable int width, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Optional<Asset> found = assetStore.find(hash);
+        if (found.isEmpty() || !derivatives.isConfiguredWidth(width)) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        Optional<Path> file = derivatives.find(hash, width);
+        if (file.isEmpty()) {
+            derivatives.schedule(hash);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            response.setHeader(HttpHeaders.LOCATION, found.get().getUrl());
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            return;
+        }
+        String contentType = file.get().toString().endsWith(".png") ? "image/png" : "image/jpeg";
+        serve(file.get(), contentType, Files.size(file.get()), "\"" + hash + "-w" + width + "\"",
+                request, response);
+    }
+
+    private void serve(Path file, String contentType, long length, String etag, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_FOREVER);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        // SVGs can carry scripts; never let them run in our origin.
+        response.setHeader("Content-Security-Policy", "default-src 'none'; style-src 'unsafe-inline'; sandbox");
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                }
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start >= length || start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            if (start > 0 || end < length - 1) {
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        response.setContentType(contentType);
+        response.setContentLengthLong(end - start + 1);
+        send(file, start, end + 1, request, response);
+    }
+
+    private void send(Path file, long start, long end, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            sendfileCount.increment();
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+        transferCount.increment();
+    }
+}
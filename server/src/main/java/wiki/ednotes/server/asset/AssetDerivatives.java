@@ -0,0 +1,283 @@
+package wiki.ednotes.server.asset;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Generates resized derivatives of stored images in the background.
+ * <p>
+ * Each image gets one derivative per configured width narrower than itself,
+ * re-encoded as JPEG (or PNG when it has transparency) and cached on disk
+ * next to the asset store. Work runs on a pool sized to the CPU count behind
+ * a bounded queue; when the queue is full, the image is skipped rather than
+ * blocking the caller and is picked up again the next time one of its
+ * derivatives is requested.
+ * <p>
+ * Images with more pixels than the configured maximum get no derivatives, and
+ * the rest are decoded subsampled toward the widest target, so a small file
+ * with huge dimensions cannot exhaust the heap.
+ */
+@Component
+public class AssetDerivatives {
+    private static final Logger log = LoggerFactory.getLogger(AssetDerivatives.class);
+    private static final Set<String> RESIZABLE = Set.of("image/jpeg", "image/png", "image/bmp");
+
+    private final AssetStore assetStore;
+    private final List<Integer> widths;
+    private final float jpegQuality;
+    private final long maxPixels;
+    private final Path root;
+    private final ThreadPoolExecutor workers;
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+    private final Counter generated;
+    private final Counter rejected;
+
+    /**
+     * Constructor for AssetDerivatives.
+     * @param widths derivative widths in pixels, smallest first
+     * @param queueCapacity images that may wait for a worker
+     * @param jpegQuality JPEG quality between 0 and 1
+     * @param maxPixels largest width times height that is decoded
+     */
+    public AssetDerivatives(AssetStore assetStore, MeterRegistry meterRegistry,
+            @Value("${ednotes.assets.dir:data/assets}") Path dir,
+            @Value("${ednotes.assets.derivatives.widths:160,320,640,1024,1600}") List<Integer> widths,
+            @Value("${ednotes.assets.derivatives.queue-capacity:256}") int queueCapacity,
+            @Value("${ednotes.assets.derivatives.jpeg-quality:0.82}") float jpegQuality,
+            @Value("${ednotes.assets.derivatives.max-pixels:50000000}") long maxPixels) {
+        this.assetStore = assetStore;
+        this.widths = widths.stream().sorted().toList();
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+        this.root = dir.toAbsolutePath().resolve("derivatives");
+        int threads = Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue,
+                Thread.ofPlatform().name("asset-derivatives-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.generated = meterRegistry.counter("ednotes.assets.derivatives.generated");
+        this.rejected = meterRegistry.counter("ednotes.assets.derivatives.rejected");
+        meterRegistry.gauge("ednotes.assets.derivatives.queue", queue, BlockingQueue::size);
+    }
+
+    /**
+     * Queue the derivatives of an image, unless they are already queued.
+     * Never blocks.
+     */
+    public void schedule(String hash) {
+        if (!scheduled.add(hash)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    generate(hash);
+                } finally {
+                    scheduled.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            scheduled.remove(hash);
+            rejected.increment();
+        }
+    }
+
+    /**
+     * Derivative widths an image will have: the configured widths narrower
+     * than the original, or none if it has more than the maximum number of
+     * pixels. Only the image header is read.
+     */
+    public List<Integer> widthsFor(String hash) {
+        Optional<Asset> asset = assetStore.find(hash);
+        if (asset.isEmpty() || !RESIZABLE.contains(asset.get().getContentType())) {
+            return List.of();
+        }
+        try (ImageInputStream in = ImageIO.createImageInputStream(assetStore.path(hash).toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return List.of();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in);
+                int originalWidth = reader.getWidth(0);
+                if ((long) originalWidth * reader.getHeight(0) > maxPixels) {
+                    log.debug("Asset {} has more than {} pixels, no derivatives", hash, maxPixels);
+                    return List.of();
+                }
+                return widths.stream().filter(w -> w < originalWidth).toList();
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * The {@code srcset} value for an image, or null if it has no derivatives.
+     */
+    public String srcset(String hash) {
+        List<Integer> available = widthsFor(hash);
+        if (available.isEmpty()) {
+            return null;
+        }
+        return available.stream()
+                .map(w -> url(hash, w) + " " + w + "w")
+                .collect(Collectors.joining(", "));
+    }
+
+    public static String url(String hash, int width) {
+        return AssetStore.URL_PREFIX + hash + "/w/" + width;
+    }
+
+    /**
+     * Find a generated derivative.
+     *
+     * @return the derivative file, or empty if it does not exist (yet)
+     */
+    public Optional<Path> find(String hash, int width) {
+        for (String extension : List.of("jpg", "png")) {
+            Path file = path(hash, width, extension);
+            if (Files.isRegularFile(file)) {
+                return Optional.of(file);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean isConfiguredWidth(int width) {
+        return widths.contains(width);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void generate(String hash) {
+        List<Integer> targets = widthsFor(hash).stream().filter(w -> find(hash, w).isEmpty()).toList();
+        if (targets.isEmpty()) {
+            return;
+        }
+        try {
+            BufferedImage original = read(hash, targets.getLast());
+            if (original == null) {
+                return;
+            }
+            boolean alpha = original.getColorModel().hasAlpha();
+            // Widest first, each one scaled from the previous for quality and speed.
+            BufferedImage source = original;
+            for (int width : targets.reversed()) {
+                source = resize(source, width, alpha);
+                write(source, path(hash, width, alpha ? "png" : "jpg"), alpha);
+                generated.increment();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate derivatives of asset {}: {}", hash, e.getMessage());
+        } catch (OutOfMemoryError e) {
+            log.warn("Not enough memory to generate derivatives of asset {}", hash);
+        }
+    }
+
+    /**
+     * Decode an image, skipping rows and columns so that it is still at least
+     * {@code width} pixels wide.
+     *
+     * @return the decoded image, or null if no reader can decode it
+     */
+    private BufferedImage read(String hash, int width) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(assetStore.path(hash).toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, reader.getWidth(0) / width);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, boolean alpha) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, Path file, boolean png) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), "derivative-", ".tmp");
+        try {
+            if (png) {
+                ImageIO.write(image, "png", temp.toFile());
+            } else {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+                try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                    ImageWriteParam param = writer.getDefaultWriteParam();
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(jpegQuality);
+                    param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                    writer.setOutput(out);
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path path(String hash, int width, String extension) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash).resolve(width + "." + extension);
+    }
+}
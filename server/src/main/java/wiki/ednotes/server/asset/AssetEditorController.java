@@ -0,0 +1,41 @@
+package wiki.ednotes.server.asset;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+/**
+ * Controller for uploading assets (editor API).
+ */
+@RestController
+@RequestMapping("/api/editor/assets")
+public class AssetEditorController {
+    private final AssetStore assetStore;
+
+    /**
+     * Constructor for AssetEditorController.
+     * @param assetStore the asset storage
+     */
+    public AssetEditorController(AssetStore assetStore) {
+        this.assetStore = assetStore;
+    }
+
+    /**
+     * Upload an image. Identical content is stored once.
+     * @param file the image
+     * @return the stored asset with its hashed URL
+     */
+    @PostMapping
+    public ResponseEntity<Asset> uploadAsset(@RequestParam("file") MultipartFile file) throws IOException {
+        try {
+            return ResponseEntity.ok(assetStore.store(file.getInputStream(), file.getContentType()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package wiki.ednotes.server.asset;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Rewrites the image sources of figure and demo blocks in article content to
+ * hashed asset URLs. Inline {@code data:} images are stored directly and,
+ * when enabled, remote images are downloaded; anything else (relative paths,
+ * sources that fail to import) is left untouched.
+ * <p>
+ * Downloads only go to public addresses: every hop of a redirect chain is
+ * resolved and rejected if it points at a loopback, link-local, private or
+ * otherwise internal address, so editors cannot use the server to reach the
+ * internal network. The check runs inside the HTTP client's DNS resolver, so
+ * the connection goes to exactly the addresses that were checked and a second
+ * lookup cannot be rebound to an internal one.
+ * <p>
+ * Figures that point at an asset also get a {@code srcset} of resized
+ * derivatives, which are queued for background generation.
+ */
+@Component
+public class AssetLinker {
+    private static final Logger log = LoggerFactory.getLogger(AssetLinker.class);
+    private static final Set<String> IMAGE_BLOCKS = Set.of("figure", "demo");
+    private static final int MAX_REDIRECTS = 5;
+    private static final DnsResolver PUBLIC_ONLY = new SystemDefaultDnsResolver() {
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            InetAddress[] addresses = super.resolve(host);
+            for (InetAddress address : addresses) {
+                if (!isPublic(address)) {
+                    throw new IllegalArgumentException(host + " resolves to non-public address " + address.getHostAddress());
+                }
+            }
+            return addresses;
+        }
+    };
+
+    private final AssetStore assetStore;
+    private final AssetDerivatives derivatives;
+    private final ObjectMapper objectMapper;
+    private final RestClient restClient;
+    private final boolean importRemote;
+
+    /**
+     * Constructor for AssetLinker.
+     * @param importRemote whether http(s) image sources are downloaded
+     * @param timeout connect and read timeout for downloads
+     */
+    public AssetLinker(AssetStore assetStore, AssetDerivatives derivatives, ObjectMapper objectMapper, RestClient.Builder restClientBuilder,
+            @Value("${ednotes.assets.import-remote:false}") boolean importRemote,
+            @Value("${ednotes.assets.import-timeout:PT10S}") Duration timeout) {
+        this.assetStore = assetStore;
+        this.derivatives = derivatives;
+        this.objectMapper = objectMapper;
+        this.importRemote = importRemote;
+        this.restClient = restClientBuilder.requestFactory(new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setDnsResolver(PUBLIC_ONLY)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.of(timeout))
+                                .setSocketTimeout(Timeout.of(timeout))
+                                .build())
+                        .build())
+                .disableRedirectHandling()
+                .disableAutomaticRetries()
+                .build())).build();
+    }
+
+    /**
+     * Rewrite the image sources of an article's content.
+     *
+     * @param content the article content JSON
+     * @return the rewritten content, or the input if nothing changed or it is
+     *         not valid JSON
+     */
+    public String rewrite(String content) {
+        if (content == null || content.isBlank()) {
+            return content;
+        }
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(content);
+        } catch (JsonProcessingException e) {
+            return content;
+        }
+        return rewriteNode(root) ? root.toString() : content;
+    }
+
+    private boolean rewriteNode(JsonNode node) {
+        boolean changed = false;
+        if (node instanceof ObjectNode block && IMAGE_BLOCKS.contains(block.path("type").asText())) {
+            JsonNode src = block.get("src");
+            if (src != null && src.isTextual()) {
+                String url = link(src.asText());
+                if (!url.equals(src.asText())) {
+                    block.put("src", url);
+                    changed = true;
+                }
+                if ("figure".equals(block.path("type").asText()) && url.startsWith(AssetStore.URL_PREFIX)) {
+                    changed |= linkDerivatives(block, url.substring(AssetStore.URL_PREFIX.length()));
+                }
+            }
+        }
+        // Nested blocks, e.g. the blocks of each tab.
+        for (JsonNode child : node) {
+            changed |= rewriteNode(child);
+        }
+        return changed;
+    }
+
+    private String link(String src) {
+        try {
+            if (src.startsWith("data:")) {
+                return storeDataUri(src);
+            }
+            if (importRemote && (src.startsWith("http://") || src.startsWith("https://"))) {
+                return download(src);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not import image {}: {}", src.length() > 100 ? src.substring(0, 100) + "..." : src,
+                    e.getMessage());
+        }
+        return src;
+    }
+
+    private boolean linkDerivatives(ObjectNode block, String hash) {
+        String srcset = derivatives.srcset(hash);
+        if (srcset == null) {
+            return block.remove("srcset") != null;
+        }
+        derivatives.schedule(hash);
+        if (srcset.equals(block.path("srcset").asText(null))) {
+            return false;
+        }
+        block.put("srcset", srcset);
+        return true;
+    }
+
+    private String storeDataUri(String src) throws IOException {
+        int comma = src.indexOf(',');
+        String meta = comma > 0 ? src.substring("data:".length(), comma) : "";
+        if (!meta.endsWith(";base64")) {
+            return src;
+        }
+        byte[] bytes = Base64.getDecoder().decode(src.substring(comma + 1));
+        String contentType = meta.substring(0, meta.indexOf(';'));
+        return assetStore.store(new ByteArrayInputStream(bytes), contentType).getUrl();
+    }
+
+    /**
+     * Download an image, following redirects by hand so that every target is
+     * checked before it is requested. Addresses are checked by
+     * {@link #PUBLIC_ONLY} when the client connects.
+     */
+    private String download(String src) throws IOException {
+        URI uri = URI.create(src);
+        for (int hop = 0; hop <= MAX_REDIRECTS; hop++) {
+            checkTarget(uri);
+            URI current = uri;
+            Object result = restClient.get().uri(current).exchange((request, response) -> {
+                if (response.getStatusCode().is3xxRedirection()) {
+                    URI location = response.getHeaders().getLocation();
+                    if (location == null) {
+                        throw new IllegalArgumentException("Redirect without a location");
+                    }
+                    return current.resolve(location);
+                }
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    throw new IllegalArgumentException("HTTP " + response.getStatusCode().value());
+                }
+                MediaType contentType = response.getHeaders().getContentType();
+                return assetStore.store(response.getBody(),
+                        contentType != null ? contentType.getType() + "/" + contentType.getSubtype() : null)
+                        .getUrl();
+            });
+            if (result instanceof URI next) {
+                uri = next;
+            } else {
+                return (String) result;
+            }
+        }
+        throw new IllegalArgumentException("More than " + MAX_REDIRECTS + " redirects");
+    }
+
+    private static void checkTarget(URI uri) {
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+            throw new IllegalArgumentException("Unsupported scheme " + uri.getScheme());
+        }
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("No host in " + uri);
+        }
+    }
+
+    /**
+     * Whether an address is publicly routable: not a wildcard, loopback,
+     * link-local, private (including IPv6 unique local and carrier-grade NAT)
+     * or multicast address.
+     */
+    static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address) {
+            int first = bytes[0] & 0xff;
+            int second = bytes[1] & 0xff;
+            // 0.0.0.0/8 and 100.64.0.0/10
+            return first != 0 && !(first == 100 && second >= 64 && second < 128);
+        }
+        // fc00::/7
+        return (bytes[0] & 0xfe) != 0xfc;
+    }
+}
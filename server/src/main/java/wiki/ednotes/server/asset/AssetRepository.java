@@ -0,0 +1,22 @@
+package wiki.ednotes.server.asset;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface AssetRepository extends JpaRepository<Asset, String> {
+
+    /**
+     * Record an asset unless the same content was stored before.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO Assets (hash, content_type, size) VALUES (:hash, :contentType, :size)
+            ON CONFLICT (hash) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash, @Param("contentType") String contentType,
+            @Param("size") long size);
+}
@@ -0,0 +1,138 @@
+package wiki.ednotes.server.asset;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed asset storage on the local disk. Files are named by the
+ * SHA-256 of their bytes (fanned out by the first two hex digits), so
+ * identical uploads are stored once and a stored file never changes.
+ */
+@Component
+public class AssetStore {
+    public static final String URL_PREFIX = "/api/assets/";
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final AssetRepository assetRepository;
+    private final MeterRegistry meterRegistry;
+    private final Path root;
+    private final long maxSize;
+    private final Map<String, Asset> metadata = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for AssetStore.
+     * @param root directory holding the asset files
+     * @param maxSize largest accepted asset
+     */
+    public AssetStore(AssetRepository assetRepository, MeterRegistry meterRegistry,
+            @Value("${ednotes.assets.dir:data/assets}") Path root,
+            @Value("${ednotes.assets.max-size:20MB}") DataSize maxSize) throws IOException {
+        this.assetRepository = assetRepository;
+        this.meterRegistry = meterRegistry;
+        this.root = Files.createDirectories(root.toAbsolutePath());
+        this.maxSize = maxSize.toBytes();
+    }
+
+    /**
+     * Store the bytes of a stream, hashing them on the way to disk.
+     *
+     * @param input the asset bytes; closed by this method
+     * @param contentType the declared media type, must be an image type
+     * @return the stored asset, or the existing one for identical content
+     * @throws IllegalArgumentException if the type is not an image or the
+     *         asset is empty or too large
+     */
+    public Asset store(InputStream input, String contentType) throws IOException {
+        if (contentType == null || !contentType.startsWith("image/")) {
+            input.close();
+            throw new IllegalArgumentException("Unsupported asset type " + contentType);
+        }
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            long size = 0;
+            try (InputStream in = input; OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new IllegalArgumentException("Asset exceeds " + maxSize + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("Asset is empty");
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            boolean stored = false;
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                    stored = true;
+                } catch (FileAlreadyExistsException e) {
+                    // Stored concurrently by another upload of the same content
+                }
+            }
+            meterRegistry.counter("ednotes.assets.stored", "result", stored ? "new" : "duplicate").increment();
+            assetRepository.insertIfAbsent(hash, contentType, size);
+            return find(hash).orElseThrow(() -> new IOException("Asset " + hash + " was not stored"));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Look up a stored asset. Metadata is cached since assets are immutable.
+     *
+     * @return the asset, or empty if the hash is unknown or its file is missing
+     */
+    public Optional<Asset> find(String hash) {
+        if (!HASH.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Asset asset = metadata.get(hash);
+        if (asset == null) {
+            asset = assetRepository.findById(hash).orElse(null);
+            if (asset == null || !Files.isRegularFile(path(hash))) {
+                return Optional.empty();
+            }
+            metadata.put(hash, asset);
+        }
+        return Optional.of(asset);
+    }
+
+    public Path path(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
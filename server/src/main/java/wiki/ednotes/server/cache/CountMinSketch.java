@@ -0,0 +1,70 @@
+package wiki.ednotes.server.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count-min sketch over long keys. Estimates never undercount;
+ * overcounts are bounded by the width of the table.
+ */
+class CountMinSketch {
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final AtomicLongArray table;
+    private final int width;
+    private final int mask;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     */
+    CountMinSketch(int width) {
+        this.width = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+        this.mask = this.width - 1;
+        this.table = new AtomicLongArray(this.width * SEEDS.length);
+    }
+
+    /**
+     * Count one occurrence of a key.
+     *
+     * @return the new estimate for the key
+     */
+    long increment(long key) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            min = Math.min(min, table.incrementAndGet(index(row, key)));
+        }
+        return min;
+    }
+
+    long estimate(long key) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            min = Math.min(min, table.get(index(row, key)));
+        }
+        return min;
+    }
+
+    /**
+     * Halve every counter so old popularity fades out.
+     */
+    void decay() {
+        for (int i = 0; i < table.length(); i++) {
+            table.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    private int index(int row, long key) {
+        return row * width + (int) (mix(key ^ SEEDS[row]) & mask);
+    }
+
+    // MurmurHash3 64-bit finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
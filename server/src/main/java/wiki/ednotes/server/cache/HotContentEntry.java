@@ -0,0 +1,35 @@
+package wiki.ednotes.server.cache;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+/**
+ * Entity representing a persisted hot article or topic tree, used to pre-warm
+ * caches after a restart.
+ */
+@Entity
+@Table(name = "HotContent")
+public class HotContentEntry {
+    @EmbeddedId
+    private HotContentId id;
+
+    @Column(name = "score", nullable = false)
+    private long score;
+
+    protected HotContentEntry() {}
+
+    public HotContentEntry(String kind, Long entityId, long score) {
+        this.id = new HotContentId(kind, entityId);
+        this.score = score;
+    }
+
+    public HotContentId getId() {
+        return id;
+    }
+
+    public long getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,51 @@
+package wiki.ednotes.server.cache;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Composite identifier for HotContentEntry.
+ */
+@Embeddable
+public class HotContentId implements Serializable {
+    @Column(name = "kind", nullable = false)
+    private String kind;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    protected HotContentId() {}
+
+    public HotContentId(String kind, Long entityId) {
+        this.kind = kind;
+        this.entityId = entityId;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HotContentId that = (HotContentId) o;
+        return Objects.equals(kind, that.kind) && Objects.equals(entityId, that.entityId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, entityId);
+    }
+}
@@ -0,0 +1,9 @@
+package wiki.ednotes.server.cache;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface HotContentRepository extends JpaRepository<HotContentEntry, HotContentId> {
+    List<HotContentEntry> findByIdKindOrderByScoreDesc(String kind);
+}
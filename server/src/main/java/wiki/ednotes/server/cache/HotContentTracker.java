@@ -0,0 +1,90 @@
+package wiki.ednotes.server.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks which articles and topic trees are read most, using a decaying
+ * count-min sketch with a top-K candidate set per kind. The hot sets are
+ * persisted periodically so a fresh instance can pre-warm its caches.
+ */
+@Component
+public class HotContentTracker {
+    private static final String ARTICLE = "ARTICLE";
+    private static final String TREE = "TREE";
+
+    private final HotSet articles;
+    private final HotSet trees;
+    private final HotContentRepository hotContentRepository;
+
+    /**
+     * Constructor for HotContentTracker.
+     * @param hotContentRepository repository for the persisted hot set
+     * @param capacity number of heavy hitters kept per kind
+     * @param sketchWidth counters per sketch row
+     */
+    public HotContentTracker(HotContentRepository hotContentRepository,
+            @Value("${ednotes.hot.capacity:100}") int capacity,
+            @Value("${ednotes.hot.sketch-width:4096}") int sketchWidth) {
+        this.hotContentRepository = hotContentRepository;
+        this.articles = new HotSet(capacity, sketchWidth);
+        this.trees = new HotSet(capacity, sketchWidth);
+    }
+
+    public void recordArticle(Long id) {
+        articles.record(id);
+    }
+
+    public void recordTree(Long topicId) {
+        trees.record(topicId);
+    }
+
+    public List<Long> hotArticles(int limit) {
+        return articles.top(limit);
+    }
+
+    public List<Long> hotTrees(int limit) {
+        return trees.top(limit);
+    }
+
+    /**
+     * Halve all counts so popularity reflects recent traffic.
+     */
+    @Scheduled(fixedDelayString = "${ednotes.hot.decay-interval:600000}")
+    public void decay() {
+        articles.decay();
+        trees.decay();
+    }
+
+    /**
+     * Replace the persisted hot set with the current one.
+     */
+    @Scheduled(fixedDelayString = "${ednotes.hot.persist-interval:300000}",
+            initialDelayString = "${ednotes.hot.persist-interval:300000}")
+    @Transactional
+    public void persist() {
+        List<HotContentEntry> entries = new ArrayList<>();
+        articles.snapshot().forEach((id, score) -> entries.add(new HotContentEntry(ARTICLE, id, score)));
+        trees.snapshot().forEach((id, score) -> entries.add(new HotContentEntry(TREE, id, score)));
+        hotContentRepository.deleteAllInBatch();
+        hotContentRepository.saveAll(entries);
+    }
+
+    /**
+     * Seed the in-memory hot sets from the persisted ones.
+     */
+    @Transactional(readOnly = true)
+    public void restore() {
+        for (HotContentEntry entry : hotContentRepository.findByIdKindOrderByScoreDesc(ARTICLE)) {
+            articles.seed(entry.getId().getEntityId(), entry.getScore());
+        }
+        for (HotContentEntry entry : hotContentRepository.findByIdKindOrderByScoreDesc(TREE)) {
+            trees.seed(entry.getId().getEntityId(), entry.getScore());
+        }
+    }
+}
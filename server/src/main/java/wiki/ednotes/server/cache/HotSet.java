@@ -0,0 +1,72 @@
+package wiki.ednotes.server.cache;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Top-K heavy hitters on top of a count-min sketch. The read path only does
+ * atomic increments and, for keys that are already hot, a map put; trimming
+ * the candidate set back to K happens rarely.
+ */
+class HotSet {
+    private final CountMinSketch sketch;
+    private final Map<Long, Long> candidates = new ConcurrentHashMap<>();
+    private final int capacity;
+    private volatile long threshold;
+
+    HotSet(int capacity, int sketchWidth) {
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(sketchWidth);
+    }
+
+    void record(long key) {
+        long estimate = sketch.increment(key);
+        if (estimate >= threshold || candidates.size() < capacity) {
+            candidates.put(key, estimate);
+            if (candidates.size() > capacity * 2) {
+                trim();
+            }
+        }
+    }
+
+    /**
+     * Seed a key, e.g. from a persisted hot set, without counting a real read.
+     */
+    void seed(long key, long score) {
+        candidates.merge(key, score, Math::max);
+    }
+
+    List<Long> top(int limit) {
+        return candidates.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    Map<Long, Long> snapshot() {
+        return Map.copyOf(candidates);
+    }
+
+    synchronized void decay() {
+        sketch.decay();
+        candidates.replaceAll((key, count) -> count >>> 1);
+        candidates.values().removeIf(count -> count == 0);
+        threshold >>>= 1;
+    }
+
+    private synchronized void trim() {
+        if (candidates.size() <= capacity * 2) {
+            return;
+        }
+        List<Map.Entry<Long, Long>> sorted = candidates.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()))
+                .toList();
+        for (Map.Entry<Long, Long> entry : sorted.subList(capacity, sorted.size())) {
+            candidates.remove(entry.getKey(), entry.getValue());
+        }
+        threshold = sorted.get(capacity - 1).getValue();
+    }
+}
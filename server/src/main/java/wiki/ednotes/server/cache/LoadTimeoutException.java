@@ -0,0 +1,15 @@
+package wiki.ednotes.server.cache;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request gives up waiting for a shared in-flight load, or is
+ * turned away by the {@link ReadLimiter}.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LoadTimeoutException extends RuntimeException {
+    public LoadTimeoutException(String message) {
+        super(message);
+    }
+}
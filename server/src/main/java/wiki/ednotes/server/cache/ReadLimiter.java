@@ -0,0 +1,82 @@
+package wiki.ednotes.server.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounds how many reader loads hit the database at once.
+ * <p>
+ * Request threads are virtual, so the number of requests in progress is no
+ * longer capped by a thread pool; this is the cap instead. Loads beyond the
+ * limit queue for a permit in arrival order. When the queue is full, or a
+ * permit does not free up in time, the request fails fast with 503 rather
+ * than piling more waiters onto the connection pool.
+ */
+@Component
+public class ReadLimiter {
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final int maxWaiting;
+    private final long acquireTimeoutMillis;
+    private final Counter rejected;
+
+    /**
+     * Constructor for ReadLimiter.
+     * @param concurrency loads allowed to run at once
+     * @param maxWaiting loads allowed to queue for a permit
+     * @param acquireTimeoutMillis how long a queued load waits for a permit
+     */
+    public ReadLimiter(MeterRegistry meterRegistry,
+            @Value("${ednotes.reader.db-concurrency:10}") int concurrency,
+            @Value("${ednotes.reader.max-waiting:1000}") int maxWaiting,
+            @Value("${ednotes.reader.acquire-timeout:2000}") long acquireTimeoutMillis) {
+        this.permits = new Semaphore(concurrency, true);
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.rejected = meterRegistry.counter("ednotes.reader.rejected");
+        meterRegistry.gauge("ednotes.reader.waiting", waiting);
+        meterRegistry.gauge("ednotes.reader.active", permits, p -> concurrency - p.availablePermits());
+    }
+
+    /**
+     * Run a load once a permit is available.
+     *
+     * @throws LoadTimeoutException if the queue is full or no permit frees up in time
+     */
+    public <T> T call(Supplier<T> loader) {
+        if (!permits.tryAcquire()) {
+            acquire();
+        }
+        try {
+            return loader.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            throw new LoadTimeoutException("Too many reads waiting for the database");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new LoadTimeoutException("Timed out waiting for a database read permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoadTimeoutException("Interrupted waiting for a database read permit");
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+}
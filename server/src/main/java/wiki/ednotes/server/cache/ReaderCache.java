@@ -0,0 +1,205 @@
+package wiki.ednotes.server.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wiki.ednotes.server.change.ChangeEvent;
+import wiki.ednotes.server.change.EntityType;
+import wiki.ednotes.server.config.ReplicaRouting;
+import wiki.ednotes.server.navigation.NavigationService;
+import wiki.ednotes.server.navigation.dto.ArticleContent;
+import wiki.ednotes.server.navigation.dto.ArticleOutline;
+import wiki.ednotes.server.navigation.dto.SidebarNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process cache of article views, article outlines and topic trees,
+ * invalidated by committed change events and re-warmed for hot content.
+ * <p>
+ * Misses go through {@link SingleFlight}. A load only populates the cache if
+ * no invalidation happened while it ran, and request-driven loads do not
+ * populate it for a short grace period after an invalidation, since a replica
+ * may still be serving the old rows. Re-warming runs on its own thread pinned
+ * to the primary. Each map holds at most {@code ednotes.cache.max-entries}
+ * entries. Caffeine picks what to drop by how recently and how often entries
+ * are read, and a cache hit takes no lock.
+ */
+@Component
+public class ReaderCache {
+    private static final Logger log = LoggerFactory.getLogger(ReaderCache.class);
+
+    private final NavigationService navigationService;
+    private final SingleFlight singleFlight;
+    private final HotContentTracker hotContent;
+    private final Map<Long, Optional<ArticleContent>> articles;
+    private final Map<Long, ArticleOutline> outlines;
+    private final Map<Long, List<SidebarNode>> trees;
+    private final AtomicLong generation = new AtomicLong();
+    private final ExecutorService warmer = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("cache-warmer").daemon(true).factory());
+    private final int warmCount;
+    private final long replicaGraceMillis;
+    private volatile long lastInvalidation;
+
+    /**
+     * Constructor for ReaderCache.
+     */
+    public ReaderCache(NavigationService navigationService,
+            SingleFlight singleFlight,
+            HotContentTracker hotContent,
+            @Value("${ednotes.cache.max-entries:5000}") int maxEntries,
+            @Value("${ednotes.cache.warm-count:50}") int warmCount,
+            @Value("${ednotes.cache.replica-grace:2000}") long replicaGraceMillis) {
+        this.navigationService = navigationService;
+        this.singleFlight = singleFlight;
+        this.hotContent = hotContent;
+        this.articles = bounded(maxEntries);
+        this.outlines = bounded(maxEntries);
+        this.trees = bounded(maxEntries);
+        this.warmCount = warmCount;
+        this.replicaGraceMillis = replicaGraceMillis;
+    }
+
+    /**
+     * Get an article view, loading it on a miss.
+     * @param id the article ID
+     * @return the article content, or empty if not found
+     */
+    public Optional<ArticleContent> article(Long id) {
+        Optional<ArticleContent> cached = articles.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long gen = generation.get();
+        Optional<ArticleContent> loaded = singleFlight.load("article", id, () -> navigationService.getArticleContent(id));
+        if (loaded.isPresent()) {
+            store(articles, id, loaded, gen);
+        }
+        return loaded;
+    }
+
+    /**
+     * Get an article outline with its first section, loading it on a miss.
+     * @param id the article ID
+     * @return the outline, or empty if not found
+     */
+    public Optional<ArticleOutline> outline(Long id) {
+        ArticleOutline cached = outlines.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long gen = generation.get();
+        Optional<ArticleOutline> loaded = singleFlight.load("outline", id, () -> navigationService.getArticleOutline(id));
+        loaded.ifPresent(outline -> store(outlines, id, outline, gen));
+        return loaded;
+    }
+
+    /**
+     * Get a topic sidebar tree, loading it on a miss.
+     * @param topicId the topic category ID
+     * @return the tree
+     */
+    public List<SidebarNode> tree(Long topicId) {
+        List<SidebarNode> cached = trees.get(topicId);
+        if (cached != null) {
+            return cached;
+        }
+        long gen = generation.get();
+        List<SidebarNode> loaded = singleFlight.load("tree", topicId, () -> navigationService.getNavigationTree(topicId));
+        if (!loaded.isEmpty()) {
+            store(trees, topicId, loaded, gen);
+        }
+        return loaded;
+    }
+
+    /**
+     * Restore the persisted hot set and load it into the cache. Runs during
+     * startup, before the instance reports ready.
+     */
+    public void warmFromPersisted() {
+        hotContent.restore();
+        warm(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (event.getType() == EntityType.PROJECT) {
+            return;
+        }
+        invalidate();
+        boolean treesEvicted = switch (event.getType()) {
+            case ARTICLE -> {
+                articles.remove(event.getId());
+                // Views list the articles they build on by title and publication.
+                articles.values().removeIf(view -> view.isPresent() && view.get().getBackgroundArticles().stream()
+                        .anyMatch(background -> background.getId().equals(event.getId())));
+                outlines.remove(event.getId());
+                trees.clear();
+                yield true;
+            }
+            case CATEGORY -> {
+                // Breadcrumbs embed category titles, so every article view may be stale.
+                articles.clear();
+                outlines.clear();
+                trees.clear();
+                yield true;
+            }
+            case CONNECTION, PROJECT -> {
+                articles.remove(event.getId());
+                yield false;
+            }
+        };
+        warmer.execute(() -> warm(treesEvicted));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        warmer.shutdownNow();
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        lastInvalidation = System.currentTimeMillis();
+    }
+
+    private void warm(boolean warmTrees) {
+        try {
+            ReplicaRouting.onPrimary(() -> {
+                if (warmTrees) {
+                    hotContent.hotTrees(warmCount).forEach(this::tree);
+                }
+                hotContent.hotArticles(warmCount).forEach(this::article);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Cache warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private <V> void store(Map<Long, V> cache, Long key, V value, long gen) {
+        if (!ReplicaRouting.isPrimaryForced()
+                && System.currentTimeMillis() - lastInvalidation < replicaGraceMillis) {
+            return;
+        }
+        cache.put(key, value);
+        if (generation.get() != gen) {
+            cache.remove(key, value);
+        }
+    }
+
+    /**
+     * Concurrent map that evicts once it grows past the limit.
+     */
+    private static <V> Map<Long, V> bounded(int maxEntries) {
+        return Caffeine.newBuilder().maximumSize(maxEntries).<Long, V>build().asMap();
+    }
+}
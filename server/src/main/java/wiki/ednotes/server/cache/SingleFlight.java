@@ -0,0 +1,110 @@
+package wiki.ednotes.server.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wiki.ednotes.server.change.ChangeEvent;
+import wiki.ednotes.server.config.ReplicaRouting;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads into one computation.
+ * <p>
+ * The first caller for a key runs the loader on its own thread; callers that
+ * arrive while it is running wait on the same future and receive the same
+ * result or exception. Keys include the latest committed change version, so a
+ * request that starts after a write never joins a load that began before it,
+ * and whether the caller is pinned to the primary, so a read-your-writes
+ * request never joins a load that may have read a lagging replica.
+ * Results are shared between callers and must not be mutated. Only leaders
+ * touch the database, and they go through the {@link ReadLimiter}.
+ */
+@Component
+public class SingleFlight {
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+    private final ReadLimiter readLimiter;
+    private final long timeoutMillis;
+
+    /**
+     * Constructor for SingleFlight.
+     * @param meterRegistry registry for leader/joined counters
+     * @param readLimiter bound on concurrent database loads
+     * @param timeoutMillis how long a joined caller waits for the shared result
+     */
+    public SingleFlight(MeterRegistry meterRegistry, ReadLimiter readLimiter,
+            @Value("${ednotes.singleflight.timeout:5000}") long timeoutMillis) {
+        this.meterRegistry = meterRegistry;
+        this.readLimiter = readLimiter;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Load a value, sharing the work with concurrent callers for the same entity and id.
+     *
+     * @param entity name of the kind of value, e.g. "article" or "tree"
+     * @param id     identifier of the value within that kind (may be null)
+     * @param loader computes the value
+     * @return the loaded value
+     * @throws LoadTimeoutException if waiting on another caller's load or on a
+     *         read permit times out
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String entity, Object id, Supplier<T> loader) {
+        Key key = new Key(entity, id, version.get(), ReplicaRouting.isPrimaryForced());
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing == null) {
+            meterRegistry.counter("ednotes.singleflight.loads", "entity", entity, "role", "leader").increment();
+            try {
+                T value = readLimiter.call(loader);
+                mine.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+
+        meterRegistry.counter("ednotes.singleflight.loads", "entity", entity, "role", "joined").increment();
+        try {
+            return (T) existing.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new LoadTimeoutException("Timed out waiting for shared load of " + entity + " " + id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoadTimeoutException("Interrupted waiting for shared load of " + entity + " " + id);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Move to a new key generation once a write commits.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        version.accumulateAndGet(event.getVersion(), Math::max);
+    }
+
+    private record Key(String entity, Object id, long version, boolean primary) {
+    }
+}
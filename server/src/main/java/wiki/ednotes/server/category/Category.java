@@ -26,7 +26,7 @@ public class Category {
     @Column(name = "published", nullable = false)
     private boolean published;
 
-    @Column(name = "order")
+    @Column(name = "\"order\"")
     private Long order;
 
     @Column(name = "topic", nullable = false)
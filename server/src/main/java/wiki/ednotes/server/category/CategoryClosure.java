@@ -0,0 +1,44 @@
+package wiki.ednotes.server.category;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+/**
+ * Entity representing one ancestor/descendant pair of the category closure table.
+ * Every category has a self-row at depth 0 plus one row per ancestor.
+ */
+@Entity
+@Table(name = "CategoryClosures")
+public class CategoryClosure {
+    @EmbeddedId
+    private CategoryClosureId id;
+
+    @Column(name = "depth", nullable = false)
+    private int depth;
+
+    public CategoryClosureId getId() {
+        return id;
+    }
+
+    public void setId(CategoryClosureId id) {
+        this.id = id;
+    }
+
+    public Long getAncestorId() {
+        return id != null ? id.getAncestorId() : null;
+    }
+
+    public Long getDescendantId() {
+        return id != null ? id.getDescendantId() : null;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+}
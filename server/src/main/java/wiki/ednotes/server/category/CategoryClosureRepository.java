@@ -0,0 +1,170 @@
+package wiki.ednotes.server.category;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the category closure table. Every subtree operation here is a
+ * single set-based statement, independent of the size of the subtree.
+ */
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, CategoryClosureId> {
+
+    /**
+     * Ids of a category and all of its descendants.
+     */
+    @Query(value = "SELECT descendant_id FROM category_closures WHERE ancestor_id = :id", nativeQuery = true)
+    List<Long> findSubtreeIds(@Param("id") Long id);
+
+    /**
+     * Ancestor rows (including self-rows) of several categories, outermost first.
+     */
+    @Query("SELECT cc FROM CategoryClosure cc WHERE cc.id.descendantId IN :ids ORDER BY cc.depth DESC")
+    List<CategoryClosure> findAncestorRows(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM category_closures WHERE ancestor_id = :ancestorId AND descendant_id = :descendantId)",
+            nativeQuery = true)
+    boolean isAncestorOrSelf(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+
+    @Query(value = "SELECT count(*) FROM category_closures WHERE ancestor_id = :id AND depth > 0", nativeQuery = true)
+    long countDescendantCategories(@Param("id") Long id);
+
+    @Query(value = """
+            SELECT count(*) FROM Articles a
+            JOIN category_closures cc ON cc.descendant_id = a.category_id
+            WHERE cc.ancestor_id = :id
+            """, nativeQuery = true)
+    long countSubtreeArticles(@Param("id") Long id);
+
+    /**
+     * Insert the closure rows for a freshly created category: its self-row plus
+     * one row per ancestor of the parent.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO category_closures (ancestor_id, descendant_id, depth)
+            SELECT ancestor_id, :id, depth + 1 FROM category_closures WHERE descendant_id = :parentId
+            UNION ALL
+            SELECT :id, :id, 0
+            """, nativeQuery = true)
+    int insertNode(@Param("id") Long id, @Param("parentId") Long parentId);
+
+    /**
+     * Detach a subtree from all of its ancestors outside the subtree. The
+     * outside check is a NOT EXISTS anti-join on the primary key; NOT IN is
+     * planned as a hashed filter over a scan of the whole table.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM category_closures c
+            WHERE c.descendant_id IN (SELECT descendant_id FROM category_closures WHERE ancestor_id = :id)
+              AND NOT EXISTS (SELECT 1 FROM category_closures s
+                              WHERE s.ancestor_id = :id AND s.descendant_id = c.ancestor_id)
+            """, nativeQuery = true)
+    int detachSubtree(@Param("id") Long id);
+
+    /**
+     * Attach a detached subtree below a new parent by pairing every ancestor of
+     * the parent with every node of the subtree.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO category_closures (ancestor_id, descendant_id, depth)
+            SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1
+            FROM category_closures above
+            CROSS JOIN category_closures below
+            WHERE above.descendant_id = :parentId AND below.ancestor_id = :id
+            """, nativeQuery = true)
+    int attachSubtree(@Param("id") Long id, @Param("parentId") Long parentId);
+
+    /**
+     * Point every category of a subtree at its outermost topic ancestor,
+     * or clear it when no ancestor is a topic.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE Categories c SET topic_id = (
+                SELECT cc.ancestor_id FROM category_closures cc
+                JOIN Categories t ON t.id = cc.ancestor_id
+                WHERE cc.descendant_id = c.id AND cc.depth > 0 AND t.topic
+                ORDER BY cc.depth DESC
+                LIMIT 1)
+            WHERE c.id IN (SELECT descendant_id FROM category_closures WHERE ancestor_id = :id)
+            """, nativeQuery = true)
+    int refreshSubtreeTopicIds(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE Categories SET published = :published
+            WHERE id IN (SELECT descendant_id FROM category_closures WHERE ancestor_id = :id)
+            """, nativeQuery = true)
+    int publishSubtreeCategories(@Param("id") Long id, @Param("published") boolean published);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE Articles SET published = :published
+            WHERE category_id IN (SELECT descendant_id FROM category_closures WHERE ancestor_id = :id)
+            """, nativeQuery = true)
+    int publishSubtreeArticles(@Param("id") Long id, @Param("published") boolean published);
+
+    /**
+     * Delete the connections to or from articles in a subtree. The two sides
+     * are a union rather than an OR so each one is an index lookup.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM article_connections
+            WHERE (source_id, target_id) IN (
+                SELECT ac.source_id, ac.target_id FROM article_connections ac
+                JOIN Articles a ON a.id = ac.source_id
+                JOIN category_closures cc ON cc.descendant_id = a.category_id WHERE cc.ancestor_id = :id
+                UNION ALL
+                SELECT ac.source_id, ac.target_id FROM article_connections ac
+                JOIN Articles a ON a.id = ac.target_id
+                JOIN category_closures cc ON cc.descendant_id = a.category_id WHERE cc.ancestor_id = :id)
+            """, nativeQuery = true)
+    int deleteSubtreeConnections(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM Articles
+            WHERE category_id IN (SELECT descendant_id FROM category_closures WHERE ancestor_id = :id)
+            """, nativeQuery = true)
+    int deleteSubtreeArticles(@Param("id") Long id);
+
+    /**
+     * Delete every category of a subtree. The closure rows go with them through
+     * the ON DELETE CASCADE foreign keys of CategoryClosures.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            DELETE FROM Categories
+            WHERE id IN (SELECT descendant_id FROM category_closures WHERE ancestor_id = :id)
+            """, nativeQuery = true)
+    int deleteSubtreeCategories(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM category_closures", nativeQuery = true)
+    int deleteAllRows();
+
+    /**
+     * Rebuild the whole closure table from Categories.parent_id, used to
+     * backfill existing data.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO category_closures (ancestor_id, descendant_id, depth)
+            WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+                SELECT id, id, 0 FROM Categories
+                UNION ALL
+                SELECT p.ancestor_id, c.id, p.depth + 1
+                FROM paths p JOIN Categories c ON c.parent_id = p.descendant_id
+            )
+            SELECT ancestor_id, descendant_id, depth FROM paths
+            """, nativeQuery = true)
+    int rebuildAll();
+}
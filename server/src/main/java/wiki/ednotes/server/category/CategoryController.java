@@ -2,11 +2,13 @@ package wiki.ednotes.server.category;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -46,13 +48,74 @@ public class CategoryController {
      */
     @PutMapping("/{id}")
     public ResponseEntity<Category> updateCategory(@PathVariable Long id, @RequestBody Category category) {
-        return categoryService.update(id, category)
+        try {
+            return categoryService.update(id, category)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Move a category and its whole subtree under a new parent.
+     *
+     * @param id       the ID of the category to move
+     * @param parentId the new parent ID, or absent to move the subtree to the root
+     * @return the moved category, if found
+     */
+    @PutMapping("/{id}/parent")
+    public ResponseEntity<Category> moveCategory(@PathVariable Long id,
+            @RequestParam(required = false) Long parentId) {
+        try {
+            return categoryService.moveSubtree(id, parentId)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Publish or unpublish a category together with all sub-categories and articles.
+     *
+     * @param id    the ID of the subtree root
+     * @param value the new published flag
+     * @return a response indicating the result of the update
+     */
+    @PutMapping("/{id}/published")
+    public ResponseEntity<Void> publishSubtree(@PathVariable Long id, @RequestParam boolean value) {
+        if (categoryService.publishSubtree(id, value)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Count the categories and articles below a category.
+     *
+     * @param id the ID of the subtree root
+     * @return the descendant counts, if found
+     */
+    @GetMapping("/{id}/descendants/count")
+    public ResponseEntity<SubtreeCount> countDescendants(@PathVariable Long id) {
+        return categoryService.countDescendants(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * Delete a category by its ID.
+     * Rebuild the category closure table from the parent links.
+     *
+     * @return the number of closure rows written
+     */
+    @PostMapping("/closure/rebuild")
+    public ResponseEntity<Integer> rebuildClosure() {
+        return ResponseEntity.ok(categoryService.rebuildClosure());
+    }
+
+    /**
+     * Delete a category, its sub-categories and all of their articles.
      *
      * @param id the ID of the category to delete
      * @return a response indicating the result of the deletion
@@ -1,6 +1,9 @@
 package wiki.ednotes.server.category;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -9,4 +12,22 @@ import java.util.List;
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByParentIdOrderByOrderAsc(Long parentId);
     List<Category> findByParentIdAndPublishedIsTrueOrderByOrderAsc(Long parentId);
+    List<Category> findByTopicIsTrueAndTopicIdIsNullAndPublishedIsTrueOrderByOrderAsc();
+    List<Category> findByParentIdInAndPublishedIsTrueOrderByOrderAsc(Collection<Long> parentIds);
+
+    /**
+     * A topic root together with every category whose topicId points at it.
+     */
+    @Query("SELECT c FROM Category c WHERE c.id = :topicId OR c.topicId = :topicId ORDER BY c.order ASC")
+    List<Category> findTopicCategories(@Param("topicId") Long topicId);
+
+    /**
+     * A category and all of its descendants, using the closure table.
+     */
+    @Query("""
+            SELECT c FROM Category c
+            WHERE c.id IN (SELECT cc.id.descendantId FROM CategoryClosure cc WHERE cc.id.ancestorId = :categoryId)
+            ORDER BY c.order ASC
+            """)
+    List<Category> findSubtree(@Param("categoryId") Long categoryId);
 }
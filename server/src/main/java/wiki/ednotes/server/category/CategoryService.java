@@ -2,16 +2,23 @@ package wiki.ednotes.server.category;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import wiki.ednotes.server.change.ChangePublisher;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class CategoryService {
 	private final CategoryRepository categoryRepository;
+	private final CategoryClosureRepository closureRepository;
+	private final ChangePublisher changePublisher;
 
-	public CategoryService(CategoryRepository categoryRepository) {
+	public CategoryService(CategoryRepository categoryRepository, CategoryClosureRepository closureRepository,
+			ChangePublisher changePublisher) {
 		this.categoryRepository = categoryRepository;
+		this.closureRepository = closureRepository;
+		this.changePublisher = changePublisher;
 	}
 
 	public List<Category> findAll() {
@@ -40,25 +47,136 @@ public class CategoryService {
 		return categoryRepository.findByParentIdAndPublishedIsTrueOrderByOrderAsc(null);
 	}
 
+	/**
+	 * Create a category. Its topic is derived from its ancestors; a topicId in
+	 * the request is ignored.
+	 */
 	@Transactional
 	public Category create(Category category) {
-		return categoryRepository.save(category);
+		Category created = categoryRepository.saveAndFlush(category);
+		closureRepository.insertNode(created.getId(), created.getParentId());
+		closureRepository.refreshSubtreeTopicIds(created.getId());
+		Category refreshed = categoryRepository.findById(created.getId()).orElseThrow();
+		changePublisher.categoryChanged(refreshed, false);
+		return refreshed;
 	}
 
+	/**
+	 * Update a category. The derived topicId is kept, and recomputed for the
+	 * subtree when the category moves or becomes or stops being a topic.
+	 */
 	@Transactional
 	public Optional<Category> update(Long id, Category category) {
 		return categoryRepository.findById(id).map(existing -> {
+			Long oldParentId = existing.getParentId();
+			boolean oldTopic = existing.getTopic();
+			if (!Objects.equals(oldParentId, category.getParentId())) {
+				checkMoveTarget(id, category.getParentId());
+			}
 			category.setId(id);
-			return categoryRepository.save(category);
+			category.setTopicId(existing.getTopicId());
+			Category saved = categoryRepository.saveAndFlush(category);
+			if (!Objects.equals(oldParentId, saved.getParentId())) {
+				relinkSubtree(id, saved.getParentId());
+			} else if (oldTopic != saved.getTopic()) {
+				closureRepository.refreshSubtreeTopicIds(id);
+			} else {
+				changePublisher.categoryChanged(saved, false);
+				return saved;
+			}
+			Category refreshed = categoryRepository.findById(id).orElseThrow();
+			changePublisher.subtreeChanged(refreshed, false);
+			return refreshed;
 		});
 	}
 
+	/**
+	 * Move a category and everything below it under a new parent (null for root).
+	 *
+	 * @throws IllegalArgumentException if the new parent lies inside the subtree
+	 */
 	@Transactional
-	public boolean delete(Long id) {
+	public Optional<Category> moveSubtree(Long id, Long newParentId) {
+		return categoryRepository.findById(id).map(existing -> {
+			if (Objects.equals(existing.getParentId(), newParentId)) {
+				return existing;
+			}
+			checkMoveTarget(id, newParentId);
+			existing.setParentId(newParentId);
+			categoryRepository.saveAndFlush(existing);
+			relinkSubtree(id, newParentId);
+			Category moved = categoryRepository.findById(id).orElseThrow();
+			changePublisher.subtreeChanged(moved, false);
+			return moved;
+		});
+	}
+
+	@Transactional
+	public boolean publishSubtree(Long id, boolean published) {
+		if (!categoryRepository.existsById(id)) {
+			return false;
+		}
+		closureRepository.publishSubtreeArticles(id, published);
+		closureRepository.publishSubtreeCategories(id, published);
+		categoryRepository.findById(id).ifPresent(category -> changePublisher.subtreeChanged(category, false));
+		return true;
+	}
+
+	@Transactional(readOnly = true)
+	public Optional<SubtreeCount> countDescendants(Long id) {
 		if (!categoryRepository.existsById(id)) {
+			return Optional.empty();
+		}
+		return Optional.of(new SubtreeCount(
+				closureRepository.countDescendantCategories(id),
+				closureRepository.countSubtreeArticles(id)));
+	}
+
+	/**
+	 * Delete a category together with its sub-categories, their articles and any
+	 * connections touching those articles.
+	 */
+	@Transactional
+	public boolean delete(Long id) {
+		Optional<Category> existing = categoryRepository.findById(id);
+		if (existing.isEmpty()) {
 			return false;
 		}
-		categoryRepository.deleteById(id);
+		changePublisher.subtreeChanged(existing.get(), true);
+		closureRepository.deleteSubtreeConnections(id);
+		closureRepository.deleteSubtreeArticles(id);
+		closureRepository.deleteSubtreeCategories(id);
 		return true;
 	}
+
+	/**
+	 * Rebuild the closure table from the parent_id column.
+	 *
+	 * @return the number of closure rows written
+	 */
+	@Transactional
+	public int rebuildClosure() {
+		closureRepository.deleteAllRows();
+		return closureRepository.rebuildAll();
+	}
+
+	private void checkMoveTarget(Long id, Long newParentId) {
+		if (newParentId == null) {
+			return;
+		}
+		if (!categoryRepository.existsById(newParentId)) {
+			throw new IllegalArgumentException("Parent category " + newParentId + " does not exist");
+		}
+		if (closureRepository.isAncestorOrSelf(id, newParentId)) {
+			throw new IllegalArgumentException("Cannot move category " + id + " below its own subtree");
+		}
+	}
+
+	private void relinkSubtree(Long id, Long newParentId) {
+		closureRepository.detachSubtree(id);
+		if (newParentId != null) {
+			closureRepository.attachSubtree(id, newParentId);
+		}
+		closureRepository.refreshSubtreeTopicIds(id);
+	}
 }
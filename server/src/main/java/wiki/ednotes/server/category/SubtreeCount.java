@@ -0,0 +1,33 @@
+package wiki.ednotes.server.category;
+
+/**
+ * DTO with the number of categories and articles below a category.
+ */
+public class SubtreeCount {
+    private long categories;
+    private long articles;
+
+    public SubtreeCount() {
+    }
+
+    public SubtreeCount(long categories, long articles) {
+        this.categories = categories;
+        this.articles = articles;
+    }
+
+    public long getCategories() {
+        return categories;
+    }
+
+    public void setCategories(long categories) {
+        this.categories = categories;
+    }
+
+    public long getArticles() {
+        return articles;
+    }
+
+    public void setArticles(long articles) {
+        this.articles = articles;
+    }
+}
@@ -0,0 +1,41 @@
+package wiki.ednotes.server.change;
+
+/**
+ * Compact notification that an entity changed. For connections the id is the
+ * source article, whose background list is the thing that changed.
+ */
+public class ChangeEvent {
+    private final EntityType type;
+    private final Long id;
+    private final Long topicId;
+    private final long version;
+    private final boolean deleted;
+
+    public ChangeEvent(EntityType type, Long id, Long topicId, long version, boolean deleted) {
+        this.type = type;
+        this.id = id;
+        this.topicId = topicId;
+        this.version = version;
+        this.deleted = deleted;
+    }
+
+    public EntityType getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTopicId() {
+        return topicId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
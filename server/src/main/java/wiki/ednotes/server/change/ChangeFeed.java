@@ -0,0 +1,148 @@
+package wiki.ednotes.server.change;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed change events out to Server-Sent Events subscribers.
+ * <p>
+ * Subscribers hold no thread while idle: each one owns a small bounded queue
+ * that is drained on a shared pool. A subscriber whose queue overflows is too
+ * slow to keep up and is disconnected; EventSource clients reconnect and
+ * refetch.
+ */
+@Component
+public class ChangeFeed {
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final int queueCapacity;
+    private final long emitterTimeout;
+    private final Counter dropped;
+
+    /**
+     * Constructor for ChangeFeed.
+     */
+    public ChangeFeed(MeterRegistry meterRegistry,
+            @Value("${ednotes.changes.sender-threads:2}") int senderThreads,
+            @Value("${ednotes.changes.queue-capacity:64}") int queueCapacity,
+            @Value("${ednotes.changes.emitter-timeout:1800000}") long emitterTimeout) {
+        this.senders = Executors.newFixedThreadPool(senderThreads, Thread.ofPlatform()
+                .name("change-feed-", 0).daemon(true).factory());
+        this.queueCapacity = queueCapacity;
+        this.emitterTimeout = emitterTimeout;
+        this.dropped = meterRegistry.counter("ednotes.changes.dropped.subscribers");
+        meterRegistry.gauge("ednotes.changes.subscribers", subscribers, Set::size);
+    }
+
+    /**
+     * Register a new subscriber.
+     *
+     * @return the emitter to hand back to Spring MVC
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(queueCapacity));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Broadcast a change once the transaction that produced it has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, SseEmitter.event()
+                    .name("change")
+                    .id(Long.toString(event.getVersion()))
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Keep idle connections alive and flush out dead ones.
+     */
+    @Scheduled(fixedDelayString = "${ednotes.changes.heartbeat-interval:30000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private void offer(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.queue.offer(event)) {
+            drop(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(subscriber);
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // Re-check in case an event was queued after the last poll.
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            dropped.increment();
+            log.debug("Dropping slow change feed subscriber");
+            subscriber.queue.clear();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Queue<SseEmitter.SseEventBuilder> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
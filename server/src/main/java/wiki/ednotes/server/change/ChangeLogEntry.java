@@ -0,0 +1,73 @@
+package wiki.ednotes.server.change;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Entity representing one row of the append-only change log. The identity
+ * column doubles as the sync watermark.
+ */
+@Entity
+@Table(name = "ChangeLog")
+public class ChangeLogEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "topic_id")
+    private Long topicId;
+
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
+    @Column(name = "changed_at", nullable = false, insertable = false, updatable = false)
+    private Instant changedAt;
+
+    protected ChangeLogEntry() {}
+
+    public ChangeLogEntry(EntityType entityType, Long entityId, Long topicId, boolean deleted) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.topicId = topicId;
+        this.deleted = deleted;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getTopicId() {
+        return topicId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
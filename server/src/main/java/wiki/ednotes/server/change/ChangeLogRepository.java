@@ -0,0 +1,81 @@
+package wiki.ednotes.server.change;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for the append-only change log.
+ */
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    /**
+     * Serialize appends for the rest of the transaction, so log ids become
+     * visible in commit order and a watermark never skips a late commit.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    int lockForAppend(@Param("key") long key);
+
+    /**
+     * Queue a notification on a channel. Postgres delivers it to listeners
+     * when the current transaction commits, and drops it on rollback.
+     */
+    @Query(value = "SELECT 1 FROM pg_notify(:channel, :payload)", nativeQuery = true)
+    int notifyListeners(@Param("channel") String channel, @Param("payload") String payload);
+
+    @Query(value = "SELECT COALESCE(max(id), 0) FROM change_log", nativeQuery = true)
+    long findWatermark();
+
+    @Query(value = "SELECT COALESCE(min(id), 0) FROM change_log", nativeQuery = true)
+    long findOldestRetained();
+
+    /**
+     * The latest log row per entity in the half-open range (since, until].
+     */
+    @Query(value = """
+            SELECT DISTINCT ON (entity_type, entity_id) * FROM change_log
+            WHERE id > :since AND id <= :until
+            ORDER BY entity_type, entity_id, id DESC
+            """, nativeQuery = true)
+    List<ChangeLogEntry> findCompactedSince(@Param("since") long since, @Param("until") long until);
+
+    /**
+     * Log every category and article of a subtree, plus the sources of any
+     * connections that touch those articles, in a fixed number of statements.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO change_log (entity_type, entity_id, topic_id, deleted)
+            SELECT 'CATEGORY', c.id, COALESCE(c.topic_id, CASE WHEN c.topic THEN c.id END), :deleted
+            FROM Categories c JOIN category_closures cc ON cc.descendant_id = c.id
+            WHERE cc.ancestor_id = :id
+            UNION ALL
+            SELECT 'ARTICLE', a.id, COALESCE(c.topic_id, CASE WHEN c.topic THEN c.id END), :deleted
+            FROM Articles a
+            JOIN Categories c ON c.id = a.category_id
+            JOIN category_closures cc ON cc.descendant_id = c.id
+            WHERE cc.ancestor_id = :id
+            UNION ALL
+            SELECT DISTINCT 'CONNECTION', ac.source_id, NULL::bigint, false
+            FROM article_connections ac
+            JOIN Articles a ON a.id = ac.source_id OR a.id = ac.target_id
+            JOIN category_closures cc ON cc.descendant_id = a.category_id
+            WHERE cc.ancestor_id = :id
+            """, nativeQuery = true)
+    int logSubtree(@Param("id") Long id, @Param("deleted") boolean deleted);
+
+    /**
+     * Drop rows older than the cutoff, always keeping the newest row so the
+     * retained horizon stays known.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM change_log
+            WHERE changed_at < :cutoff AND id < (SELECT max(id) FROM change_log)
+            """, nativeQuery = true)
+    int pruneBefore(@Param("cutoff") Instant cutoff);
+}
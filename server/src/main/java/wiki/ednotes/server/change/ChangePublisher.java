@@ -0,0 +1,93 @@
+package wiki.ednotes.server.change;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import wiki.ednotes.server.article.Article;
+import wiki.ednotes.server.article.ArticleRepository;
+import wiki.ednotes.server.category.Category;
+import wiki.ednotes.server.category.CategoryRepository;
+
+/**
+ * Publishes change events from the write paths. Each change is first appended
+ * to the change log inside the caller's transaction, and the log id becomes
+ * the event version. Events are delivered to listeners as Spring application
+ * events, so transactional listeners only see them once the transaction commits.
+ * Other server instances are notified through the {@link InvalidationBus}.
+ */
+@Component
+public class ChangePublisher {
+    private static final long APPEND_LOCK_KEY = 0x65644C6F67L; // "edLog"
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategoryRepository categoryRepository;
+    private final ArticleRepository articleRepository;
+    private final ChangeLogRepository changeLogRepository;
+    private final InvalidationBus invalidationBus;
+
+    /**
+     * Constructor for ChangePublisher.
+     */
+    public ChangePublisher(ApplicationEventPublisher eventPublisher,
+            CategoryRepository categoryRepository,
+            ArticleRepository articleRepository,
+            ChangeLogRepository changeLogRepository,
+            InvalidationBus invalidationBus) {
+        this.eventPublisher = eventPublisher;
+        this.categoryRepository = categoryRepository;
+        this.articleRepository = articleRepository;
+        this.changeLogRepository = changeLogRepository;
+        this.invalidationBus = invalidationBus;
+    }
+
+    public void articleChanged(Article article, boolean deleted) {
+        publish(EntityType.ARTICLE, article.getId(), topicOfCategory(article.getCategoryId()), deleted);
+    }
+
+    public void categoryChanged(Category category, boolean deleted) {
+        publish(EntityType.CATEGORY, category.getId(), topicOf(category), deleted);
+    }
+
+    /**
+     * Log every category and article below (and including) a category, then
+     * publish a single event for the subtree root. Must be called before the
+     * subtree is deleted.
+     */
+    public void subtreeChanged(Category root, boolean deleted) {
+        changeLogRepository.lockForAppend(APPEND_LOCK_KEY);
+        changeLogRepository.logSubtree(root.getId(), deleted);
+        categoryChanged(root, deleted);
+    }
+
+    public void connectionChanged(Long sourceId, boolean deleted) {
+        Long topicId = articleRepository.findById(sourceId)
+                .map(article -> topicOfCategory(article.getCategoryId()))
+                .orElse(null);
+        publish(EntityType.CONNECTION, sourceId, topicId, deleted);
+    }
+
+    public void projectChanged(Long id, boolean deleted) {
+        publish(EntityType.PROJECT, id, null, deleted);
+    }
+
+    private void publish(EntityType type, Long id, Long topicId, boolean deleted) {
+        changeLogRepository.lockForAppend(APPEND_LOCK_KEY);
+        ChangeLogEntry entry = changeLogRepository.save(new ChangeLogEntry(type, id, topicId, deleted));
+        ChangeEvent event = new ChangeEvent(type, id, topicId, entry.getId(), deleted);
+        invalidationBus.notifyOthers(event);
+        eventPublisher.publishEvent(event);
+    }
+
+    private Long topicOfCategory(Long categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        return categoryRepository.findById(categoryId).map(ChangePublisher::topicOf).orElse(null);
+    }
+
+    private static Long topicOf(Category category) {
+        if (category.getTopicId() != null) {
+            return category.getTopicId();
+        }
+        return category.getTopic() ? category.getId() : null;
+    }
+}
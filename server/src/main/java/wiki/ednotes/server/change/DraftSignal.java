@@ -0,0 +1,20 @@
+package wiki.ednotes.server.change;
+
+/**
+ * A message about a buffered editor draft from another node, carried by
+ * {@link InvalidationBus} and published as an application event.
+ *
+ * @param kind what the other node did or asks for
+ * @param articleId the article the draft belongs to
+ */
+public record DraftSignal(Kind kind, Long articleId) {
+
+    public enum Kind {
+        /** The sender started buffering a draft of the article. */
+        HELD,
+        /** The sender asks whichever node buffers the draft to write it now. */
+        FLUSH,
+        /** The sender wrote its buffered draft of the article, or dropped it. */
+        FLUSHED
+    }
+}
@@ -0,0 +1,11 @@
+package wiki.ednotes.server.change;
+
+/**
+ * Kinds of entities that appear in change events.
+ */
+public enum EntityType {
+    ARTICLE,
+    CATEGORY,
+    CONNECTION,
+    PROJECT
+}
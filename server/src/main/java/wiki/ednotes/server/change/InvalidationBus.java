@@ -0,0 +1,355 @@
+package wiki.ednotes.server.change;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import wiki.ednotes.server.config.ReplicaRouting;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Carries committed changes between server instances over Postgres
+ * LISTEN/NOTIFY, so the in-memory caches of every node follow writes made on
+ * the others.
+ * <p>
+ * {@link ChangePublisher} queues a NOTIFY in the writing transaction, which
+ * Postgres delivers only once that transaction commits. Each node listens on
+ * a dedicated connection outside the pools, collects notifications for a short
+ * window, keeps the latest per entity and republishes those from other nodes
+ * as {@link ChangeEvent}s, so the usual listeners apply them. The node tracks
+ * the highest change log id it has seen. After a reconnect it replays the
+ * compacted change log from there, or resets every cache if the log has been
+ * pruned past it.
+ * <p>
+ * The same channel carries {@link DraftSignal}s, which hand buffered editor
+ * drafts between nodes. They are sent outside any transaction, delivered at
+ * once rather than coalesced, and not recorded in the change log.
+ */
+@Component
+public class InvalidationBus implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int POLL_MILLIS = 1000;
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeLogRepository changeLogRepository;
+    private final HikariDataSource primaryDataSource;
+    private final boolean enabled;
+    private final String channel;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final long coalesceWindow;
+    private final long reconnectDelay;
+    private final long keepaliveInterval;
+    private final Counter received;
+    private final Counter applied;
+    private final Counter reconciled;
+    private final AtomicBoolean connected = new AtomicBoolean();
+
+    private volatile boolean running;
+    private Thread listener;
+    /** Highest change log id received or replayed, -1 before the first connect. Listener thread only. */
+    private long lastVersion = -1;
+
+    /**
+     * Constructor for InvalidationBus.
+     * @param url JDBC URL of the listening connection; blank uses the primary's
+     * @param coalesceWindow how long to collect notifications before applying them, in ms
+     */
+    public InvalidationBus(ApplicationEventPublisher eventPublisher,
+            ChangeLogRepository changeLogRepository,
+            HikariDataSource primaryDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${ednotes.invalidation.enabled:true}") boolean enabled,
+            @Value("${ednotes.invalidation.channel:ednotes_changes}") String channel,
+            @Value("${ednotes.invalidation.url:}") String url,
+            @Value("${ednotes.invalidation.username:}") String username,
+            @Value("${ednotes.invalidation.password:}") String password,
+            @Value("${ednotes.invalidation.coalesce-window:50}") long coalesceWindow,
+            @Value("${ednotes.invalidation.reconnect-delay:5000}") long reconnectDelay,
+            @Value("${ednotes.invalidation.keepalive-interval:30000}") long keepaliveInterval) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid invalidation channel name: " + channel);
+        }
+        this.eventPublisher = eventPublisher;
+        this.changeLogRepository = changeLogRepository;
+        this.primaryDataSource = primaryDataSource;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.coalesceWindow = coalesceWindow;
+        this.reconnectDelay = reconnectDelay;
+        this.keepaliveInterval = keepaliveInterval;
+        this.received = meterRegistry.counter("ednotes.invalidation.received");
+        this.applied = meterRegistry.counter("ednotes.invalidation.applied");
+        this.reconciled = meterRegistry.counter("ednotes.invalidation.reconciled");
+        meterRegistry.gauge("ednotes.invalidation.connected", connected, c -> c.get() ? 1 : 0);
+    }
+
+    /**
+     * Queue a notification of a change for the other nodes. Must be called in
+     * the transaction that made the change.
+     */
+    void notifyOthers(ChangeEvent event) {
+        if (enabled) {
+            changeLogRepository.notifyListeners(channel, encode(event));
+        }
+    }
+
+    /**
+     * Send a draft signal to the other nodes. Must be called outside a
+     * transaction, so it is delivered right away.
+     */
+    public void notifyDraft(DraftSignal.Kind kind, Long articleId) {
+        if (enabled) {
+            ReplicaRouting.onPrimary(() -> changeLogRepository.notifyListeners(channel, nodeId + " DRAFT " + kind + " " + articleId));
+        }
+    }
+
+    /**
+     * Whether this node is listening, and so receives replies to its signals.
+     */
+    public boolean isConnected() {
+        return connected.get();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofPlatform().name("invalidation-listener").daemon(true).start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            try {
+                listener.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = connect()) {
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                execute(connection, "LISTEN " + channel);
+                connected.set(true);
+                log.info("Listening for changes from other nodes on '{}' (node {})", channel, nodeId);
+                // Changes that commit from here on are notified, so the log
+                // only has to cover the time before the LISTEN.
+                reconcile();
+                long idleSince = System.nanoTime();
+                while (running) {
+                    PGNotification[] batch = pg.getNotifications(POLL_MILLIS);
+                    if (batch != null && batch.length > 0) {
+                        apply(collect(pg, batch));
+                        idleSince = System.nanoTime();
+                    } else if (System.nanoTime() - idleSince >= TimeUnit.MILLISECONDS.toNanos(keepaliveInterval)) {
+                        // A half-open connection only shows up when something is sent.
+                        execute(connection, "SELECT 1");
+                        idleSince = System.nanoTime();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Invalidation listener disconnected, retrying in {} ms: {}", reconnectDelay, e.getMessage());
+                }
+            } finally {
+                connected.set(false);
+            }
+            if (running) {
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Collect notifications for the coalescing window, keeping the latest
+     * change per entity from other nodes.
+     */
+    private List<ChangeEvent> collect(PGConnection pg, PGNotification[] first) throws SQLException {
+        Map<String, ChangeEvent> pending = new LinkedHashMap<>();
+        add(pending, first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(coalesceWindow);
+        long remaining;
+        while (running && (remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+            add(pending, pg.getNotifications((int) remaining));
+        }
+        List<ChangeEvent> events = new ArrayList<>(pending.values());
+        events.sort(Comparator.comparingLong(ChangeEvent::getVersion));
+        return events;
+    }
+
+    private void add(Map<String, ChangeEvent> pending, PGNotification[] batch) {
+        if (batch == null) {
+            return;
+        }
+        for (PGNotification notification : batch) {
+            String[] fields = notification.getParameter().split(" ");
+            if (fields.length == 4 && "DRAFT".equals(fields[1])) {
+                if (!nodeId.equals(fields[0])) {
+                    signal(fields);
+                }
+                continue;
+            }
+            ChangeEvent event = decode(fields);
+            if (event == null) {
+                log.debug("Ignoring malformed invalidation '{}'", notification.getParameter());
+                continue;
+            }
+            received.increment();
+            // Already replayed from the log, or published locally.
+            if (event.getVersion() <= lastVersion) {
+                continue;
+            }
+            lastVersion = event.getVersion();
+            if (nodeId.equals(fields[0])) {
+                continue;
+            }
+            pending.merge(event.getType() + ":" + event.getId(), event,
+                    (a, b) -> b.getVersion() > a.getVersion() ? b : a);
+        }
+    }
+
+    /**
+     * Replay what the change log recorded since the last seen version. On the
+     * first connect the caches are still empty, so the watermark is taken as
+     * is.
+     */
+    private void reconcile() {
+        long watermark = ReplicaRouting.onPrimary(changeLogRepository::findWatermark);
+        if (lastVersion < 0 || watermark <= lastVersion) {
+            lastVersion = Math.max(lastVersion, watermark);
+            return;
+        }
+        long since = lastVersion;
+        long oldest = ReplicaRouting.onPrimary(changeLogRepository::findOldestRetained);
+        List<ChangeEvent> events;
+        if (oldest > since + 1) {
+            log.warn("Change log was pruned past version {}; resetting caches", since);
+            // A category deletion drops every category-derived cache, a project change the project index.
+            events = List.of(new ChangeEvent(EntityType.CATEGORY, null, null, watermark, true),
+                    new ChangeEvent(EntityType.PROJECT, null, null, watermark, false));
+        } else {
+            events = ReplicaRouting.onPrimary(() -> changeLogRepository.findCompactedSince(since, watermark)).stream()
+                    .map(entry -> new ChangeEvent(entry.getEntityType(), entry.getEntityId(), entry.getTopicId(),
+                            entry.getId(), entry.isDeleted()))
+                    .sorted(Comparator.comparingLong(ChangeEvent::getVersion))
+                    .toList();
+        }
+        lastVersion = watermark;
+        reconciled.increment(events.size());
+        log.info("Replayed {} changes missed while disconnected", events.size());
+        apply(events);
+    }
+
+    private void signal(String[] fields) {
+        DraftSignal signal;
+        try {
+            signal = new DraftSignal(DraftSignal.Kind.valueOf(fields[2]), Long.valueOf(fields[3]));
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed draft signal '{}'", String.join(" ", fields));
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(signal);
+        } catch (RuntimeException e) {
+            log.warn("Could not apply draft signal {} {}: {}", signal.kind(), signal.articleId(), e.getMessage());
+        }
+    }
+
+    private void apply(List<ChangeEvent> events) {
+        for (ChangeEvent event : events) {
+            try {
+                eventPublisher.publishEvent(event);
+                applied.increment();
+            } catch (RuntimeException e) {
+                log.warn("Could not apply change {} {}: {}", event.getType(), event.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        String user = username.isBlank() ? primaryDataSource.getUsername() : username;
+        String secret = password.isBlank() ? primaryDataSource.getPassword() : password;
+        if (user != null) {
+            properties.setProperty("user", user);
+        }
+        if (secret != null) {
+            properties.setProperty("password", secret);
+        }
+        properties.setProperty("ApplicationName", "ednotes-invalidation");
+        return DriverManager.getConnection(url.isBlank() ? primaryDataSource.getJdbcUrl() : url, properties);
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * Encode a change as {@code node type id topic version deleted}, with
+     * {@code -} for a missing topic.
+     */
+    private String encode(ChangeEvent event) {
+        return nodeId + " " + event.getType() + " " + event.getId() + " "
+                + (event.getTopicId() == null ? "-" : event.getTopicId()) + " "
+                + event.getVersion() + " " + (event.isDeleted() ? 1 : 0);
+    }
+
+    private static ChangeEvent decode(String[] fields) {
+        if (fields.length != 6) {
+            return null;
+        }
+        try {
+            return new ChangeEvent(EntityType.valueOf(fields[1]), Long.valueOf(fields[2]),
+                    "-".equals(fields[3]) ? null : Long.valueOf(fields[3]),
+                    Long.parseLong(fields[4]), "1".equals(fields[5]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package wiki.ednotes.server.change;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller for incremental delta sync (reader API).
+ */
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+    private final SyncService syncService;
+
+    /**
+     * Constructor for SyncController.
+     * @param syncService the sync service
+     */
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    /**
+     * Get the compacted changes after a watermark.
+     * @param since the last watermark the client applied (0 for none)
+     * @return SyncResponse with upserts, tombstones and the new watermark
+     */
+    @GetMapping
+    public ResponseEntity<SyncResponse> sync(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(syncService.changesSince(since));
+    }
+}
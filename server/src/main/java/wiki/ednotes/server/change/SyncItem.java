@@ -0,0 +1,55 @@
+package wiki.ednotes.server.change;
+
+/**
+ * DTO for one compacted entity change in a sync response. Tombstones carry no
+ * data. For connections the id is the source article and the data is the full
+ * list of its target article IDs.
+ */
+public class SyncItem {
+    private EntityType type;
+    private Long id;
+    private long version;
+    private Object data;
+
+    public SyncItem() {
+    }
+
+    public SyncItem(EntityType type, Long id, long version, Object data) {
+        this.type = type;
+        this.id = id;
+        this.version = version;
+        this.data = data;
+    }
+
+    public EntityType getType() {
+        return type;
+    }
+
+    public void setType(EntityType type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    public void setData(Object data) {
+        this.data = data;
+    }
+}
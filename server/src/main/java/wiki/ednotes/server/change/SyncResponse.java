@@ -0,0 +1,56 @@
+package wiki.ednotes.server.change;
+
+import java.util.List;
+
+/**
+ * DTO for a delta-sync response. When {@code reset} is true the requested
+ * watermark is older than the retained log and the client must reload fully.
+ */
+public class SyncResponse {
+    private long watermark;
+    private boolean reset;
+    private List<SyncItem> upserts;
+    private List<SyncItem> tombstones;
+
+    public SyncResponse() {
+    }
+
+    public SyncResponse(long watermark, boolean reset, List<SyncItem> upserts, List<SyncItem> tombstones) {
+        this.watermark = watermark;
+        this.reset = reset;
+        this.upserts = upserts;
+        this.tombstones = tombstones;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+
+    public List<SyncItem> getUpserts() {
+        return upserts;
+    }
+
+    public void setUpserts(List<SyncItem> upserts) {
+        this.upserts = upserts;
+    }
+
+    public List<SyncItem> getTombstones() {
+        return tombstones;
+    }
+
+    public void setTombstones(List<SyncItem> tombstones) {
+        this.tombstones = tombstones;
+    }
+}
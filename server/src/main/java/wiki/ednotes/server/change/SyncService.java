@@ -0,0 +1,141 @@
+package wiki.ednotes.server.change;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import wiki.ednotes.server.article.ArticleConnection;
+import wiki.ednotes.server.article.ArticleConnectionRepository;
+import wiki.ednotes.server.article.ArticleRepository;
+import wiki.ednotes.server.article.ArticleSyncRow;
+import wiki.ednotes.server.category.Category;
+import wiki.ednotes.server.category.CategoryRepository;
+import wiki.ednotes.server.project.Project;
+import wiki.ednotes.server.project.ProjectRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for incremental delta sync over the change log.
+ */
+@Service
+public class SyncService {
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    private final ChangeLogRepository changeLogRepository;
+    private final CategoryRepository categoryRepository;
+    private final ArticleRepository articleRepository;
+    private final ArticleConnectionRepository connectionRepository;
+    private final ProjectRepository projectRepository;
+    private final Duration retention;
+
+    /**
+     * Constructor for SyncService.
+     */
+    public SyncService(ChangeLogRepository changeLogRepository,
+            CategoryRepository categoryRepository,
+            ArticleRepository articleRepository,
+            ArticleConnectionRepository connectionRepository,
+            ProjectRepository projectRepository,
+            @Value("${ednotes.sync.retention:P30D}") Duration retention) {
+        this.changeLogRepository = changeLogRepository;
+        this.categoryRepository = categoryRepository;
+        this.articleRepository = articleRepository;
+        this.connectionRepository = connectionRepository;
+        this.projectRepository = projectRepository;
+        this.retention = retention;
+    }
+
+    /**
+     * Get every entity that changed after a watermark, compacted to its latest
+     * state. A watermark of 0 (or one older than the retained log) asks for a
+     * reset, since the log can no longer describe everything the client missed.
+     *
+     * @param since the last watermark the client applied
+     * @return the upserts and tombstones plus the new watermark
+     */
+    @Transactional(readOnly = true)
+    public SyncResponse changesSince(long since) {
+        long watermark = changeLogRepository.findWatermark();
+        long oldest = changeLogRepository.findOldestRetained();
+        if (since <= 0 || since > watermark || (oldest > 0 && since < oldest - 1)) {
+            return new SyncResponse(watermark, true, List.of(), List.of());
+        }
+
+        List<ChangeLogEntry> entries = changeLogRepository.findCompactedSince(since, watermark);
+        Map<EntityType, List<Long>> liveIds = new EnumMap<>(EntityType.class);
+        List<SyncItem> tombstones = new ArrayList<>();
+        for (ChangeLogEntry entry : entries) {
+            // Connection sets are always re-sent; an empty list means no edges.
+            if (entry.isDeleted() && entry.getEntityType() != EntityType.CONNECTION) {
+                tombstones.add(new SyncItem(entry.getEntityType(), entry.getEntityId(), entry.getId(), null));
+            } else {
+                liveIds.computeIfAbsent(entry.getEntityType(), t -> new ArrayList<>()).add(entry.getEntityId());
+            }
+        }
+
+        Map<EntityType, Map<Long, ?>> data = new EnumMap<>(EntityType.class);
+        data.put(EntityType.CATEGORY, byId(
+                categoryRepository.findAllById(liveIds.getOrDefault(EntityType.CATEGORY, List.of())),
+                Category::getId));
+        data.put(EntityType.ARTICLE, byId(
+                articleRepository.findByIdIn(liveIds.getOrDefault(EntityType.ARTICLE, List.of()), ArticleSyncRow.class),
+                ArticleSyncRow::getId));
+        data.put(EntityType.PROJECT, byId(
+                projectRepository.findAllById(liveIds.getOrDefault(EntityType.PROJECT, List.of())),
+                Project::getId));
+        data.put(EntityType.CONNECTION, targetsBySource(liveIds.getOrDefault(EntityType.CONNECTION, List.of())));
+
+        List<SyncItem> upserts = new ArrayList<>();
+        for (ChangeLogEntry entry : entries) {
+            if (entry.isDeleted() && entry.getEntityType() != EntityType.CONNECTION) {
+                continue;
+            }
+            Object value = data.get(entry.getEntityType()).get(entry.getEntityId());
+            if (value == null) {
+                // Removed by a write that was not logged per entity.
+                tombstones.add(new SyncItem(entry.getEntityType(), entry.getEntityId(), entry.getId(), null));
+            } else {
+                upserts.add(new SyncItem(entry.getEntityType(), entry.getEntityId(), entry.getId(), value));
+            }
+        }
+        return new SyncResponse(watermark, false, upserts, tombstones);
+    }
+
+    /**
+     * Prune change log rows older than the retention window.
+     */
+    @Scheduled(cron = "${ednotes.sync.prune-cron:0 15 3 * * *}")
+    @Transactional
+    public void prune() {
+        int removed = changeLogRepository.pruneBefore(Instant.now().minus(retention));
+        if (removed > 0) {
+            log.info("Pruned {} change log rows older than {}", removed, retention);
+        }
+    }
+
+    private Map<Long, List<Long>> targetsBySource(List<Long> sourceIds) {
+        Map<Long, List<Long>> targets = new HashMap<>();
+        sourceIds.forEach(id -> targets.put(id, new ArrayList<>()));
+        if (!sourceIds.isEmpty()) {
+            for (ArticleConnection connection : connectionRepository.findByIdSourceIdIn(sourceIds)) {
+                targets.get(connection.getSourceId()).add(connection.getTargetId());
+            }
+        }
+        return targets;
+    }
+
+    private static <T> Map<Long, T> byId(List<T> rows, Function<T, Long> id) {
+        return rows.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+}
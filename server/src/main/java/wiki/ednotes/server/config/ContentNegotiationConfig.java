@@ -0,0 +1,101 @@
+package wiki.ednotes.server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Response encodings chosen by the Accept header: JSON by default, or CBOR
+ * ({@code application/cbor}) and Smile ({@code application/x-jackson-smile})
+ * for clients that ask for a compact binary form.
+ * <p>
+ * Each format has one converter with one mapper built from the application's
+ * Jackson settings, reused for every response; Jackson streams straight into
+ * the response body. JSON stays first in the converter list, so clients
+ * sending {@code Accept: *}{@code /*} keep getting JSON. Every write records
+ * its size, encode time and write time per format.
+ */
+@Configuration
+public class ContentNegotiationConfig {
+
+    /**
+     * Replaces Spring Boot's JSON converter, keeping its mapper.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        return new MeteredJsonConverter(objectMapper, new PayloadMetrics(meterRegistry, "json"));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            ObjectProvider<Jackson2ObjectMapperBuilder> builders, MeterRegistry meterRegistry) {
+        ObjectMapper mapper = builders.getObject().factory(new CBORFactory()).build();
+        return new MeteredCborConverter(mapper, new PayloadMetrics(meterRegistry, "cbor"));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+            ObjectProvider<Jackson2ObjectMapperBuilder> builders, MeterRegistry meterRegistry) {
+        ObjectMapper mapper = builders.getObject().factory(new SmileFactory()).build();
+        return new MeteredSmileConverter(mapper, new PayloadMetrics(meterRegistry, "smile"));
+    }
+
+    private static final class MeteredJsonConverter extends MappingJackson2HttpMessageConverter {
+        private final PayloadMetrics metrics;
+
+        private MeteredJsonConverter(ObjectMapper mapper, PayloadMetrics metrics) {
+            super(mapper);
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+                throws IOException {
+            metrics.write(outputMessage, message -> super.writeInternal(object, type, message));
+        }
+    }
+
+    private static final class MeteredCborConverter extends MappingJackson2CborHttpMessageConverter {
+        private final PayloadMetrics metrics;
+
+        private MeteredCborConverter(ObjectMapper mapper, PayloadMetrics metrics) {
+            super(mapper);
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+                throws IOException {
+            metrics.write(outputMessage, message -> super.writeInternal(object, type, message));
+        }
+    }
+
+    private static final class MeteredSmileConverter extends MappingJackson2SmileHttpMessageConverter {
+        private final PayloadMetrics metrics;
+
+        private MeteredSmileConverter(ObjectMapper mapper, PayloadMetrics metrics) {
+            super(mapper);
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+                throws IOException {
+            metrics.write(outputMessage, message -> super.writeInternal(object, type, message));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package wiki.ednotes.server.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to replica pools and everything else to the
+ * primary pool.
+ * <p>
+ * The lazy proxy only fetches a physical connection once the transaction
+ * definition is known, so {@code @Transactional(readOnly = true)} work goes to
+ * {@link ReplicaDataSource} and writes go to the primary. With no replica URLs
+ * configured every connection comes from the primary.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * The primary pool, which Flyway migrates directly rather than through the
+     * routing proxy.
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Migrate on startup unless {@code spring.flyway.enabled} is false. AOT
+     * fixes the Flyway auto-configuration condition at build time, so the
+     * property is checked again at runtime; the image's training run relies on
+     * this to start without a database.
+     */
+    @Bean
+    public FlywayMigrationStrategy migrationStrategy(@Value("${spring.flyway.enabled:true}") boolean enabled) {
+        return flyway -> {
+            if (enabled) {
+                flyway.migrate();
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${ednotes.datasource.replica-urls:}") List<String> replicaUrls,
+            @Value("${ednotes.datasource.replica-username:}") String username,
+            @Value("${ednotes.datasource.replica-password:}") String password,
+            @Value("${ednotes.datasource.replica-pool-size:10}") int poolSize) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + pools.size());
+            pool.setJdbcUrl(url.trim());
+            pool.setDriverClassName(primaryDataSource.getDriverClassName());
+            pool.setUsername(username.isBlank() ? primaryDataSource.getUsername() : username);
+            pool.setPassword(password.isBlank() ? primaryDataSource.getPassword() : password);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setMinimumIdle(0);
+            pool.setReadOnly(true);
+            pool.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            pool.setIdleTimeout(primaryDataSource.getIdleTimeout());
+            pool.setMaxLifetime(primaryDataSource.getMaxLifetime());
+            // A replica that is down at boot must not stop the application.
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(pool);
+        }
+        return new ReplicaDataSource(primaryDataSource, pools, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaDataSource);
+        return proxy;
+    }
+}
@@ -0,0 +1,108 @@
+package wiki.ednotes.server.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size, encode time and write time of response bodies written in one format.
+ * The body is counted as it streams out, so nothing is buffered to measure
+ * it. Time spent inside the response stream (copying into the servlet
+ * buffer or waiting on the socket) is the write time; the rest of the
+ * converter's time is the encode time.
+ */
+final class PayloadMetrics {
+    private final Timer encodeTime;
+    private final Timer writeTime;
+    private final DistributionSummary size;
+
+    PayloadMetrics(MeterRegistry meterRegistry, String format) {
+        this.encodeTime = Timer.builder("ednotes.payload.encode")
+                .tag("format", format)
+                .register(meterRegistry);
+        this.writeTime = Timer.builder("ednotes.payload.write")
+                .tag("format", format)
+                .register(meterRegistry);
+        this.size = DistributionSummary.builder("ednotes.payload.size")
+                .baseUnit("bytes")
+                .tag("format", format)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Write a body through a counting stream and record it. Responses now
+     * differ by Accept, so shared caches are told to key on it.
+     */
+    void write(HttpOutputMessage message, BodyWriter writer) throws IOException {
+        HttpHeaders headers = message.getHeaders();
+        if (!headers.getVary().contains(HttpHeaders.ACCEPT)) {
+            List<String> vary = new ArrayList<>(headers.getVary());
+            vary.add(HttpHeaders.ACCEPT);
+            headers.setVary(vary);
+        }
+        CountingMessage counting = new CountingMessage(message);
+        long start = System.nanoTime();
+        writer.write(counting);
+        long total = System.nanoTime() - start;
+        encodeTime.record(Math.max(0, total - counting.writeNanos), TimeUnit.NANOSECONDS);
+        writeTime.record(counting.writeNanos, TimeUnit.NANOSECONDS);
+        size.record(counting.count);
+    }
+
+    @FunctionalInterface
+    interface BodyWriter {
+        void write(HttpOutputMessage message) throws IOException;
+    }
+
+    private static final class CountingMessage implements HttpOutputMessage {
+        private final HttpOutputMessage delegate;
+        private long count;
+        private long writeNanos;
+
+        private CountingMessage(HttpOutputMessage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return new FilterOutputStream(delegate.getBody()) {
+                @Override
+                public void write(int b) throws IOException {
+                    long start = System.nanoTime();
+                    out.write(b);
+                    writeNanos += System.nanoTime() - start;
+                    count++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    long start = System.nanoTime();
+                    out.write(b, off, len);
+                    writeNanos += System.nanoTime() - start;
+                    count += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    long start = System.nanoTime();
+                    out.flush();
+                    writeNanos += System.nanoTime() - start;
+                }
+            };
+        }
+    }
+}
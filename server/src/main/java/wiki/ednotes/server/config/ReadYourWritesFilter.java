@@ -0,0 +1,129 @@
+package wiki.ednotes.server.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Gives editor sessions read-your-writes consistency on top of replica routing.
+ * An editor write sets a short-lived cookie; while it is valid, every request
+ * from that client reads from the primary instead of a possibly lagging replica.
+ * <p>
+ * The cookie holds its expiry signed with an HMAC key, so clients cannot mint
+ * or extend it, and a request is never pinned for longer than the stickiness
+ * from now. Instances sharing clients need the same
+ * {@code ednotes.datasource.read-your-writes-key}; without one, each instance
+ * uses a random key and only honours its own cookies.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final String COOKIE_NAME = "ednotes-primary-until";
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final Duration stickiness;
+    private final SecretKeySpec key;
+
+    /**
+     * Constructor for ReadYourWritesFilter.
+     * @param stickiness how long reads stay on the primary after a write
+     * @param key secret for signing the cookie (blank for a random one)
+     */
+    public ReadYourWritesFilter(@Value("${ednotes.datasource.read-your-writes:PT10S}") Duration stickiness,
+            @Value("${ednotes.datasource.read-your-writes-key:}") String key) {
+        this.stickiness = stickiness;
+        byte[] secret = key.isBlank() ? new byte[32] : key.getBytes(StandardCharsets.UTF_8);
+        if (key.isBlank()) {
+            new SecureRandom().nextBytes(secret);
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (isEditorWrite(request)) {
+            Cookie cookie = new Cookie(COOKIE_NAME, sign(now + stickiness.toMillis()));
+            cookie.setPath("/api");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) stickiness.toSeconds());
+            response.addCookie(cookie);
+            ReplicaRouting.forcePrimary();
+        } else if (pinnedUntil(request, now) > now) {
+            ReplicaRouting.forcePrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRouting.clear();
+        }
+    }
+
+    private static boolean isEditorWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return request.getRequestURI().startsWith("/api/editor/")
+                && !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    /**
+     * The expiry of a validly signed cookie, at most the stickiness from now,
+     * or 0.
+     */
+    private long pinnedUntil(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return Math.min(verify(cookie.getValue()), now + stickiness.toMillis());
+            }
+        }
+        return 0;
+    }
+
+    private String sign(long until) {
+        String value = Long.toString(until);
+        return value + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(mac(value));
+    }
+
+    private long verify(String cookie) {
+        int dot = cookie.indexOf('.');
+        if (dot < 0) {
+            return 0;
+        }
+        String value = cookie.substring(0, dot);
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(cookie.substring(dot + 1));
+            return MessageDigest.isEqual(mac(value), signature) ? Long.parseLong(value) : 0;
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    private byte[] mac(String value) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package wiki.ednotes.server.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only DataSource that spreads connections over healthy replica pools
+ * round-robin. Falls back to the primary when no replica is healthy, when none
+ * are configured, or when the current request is pinned to the primary.
+ */
+public class ReplicaDataSource extends AbstractDataSource {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+
+    /**
+     * Constructor for ReplicaDataSource.
+     * @param primary the primary DataSource used as fallback
+     * @param pools the replica pools, possibly empty
+     * @param meterRegistry registry for per-target routing counters
+     */
+    public ReplicaDataSource(DataSource primary, List<HikariDataSource> pools, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        for (HikariDataSource pool : pools) {
+            Replica replica = new Replica(pool, meterRegistry.counter("ednotes.datasource.reads", "target", pool.getPoolName()));
+            replicas.add(replica);
+            meterRegistry.gauge("ednotes.datasource.replica.healthy", Tags.of("pool", pool.getPoolName()),
+                    replica.healthy, healthy -> healthy.get() ? 1 : 0);
+        }
+        this.primaryReads = meterRegistry.counter("ednotes.datasource.reads", "target", "primary");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReplicaRouting.isPrimaryForced()) {
+            int size = replicas.size();
+            int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (!replica.healthy.get()) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.pool.getConnection();
+                    replica.reads.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    markUnhealthy(replica, e);
+                }
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Not supported: connections come from pools with fixed credentials, and
+     * Hikari pools reject per-call credentials as well.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica routing uses the pools' own credentials");
+    }
+
+    /**
+     * Probe every replica and update its health. Unhealthy replicas are taken out
+     * of rotation until a probe succeeds again.
+     */
+    @Scheduled(fixedDelayString = "${ednotes.datasource.replica-health-interval:10000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                boolean valid = connection.isValid(2);
+                if (valid && replica.healthy.compareAndSet(false, true)) {
+                    log.info("Replica {} is healthy again", replica.pool.getPoolName());
+                } else if (!valid) {
+                    markUnhealthy(replica, null);
+                }
+            } catch (SQLException e) {
+                markUnhealthy(replica, e);
+            }
+        }
+    }
+
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private void markUnhealthy(Replica replica, SQLException cause) {
+        if (replica.healthy.compareAndSet(true, false)) {
+            log.warn("Replica {} marked unhealthy, reads fall back to other pools: {}",
+                    replica.pool.getPoolName(), cause != null ? cause.getMessage() : "validation failed");
+        }
+    }
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        private final Counter reads;
+        private final AtomicBoolean healthy = new AtomicBoolean(true);
+
+        private Replica(HikariDataSource pool, Counter reads) {
+            this.pool = pool;
+            this.reads = reads;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package wiki.ednotes.server.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that pins read-only transactions to the primary, used
+ * for read-your-writes stickiness after an editor write.
+ */
+public final class ReplicaRouting {
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(FORCE_PRIMARY.get());
+    }
+
+    public static void forcePrimary() {
+        FORCE_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        FORCE_PRIMARY.remove();
+    }
+
+    /**
+     * Run a task pinned to the primary, leaving an outer pin in place.
+     * @param task the work to run
+     * @return the task's result
+     */
+    public static <T> T onPrimary(Supplier<T> task) {
+        boolean forced = isPrimaryForced();
+        forcePrimary();
+        try {
+            return task.get();
+        } finally {
+            if (!forced) {
+                clear();
+            }
+        }
+    }
+
+    /**
+     * Run a task pinned to the primary, leaving an outer pin in place.
+     * @param task the work to run
+     */
+    public static void onPrimary(Runnable task) {
+        onPrimary(() -> {
+            task.run();
+            return null;
+        });
+    }
+}
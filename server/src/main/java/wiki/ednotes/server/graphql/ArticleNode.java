@@ -0,0 +1,13 @@
+package wiki.ednotes.server.graphql;
+
+import wiki.ednotes.server.article.ArticleTreeRow;
+
+/**
+ * GraphQL source for an article, without its content. Content is loaded in
+ * a batch only when a query selects it.
+ */
+public record ArticleNode(Long id, String title, Long categoryId) {
+    public static ArticleNode of(ArticleTreeRow row) {
+        return new ArticleNode(row.getId(), row.getTitle(), row.getCategoryId());
+    }
+}
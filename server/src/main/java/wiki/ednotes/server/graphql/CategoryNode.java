@@ -0,0 +1,12 @@
+package wiki.ednotes.server.graphql;
+
+import wiki.ednotes.server.category.Category;
+
+/**
+ * GraphQL source for a category. A value type, so batch loaders can key on it.
+ */
+public record CategoryNode(Long id, String title, boolean topic, Long parentId) {
+    public static CategoryNode of(Category category) {
+        return new CategoryNode(category.getId(), category.getTitle(), category.getTopic(), category.getParentId());
+    }
+}
@@ -0,0 +1,95 @@
+package wiki.ednotes.server.graphql;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.GraphQLContext;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.CoercedVariables;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.GraphQLTypeUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+
+import java.util.Locale;
+
+/**
+ * GraphQL wiring: the JSON scalar for article content, and the depth and
+ * complexity limits that keep a single query from fanning out over the whole
+ * wiki.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    @Bean
+    public RuntimeWiringConfigurer jsonScalar(ObjectMapper objectMapper) {
+        GraphQLScalarType json = GraphQLScalarType.newScalar()
+                .name("JSON")
+                .description("Article content blocks, as stored.")
+                .coercing(new JsonCoercing(objectMapper))
+                .build();
+        return wiring -> wiring.scalar(json);
+    }
+
+    @Bean
+    public Instrumentation maxQueryDepth(@Value("${ednotes.graphql.max-depth:10}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    /**
+     * Each field costs one, and list fields multiply the cost of their
+     * selection by an assumed fan-out, so wide nested lists are what hits the
+     * limit.
+     */
+    @Bean
+    public Instrumentation maxQueryComplexity(
+            @Value("${ednotes.graphql.max-complexity:2000}") int maxComplexity,
+            @Value("${ednotes.graphql.list-fan-out:10}") int listFanOut) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, (env, childComplexity) ->
+                GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(env.getFieldDefinition().getType()))
+                        ? 1 + childComplexity * listFanOut
+                        : 1 + childComplexity);
+    }
+
+    /**
+     * Output-only scalar: content is stored as a JSON string and returned as
+     * the JSON value it holds.
+     */
+    private static final class JsonCoercing implements Coercing<Object, Object> {
+        private final ObjectMapper objectMapper;
+
+        private JsonCoercing(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Object serialize(Object dataFetcherResult, GraphQLContext context, Locale locale) {
+            if (!(dataFetcherResult instanceof String raw)) {
+                return dataFetcherResult;
+            }
+            try {
+                return objectMapper.readValue(raw, Object.class);
+            } catch (JsonProcessingException e) {
+                throw new CoercingSerializeException("Stored content is not valid JSON", e);
+            }
+        }
+
+        @Override
+        public Object parseValue(Object input, GraphQLContext context, Locale locale) {
+            throw new CoercingParseValueException("JSON is an output-only scalar");
+        }
+
+        @Override
+        public Object parseLiteral(graphql.language.Value<?> input, CoercedVariables variables, GraphQLContext context,
+                Locale locale) {
+            throw new CoercingParseLiteralException("JSON is an output-only scalar");
+        }
+    }
+}
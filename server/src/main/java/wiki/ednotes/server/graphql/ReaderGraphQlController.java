@@ -0,0 +1,244 @@
+package wiki.ednotes.server.graphql;
+
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+import wiki.ednotes.server.article.Article;
+import wiki.ednotes.server.article.ArticleConnection;
+import wiki.ednotes.server.article.ArticleConnectionRepository;
+import wiki.ednotes.server.article.ArticleRepository;
+import wiki.ednotes.server.article.ArticleTreeRow;
+import wiki.ednotes.server.cache.ReadLimiter;
+import wiki.ednotes.server.category.Category;
+import wiki.ednotes.server.category.CategoryClosure;
+import wiki.ednotes.server.category.CategoryClosureRepository;
+import wiki.ednotes.server.category.CategoryRepository;
+import wiki.ednotes.server.project.ProjectSummary;
+import wiki.ednotes.server.project.ProjectService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * GraphQL reader API over published articles, categories, connections and
+ * projects (schema in {@code graphql/schema.graphqls}).
+ * <p>
+ * Every nested field is a {@link BatchMapping}: Spring for GraphQL collects
+ * the parents of one level into a per-request DataLoader and resolves them
+ * with a single query, so an article page with its category, breadcrumbs,
+ * sibling articles and connections takes a handful of queries in total.
+ * Each query and batch runs under a {@link ReadLimiter} permit, like the
+ * REST reader loads.
+ */
+@Controller
+public class ReaderGraphQlController {
+    private final ArticleRepository articleRepository;
+    private final ArticleConnectionRepository connectionRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository closureRepository;
+    private final ProjectService projectService;
+    private final ReadLimiter readLimiter;
+
+    /**
+     * Constructor for ReaderGraphQlController.
+     */
+    public ReaderGraphQlController(ArticleRepository articleRepository,
+            ArticleConnectionRepository connectionRepository,
+            CategoryRepository categoryRepository,
+            CategoryClosureRepository closureRepository,
+            ProjectService projectService,
+            ReadLimiter readLimiter) {
+        this.articleRepository = articleRepository;
+        this.connectionRepository = connectionRepository;
+        this.categoryRepository = categoryRepository;
+        this.closureRepository = closureRepository;
+        this.projectService = projectService;
+        this.readLimiter = readLimiter;
+    }
+
+    @QueryMapping
+    public ArticleNode article(@Argument Long id) {
+        return readLimiter.call(() -> publishedArticles(List.of(id)).get(id));
+    }
+
+    @QueryMapping
+    public CategoryNode category(@Argument Long id) {
+        return readLimiter.call(() -> categoryRepository.findById(id)
+                .filter(Category::getPublished)
+                .map(CategoryNode::of)
+                .orElse(null));
+    }
+
+    @QueryMapping
+    public List<CategoryNode> roots() {
+        return readLimiter.call(() -> categoryRepository.findByParentIdAndPublishedIsTrueOrderByOrderAsc(null)
+                .stream()
+                .map(CategoryNode::of)
+                .toList());
+    }
+
+    @QueryMapping
+    public List<CategoryNode> topics() {
+        return readLimiter.call(() -> categoryRepository
+                .findByTopicIsTrueAndTopicIdIsNullAndPublishedIsTrueOrderByOrderAsc().stream()
+                .map(CategoryNode::of)
+                .toList());
+    }
+
+    @QueryMapping
+    public List<ProjectSummary> projects() {
+        return readLimiter.call(projectService::findAll);
+    }
+
+    @BatchMapping(typeName = "Article")
+    public Map<ArticleNode, String> content(List<ArticleNode> articles) {
+        return readLimiter.call(() -> {
+            Map<Long, String> contents = articleRepository.findAllById(ids(articles, ArticleNode::id)).stream()
+                    .collect(Collectors.toMap(Article::getId, Article::getContent));
+            return byKey(articles, a -> contents.getOrDefault(a.id(), "[]"));
+        });
+    }
+
+    @BatchMapping(typeName = "Article")
+    public Map<ArticleNode, CategoryNode> category(List<ArticleNode> articles) {
+        return readLimiter.call(() -> {
+            Map<Long, CategoryNode> categories = publishedCategories(ids(articles, ArticleNode::categoryId));
+            return byKey(articles, a -> categories.get(a.categoryId()));
+        });
+    }
+
+    @BatchMapping(typeName = "Article")
+    public Map<ArticleNode, List<ArticleNode>> prerequisites(List<ArticleNode> articles) {
+        return readLimiter.call(() -> connected(articles,
+                connectionRepository.findByIdSourceIdIn(ids(articles, ArticleNode::id)),
+                ArticleConnection::getSourceId, ArticleConnection::getTargetId));
+    }
+
+    @BatchMapping(typeName = "Article")
+    public Map<ArticleNode, List<ArticleNode>> dependents(List<ArticleNode> articles) {
+        return readLimiter.call(() -> connected(articles,
+                connectionRepository.findByIdTargetIdIn(ids(articles, ArticleNode::id)),
+                ArticleConnection::getTargetId, ArticleConnection::getSourceId));
+    }
+
+    @BatchMapping(typeName = "Category")
+    public Map<CategoryNode, CategoryNode> parent(List<CategoryNode> categories) {
+        return readLimiter.call(() -> {
+            Map<Long, CategoryNode> parents = publishedCategories(ids(categories, CategoryNode::parentId));
+            return byKey(categories, c -> parents.get(c.parentId()));
+        });
+    }
+
+    @BatchMapping(typeName = "Category")
+    public Map<CategoryNode, List<CategoryNode>> breadcrumbs(List<CategoryNode> categories) {
+        return readLimiter.call(() -> {
+            List<CategoryClosure> rows = closureRepository.findAncestorRows(ids(categories, CategoryNode::id));
+            Map<Long, CategoryNode> ancestors = categoryRepository.findAllById(ids(rows, CategoryClosure::getAncestorId))
+                    .stream()
+                    .collect(Collectors.toMap(Category::getId, CategoryNode::of));
+            Map<Long, List<CategoryNode>> paths = new HashMap<>();
+            for (CategoryClosure row : rows) {
+                CategoryNode ancestor = ancestors.get(row.getAncestorId());
+                if (ancestor != null) {
+                    paths.computeIfAbsent(row.getDescendantId(), k -> new ArrayList<>()).add(ancestor);
+                }
+            }
+            return byKey(categories, c -> paths.getOrDefault(c.id(), List.of()));
+        });
+    }
+
+    @BatchMapping(typeName = "Category")
+    public Map<CategoryNode, List<CategoryNode>> children(List<CategoryNode> categories) {
+        return readLimiter.call(() -> {
+            Map<Long, List<CategoryNode>> children = categoryRepository
+                    .findByParentIdInAndPublishedIsTrueOrderByOrderAsc(ids(categories, CategoryNode::id)).stream()
+                    .collect(Collectors.groupingBy(Category::getParentId, LinkedHashMap::new,
+                            Collectors.mapping(CategoryNode::of, Collectors.toList())));
+            return byKey(categories, c -> children.getOrDefault(c.id(), List.of()));
+        });
+    }
+
+    @BatchMapping(typeName = "Category")
+    public Map<CategoryNode, List<ArticleNode>> articles(List<CategoryNode> categories) {
+        return readLimiter.call(() -> {
+            Map<Long, List<ArticleNode>> articles = articleRepository
+                    .findByCategoryIdInAndPublishedIsTrueOrderByOrderAsc(ids(categories, CategoryNode::id),
+                            ArticleTreeRow.class).stream()
+                    .collect(Collectors.groupingBy(ArticleTreeRow::getCategoryId, LinkedHashMap::new,
+                            Collectors.mapping(ArticleNode::of, Collectors.toList())));
+            return byKey(categories, c -> articles.getOrDefault(c.id(), List.of()));
+        });
+    }
+
+    @BatchMapping(typeName = "Project")
+    public Map<ProjectSummary, ArticleNode> article(List<ProjectSummary> projects) {
+        return readLimiter.call(() -> {
+            Map<Long, ArticleNode> articles = publishedArticles(ids(projects, ProjectSummary::getArticleId));
+            return byKey(projects, p -> articles.get(p.getArticleId()));
+        });
+    }
+
+    /**
+     * Resolve one side of the connections of a batch of articles to the
+     * published articles on the other side.
+     */
+    private Map<ArticleNode, List<ArticleNode>> connected(List<ArticleNode> articles,
+            List<ArticleConnection> connections,
+            Function<ArticleConnection, Long> from,
+            Function<ArticleConnection, Long> to) {
+        Map<Long, ArticleNode> others = publishedArticles(ids(connections, to));
+        Map<Long, List<ArticleNode>> byArticle = new HashMap<>();
+        for (ArticleConnection connection : connections) {
+            ArticleNode other = others.get(to.apply(connection));
+            if (other != null) {
+                byArticle.computeIfAbsent(from.apply(connection), k -> new ArrayList<>()).add(other);
+            }
+        }
+        return byKey(articles, a -> byArticle.getOrDefault(a.id(), List.of()));
+    }
+
+    private Map<Long, ArticleNode> publishedArticles(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return articleRepository.findByIdIn(ids, ArticleTreeRow.class).stream()
+                .filter(a -> a.getPublished() != null && a.getPublished())
+                .collect(Collectors.toMap(ArticleTreeRow::getId, ArticleNode::of));
+    }
+
+    private Map<Long, CategoryNode> publishedCategories(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return categoryRepository.findAllById(ids).stream()
+                .filter(Category::getPublished)
+                .collect(Collectors.toMap(Category::getId, CategoryNode::of));
+    }
+
+    private static <T> List<Long> ids(Collection<T> items, Function<T, Long> id) {
+        return items.stream().map(id).filter(Objects::nonNull).distinct().toList();
+    }
+
+    /**
+     * Batch results keyed by parent. Parents with a null value are left out,
+     * which Spring for GraphQL resolves as null.
+     */
+    private static <K, V> Map<K, V> byKey(List<K> keys, Function<K, V> value) {
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            V v = value.apply(key);
+            if (v != null) {
+                result.put(key, v);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,171 @@
+package wiki.ednotes.server.learning;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Ordering algorithms over the prerequisite graph, where an edge
+ * {@code a -> b} means article {@code a} requires article {@code b}.
+ */
+final class GraphOrder {
+    private GraphOrder() {
+    }
+
+    /**
+     * Topological order of the given nodes, prerequisites first.
+     *
+     * @param nodes         the nodes, in tie-break order
+     * @param prerequisites the edges; edges leaving {@code nodes} are ignored
+     */
+    static Result topological(List<Long> nodes, Map<Long, Set<Long>> prerequisites) {
+        Map<Long, Integer> position = new HashMap<>();
+        for (Long node : nodes) {
+            position.putIfAbsent(node, position.size());
+        }
+        Map<Long, Integer> pending = new HashMap<>();
+        Map<Long, List<Long>> dependents = new HashMap<>();
+        for (Long node : position.keySet()) {
+            int count = 0;
+            for (Long prerequisite : prerequisites.getOrDefault(node, Set.of())) {
+                if (position.containsKey(prerequisite)) {
+                    count++;
+                    dependents.computeIfAbsent(prerequisite, k -> new ArrayList<>()).add(node);
+                }
+            }
+            pending.put(node, count);
+        }
+
+        // Kahn's algorithm, always taking the earliest ready node.
+        PriorityQueue<Long> ready = new PriorityQueue<>((a, b) -> position.get(a) - position.get(b));
+        pending.forEach((node, count) -> {
+            if (count == 0) {
+                ready.add(node);
+            }
+        });
+        List<Long> order = new ArrayList<>(position.size());
+        while (!ready.isEmpty()) {
+            Long node = ready.poll();
+            order.add(node);
+            for (Long dependent : dependents.getOrDefault(node, List.of())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() == position.size()) {
+            return new Result(order, List.of());
+        }
+
+        // Whatever is left sits on or behind a cycle.
+        List<Long> blocked = new ArrayList<>();
+        for (Long node : position.keySet()) {
+            if (pending.get(node) > 0) {
+                blocked.add(node);
+            }
+        }
+        blocked.sort((a, b) -> position.get(a) - position.get(b));
+        order.addAll(blocked);
+        return new Result(order, cycles(blocked, prerequisites, position));
+    }
+
+    /**
+     * Every node reachable from {@code start} through prerequisite edges,
+     * excluding {@code start} unless it lies on a cycle.
+     */
+    static Set<Long> closure(Long start, Map<Long, Set<Long>> prerequisites) {
+        Set<Long> seen = new HashSet<>();
+        Deque<Long> stack = new ArrayDeque<>(prerequisites.getOrDefault(start, Set.of()));
+        while (!stack.isEmpty()) {
+            Long node = stack.pop();
+            if (seen.add(node)) {
+                stack.addAll(prerequisites.getOrDefault(node, Set.of()));
+            }
+        }
+        return seen;
+    }
+
+    /**
+     * Strongly connected components of more than one node (or with a
+     * self-edge) among the blocked nodes, using an iterative Tarjan.
+     */
+    private static List<List<Long>> cycles(List<Long> nodes, Map<Long, Set<Long>> prerequisites,
+            Map<Long, Integer> position) {
+        Set<Long> scope = new HashSet<>(nodes);
+        Map<Long, Integer> index = new HashMap<>();
+        Map<Long, Integer> low = new HashMap<>();
+        Deque<Long> stack = new ArrayDeque<>();
+        Set<Long> onStack = new HashSet<>();
+        List<List<Long>> cycles = new ArrayList<>();
+        for (Long root : nodes) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+            Deque<Frame> frames = new ArrayDeque<>();
+            frames.push(new Frame(root, successors(root, prerequisites, scope)));
+            index.put(root, index.size());
+            low.put(root, index.get(root));
+            stack.push(root);
+            onStack.add(root);
+            while (!frames.isEmpty()) {
+                Frame frame = frames.peek();
+                if (frame.next < frame.successors.size()) {
+                    Long next = frame.successors.get(frame.next++);
+                    if (!index.containsKey(next)) {
+                        index.put(next, index.size());
+                        low.put(next, index.get(next));
+                        stack.push(next);
+                        onStack.add(next);
+                        frames.push(new Frame(next, successors(next, prerequisites, scope)));
+                    } else if (onStack.contains(next)) {
+                        low.put(frame.node, Math.min(low.get(frame.node), index.get(next)));
+                    }
+                    continue;
+                }
+                frames.pop();
+                if (!frames.isEmpty()) {
+                    Long parent = frames.peek().node;
+                    low.put(parent, Math.min(low.get(parent), low.get(frame.node)));
+                }
+                if (low.get(frame.node).equals(index.get(frame.node))) {
+                    List<Long> component = new ArrayList<>();
+                    Long member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(frame.node));
+                    if (component.size() > 1 || frame.successors.contains(frame.node)) {
+                        component.sort((a, b) -> position.get(a) - position.get(b));
+                        cycles.add(component);
+                    }
+                }
+            }
+        }
+        return cycles;
+    }
+
+    private static List<Long> successors(Long node, Map<Long, Set<Long>> prerequisites, Set<Long> scope) {
+        return prerequisites.getOrDefault(node, Set.of()).stream().filter(scope::contains).toList();
+    }
+
+    record Result(List<Long> order, List<List<Long>> cycles) {
+    }
+
+    private static final class Frame {
+        private final Long node;
+        private final List<Long> successors;
+        private int next;
+
+        private Frame(Long node, List<Long> successors) {
+            this.node = node;
+            this.successors = successors;
+        }
+    }
+}
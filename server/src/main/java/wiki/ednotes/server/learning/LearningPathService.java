@@ -0,0 +1,229 @@
+package wiki.ednotes.server.learning;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wiki.ednotes.server.article.ArticleConnection;
+import wiki.ednotes.server.article.ArticleConnectionRepository;
+import wiki.ednotes.server.article.ArticleRepository;
+import wiki.ednotes.server.article.ArticleTreeRow;
+import wiki.ednotes.server.category.Category;
+import wiki.ednotes.server.category.CategoryRepository;
+import wiki.ednotes.server.change.ChangeEvent;
+import wiki.ednotes.server.change.EntityType;
+import wiki.ednotes.server.config.ReplicaRouting;
+import wiki.ednotes.server.navigation.NavigationService;
+import wiki.ednotes.server.navigation.dto.ArticleSummary;
+import wiki.ednotes.server.navigation.dto.LearningPath;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reading orders derived from the article connection graph.
+ * <p>
+ * A connection from a source to a target means the source builds on the
+ * target, so the target is read first. The graph is held in memory and kept
+ * in step by the committed change events. Orders are cached per category and
+ * prerequisite lists per article; an edge change only drops the entries that
+ * contain one of its ends. Cached entries hold article IDs only, and titles,
+ * publication and view counts are filled in per request.
+ */
+@Service
+public class LearningPathService {
+    private final ArticleConnectionRepository connectionRepository;
+    private final ArticleRepository articleRepository;
+    private final CategoryRepository categoryRepository;
+    private final NavigationService navigationService;
+
+    /** Source article ID to the IDs of the articles it requires. */
+    private final Map<Long, Set<Long>> prerequisites = new ConcurrentHashMap<>();
+    private final Map<Long, CachedPath> paths = new ConcurrentHashMap<>();
+    private final Map<Long, CachedClosure> closures = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean loaded;
+
+    /**
+     * Constructor for LearningPathService.
+     */
+    public LearningPathService(ArticleConnectionRepository connectionRepository,
+            ArticleRepository articleRepository,
+            CategoryRepository categoryRepository,
+            NavigationService navigationService) {
+        this.connectionRepository = connectionRepository;
+        this.articleRepository = articleRepository;
+        this.categoryRepository = categoryRepository;
+        this.navigationService = navigationService;
+    }
+
+    /**
+     * Get the reading order of the published articles of a topic or category.
+     * Outermost topics cover every category assigned to them; any other
+     * category covers its subtree.
+     *
+     * @param categoryId the category ID
+     * @return the learning path, or empty if the category does not exist
+     */
+    public Optional<LearningPath> getLearningPath(Long categoryId) {
+        CachedPath path = paths.get(categoryId);
+        if (path == null) {
+            Optional<Category> category = categoryRepository.findById(categoryId);
+            if (category.isEmpty()) {
+                return Optional.empty();
+            }
+            path = computePath(category.get());
+        }
+        return Optional.of(new LearningPath(navigationService.getArticleSummaries(path.order()), path.cycles()));
+    }
+
+    /**
+     * Get the smallest set of published articles to read before an article:
+     * everything it requires, directly or transitively, prerequisites first.
+     *
+     * @param articleId the article ID
+     * @return the prerequisites, in reading order
+     */
+    public List<ArticleSummary> getPrerequisites(Long articleId) {
+        CachedClosure closure = closures.get(articleId);
+        if (closure == null) {
+            closure = computeClosure(articleId);
+        }
+        return navigationService.getArticleSummaries(closure.order());
+    }
+
+    /**
+     * Drop the entries a committed change can affect. A connection change
+     * re-reads the edges of its source article. Deleting a category also
+     * removes the connections of its articles, so the graph is reloaded on the
+     * next request.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (event.getType() == EntityType.CONNECTION) {
+            if (loaded) {
+                refreshEdges(event.getId());
+            }
+        } else if (event.getType() == EntityType.CATEGORY) {
+            generation.incrementAndGet();
+            if (event.isDeleted()) {
+                loaded = false;
+            }
+            paths.clear();
+            closures.clear();
+        } else if (event.getType() == EntityType.ARTICLE) {
+            generation.incrementAndGet();
+            Long id = event.getId();
+            if (event.isDeleted()) {
+                prerequisites.remove(id);
+                prerequisites.values().forEach(targets -> targets.remove(id));
+            }
+            // The article may have been created in or moved into a topic, or
+            // moved out of one it is cached under.
+            paths.values().removeIf(path -> path.members().contains(id)
+                    || Objects.equals(path.topicId(), event.getTopicId()));
+            closures.remove(id);
+            if (event.isDeleted()) {
+                closures.values().removeIf(closure -> closure.members().contains(id));
+            }
+        }
+    }
+
+    private CachedPath computePath(Category category) {
+        long gen = generation.get();
+        Map<Long, Set<Long>> graph = graph();
+        boolean topicRoot = category.getTopic() && category.getTopicId() == null;
+        List<ArticleTreeRow> rows = topicRoot
+                ? articleRepository.findTreeRowsByTopic(category.getId())
+                : articleRepository.findTreeRowsBySubtree(category.getId());
+        List<Long> ids = rows.stream().map(ArticleTreeRow::getId).toList();
+        GraphOrder.Result result = GraphOrder.topological(ids, graph);
+        Long topicId = topicRoot ? category.getId() : category.getTopicId();
+        CachedPath path = new CachedPath(topicId, result.order(), Set.copyOf(ids), result.cycles());
+        cache(paths, category.getId(), path, gen);
+        return path;
+    }
+
+    private CachedClosure computeClosure(Long articleId) {
+        long gen = generation.get();
+        Map<Long, Set<Long>> graph = graph();
+        Set<Long> members = GraphOrder.closure(articleId, graph);
+        members.remove(articleId);
+        List<Long> nodes = new ArrayList<>(members);
+        nodes.sort(null);
+        List<Long> order = GraphOrder.topological(nodes, graph).order();
+        CachedClosure closure = new CachedClosure(order, Set.copyOf(members));
+        cache(closures, articleId, closure, gen);
+        return closure;
+    }
+
+    /**
+     * Cache a computed entry unless the graph changed while it was computed.
+     */
+    private <T> void cache(Map<Long, T> cache, Long key, T value, long gen) {
+        if (generation.get() != gen) {
+            return;
+        }
+        cache.put(key, value);
+        if (generation.get() != gen) {
+            cache.remove(key, value);
+        }
+    }
+
+    /**
+     * Replace the prerequisites of an article with its committed edges, and
+     * drop the entries containing it or any target it gained or lost.
+     */
+    private void refreshEdges(Long sourceId) {
+        Set<Long> targets = ConcurrentHashMap.newKeySet();
+        ReplicaRouting.onPrimary(() -> connectionRepository.findByIdSourceId(sourceId)
+                .forEach(connection -> targets.add(connection.getTargetId())));
+        Set<Long> previous = targets.isEmpty() ? prerequisites.remove(sourceId) : prerequisites.put(sourceId, targets);
+        Set<Long> touched = new HashSet<>(targets);
+        if (previous != null) {
+            touched.addAll(previous);
+        }
+        touched.add(sourceId);
+        generation.incrementAndGet();
+        paths.values().removeIf(path -> touched.stream().anyMatch(path.members()::contains));
+        closures.remove(sourceId);
+        closures.values().removeIf(closure -> closure.members().contains(sourceId));
+    }
+
+    /**
+     * The connection graph, loaded from the primary on first use.
+     */
+    private Map<Long, Set<Long>> graph() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                }
+            }
+        }
+        return prerequisites;
+    }
+
+    private void load() {
+        generation.incrementAndGet();
+        ReplicaRouting.onPrimary(() -> {
+            prerequisites.clear();
+            for (ArticleConnection connection : connectionRepository.findAll()) {
+                prerequisites.computeIfAbsent(connection.getSourceId(), k -> ConcurrentHashMap.newKeySet())
+                        .add(connection.getTargetId());
+            }
+        });
+        loaded = true;
+    }
+
+    private record CachedPath(Long topicId, List<Long> order, Set<Long> members, List<List<Long>> cycles) {
+    }
+
+    private record CachedClosure(List<Long> order, Set<Long> members) {
+    }
+}
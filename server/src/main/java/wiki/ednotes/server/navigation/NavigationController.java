@@ -1,11 +1,21 @@
 package wiki.ednotes.server.navigation;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import wiki.ednotes.server.cache.HotContentTracker;
+import wiki.ednotes.server.cache.ReaderCache;
+import wiki.ednotes.server.cache.SingleFlight;
+import wiki.ednotes.server.change.ChangeFeed;
+import wiki.ednotes.server.learning.LearningPathService;
 import wiki.ednotes.server.navigation.dto.SidebarNode;
 import wiki.ednotes.server.navigation.dto.ArticleSummary;
 import wiki.ednotes.server.navigation.dto.CategorySummary;
 import wiki.ednotes.server.navigation.dto.FolderContent;
+import wiki.ednotes.server.navigation.dto.LearningPath;
+import wiki.ednotes.server.navigation.dto.Suggestion;
+import wiki.ednotes.server.startup.StartupWarmup;
 import java.util.List;
 
 /**
@@ -15,13 +25,33 @@ import java.util.List;
 @RequestMapping("/api/navigation")
 public class NavigationController {
     private final NavigationService navigationService;
+    private final ChangeFeed changeFeed;
+    private final SingleFlight singleFlight;
+    private final ReaderCache readerCache;
+    private final HotContentTracker hotContent;
+    private final SuggestIndex suggestIndex;
+    private final LearningPathService learningPaths;
 
     /**
      * Constructor for NavigationController.
      * @param navigationService the navigation service
+     * @param changeFeed the change event feed
+     * @param singleFlight coalesces concurrent identical reads
+     * @param readerCache cache of topic trees
+     * @param hotContent tracker of the most read content
+     * @param suggestIndex prefix index over titles
+     * @param learningPaths reading orders from the connection graph
      */
-    public NavigationController(NavigationService navigationService) {
+    public NavigationController(NavigationService navigationService, ChangeFeed changeFeed,
+            SingleFlight singleFlight, ReaderCache readerCache, HotContentTracker hotContent,
+            SuggestIndex suggestIndex, LearningPathService learningPaths) {
         this.navigationService = navigationService;
+        this.changeFeed = changeFeed;
+        this.singleFlight = singleFlight;
+        this.readerCache = readerCache;
+        this.hotContent = hotContent;
+        this.suggestIndex = suggestIndex;
+        this.learningPaths = learningPaths;
     }
 
     /**
@@ -30,7 +60,7 @@ public class NavigationController {
      */
     @GetMapping("/roots")
     public ResponseEntity<FolderContent> getRoots() {
-        return ResponseEntity.ok(navigationService.getRoots());
+        return ResponseEntity.ok(singleFlight.load("roots", null, navigationService::getRoots));
     }
 
     /**
@@ -40,27 +70,72 @@ public class NavigationController {
      */
     @GetMapping("/categories/{id}")
     public ResponseEntity<FolderContent> getCategory(@PathVariable Long id) {
-        return ResponseEntity.ok(navigationService.getCategoryContent(id));
+        return ResponseEntity.ok(singleFlight.load("folder", id, () -> navigationService.getCategoryContent(id)));
     }
 
     /**
      * Get the navigation tree starting from a specific topic.
      * @param topicId the topic category ID
+     * @param warmup set on startup warm-up requests, which are not counted
      * @return list of SidebarNode representing the tree structure
      */
     @GetMapping("/tree/{topicId}")
-    public ResponseEntity<List<SidebarNode>> getNavigationTree(@PathVariable Long topicId) {
-        List<SidebarNode> tree = navigationService.getNavigationTree(topicId);
+    public ResponseEntity<List<SidebarNode>> getNavigationTree(@PathVariable Long topicId,
+            @RequestHeader(name = StartupWarmup.WARMUP_HEADER, defaultValue = "false") boolean warmup) {
+        List<SidebarNode> tree = readerCache.tree(topicId);
+        if (!warmup && !tree.isEmpty()) {
+            hotContent.recordTree(topicId);
+        }
         return ResponseEntity.ok(tree);
     }
 
+    /**
+     * Get the reading order of a topic or category, prerequisites first.
+     * @param categoryId the topic or category ID
+     * @return LearningPath with the ordered articles and any prerequisite cycles
+     */
+    @GetMapping("/learning-path/{categoryId}")
+    public ResponseEntity<LearningPath> getLearningPath(@PathVariable Long categoryId) {
+        return singleFlight.load("learning-path", categoryId, () -> learningPaths.getLearningPath(categoryId))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Search for published articles.
      * @return list of published ArticleSummary
      */
     @GetMapping("/search")
     public ResponseEntity<List<ArticleSummary>> search() {
-        return ResponseEntity.ok(navigationService.search());
+        return ResponseEntity.ok(singleFlight.load("search", null, navigationService::search));
+    }
+
+    /**
+     * Suggest article and category titles for a typed prefix.
+     * @param q the typed text
+     * @param topicId restrict suggestions to a topic (optional)
+     * @param limit maximum number of suggestions
+     * @return list of Suggestion, best first
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(@RequestParam String q,
+            @RequestParam(required = false) Long topicId,
+            @RequestParam(defaultValue = "8") int limit) {
+        if (q.length() > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(suggestIndex.suggest(q, topicId, Math.min(Math.max(limit, 1), 20)));
+    }
+
+    /**
+     * Get the most read published articles.
+     * @param limit maximum number of articles
+     * @return list of ArticleSummary, most read first
+     */
+    @GetMapping("/popular")
+    public ResponseEntity<List<ArticleSummary>> getPopular(@RequestParam(defaultValue = "10") int limit) {
+        List<Long> ids = hotContent.hotArticles(Math.min(Math.max(limit, 1), 50));
+        return ResponseEntity.ok(singleFlight.load("popular", ids, () -> navigationService.getArticleSummaries(ids)));
     }
 
     /**
@@ -70,7 +145,7 @@ public class NavigationController {
      */
     @GetMapping("/path/{catId}")
     public ResponseEntity<List<CategorySummary>> getBreadcrumbs(@PathVariable Long catId) {
-        return ResponseEntity.ok(navigationService.getBreadcrumbs(catId));
+        return ResponseEntity.ok(singleFlight.load("path", catId, () -> navigationService.getBreadcrumbs(catId)));
     }
 
     /**
@@ -80,7 +155,17 @@ public class NavigationController {
      */
     @GetMapping("/article-summaries/{categoryId}")
     public ResponseEntity<List<ArticleSummary>> getArticleSummary(@PathVariable Long categoryId) {
-        List<ArticleSummary> articles = navigationService.getArticleSummariesByCategory(categoryId);
+        List<ArticleSummary> articles = singleFlight.load("article-summaries", categoryId,
+                () -> navigationService.getArticleSummariesByCategory(categoryId));
         return ResponseEntity.ok(articles);
     }
+
+    /**
+     * Subscribe to change events for navigation and article data.
+     * @return Server-Sent Events stream of ChangeEvent
+     */
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes() {
+        return changeFeed.subscribe();
+    }
 }
\ No newline at end of file
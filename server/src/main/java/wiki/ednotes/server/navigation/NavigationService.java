@@ -1,33 +1,57 @@
 package wiki.ednotes.server.navigation;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import wiki.ednotes.server.category.Category;
 import wiki.ednotes.server.category.CategoryRepository;
 import wiki.ednotes.server.article.Article;
+import wiki.ednotes.server.article.ArticleConnection;
+import wiki.ednotes.server.article.ArticleConnectionRepository;
 import wiki.ednotes.server.article.ArticleRepository;
+import wiki.ednotes.server.article.ArticleSection;
+import wiki.ednotes.server.article.ArticleSectionRepository;
+import wiki.ednotes.server.article.ArticleTreeRow;
+import wiki.ednotes.server.article.ArticleViewCounter;
 import wiki.ednotes.server.navigation.dto.SidebarNode;
 import wiki.ednotes.server.navigation.dto.ArticleSummary;
 import wiki.ednotes.server.navigation.dto.CategorySummary;
 import wiki.ednotes.server.navigation.dto.FolderContent;
 import wiki.ednotes.server.navigation.dto.ArticleContent;
+import wiki.ednotes.server.navigation.dto.ArticleBody;
+import wiki.ednotes.server.navigation.dto.ArticleNeighbours;
+import wiki.ednotes.server.navigation.dto.ArticleOutline;
+import wiki.ednotes.server.navigation.dto.SectionContent;
+import wiki.ednotes.server.navigation.dto.SectionHeading;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * Service for managing navigation-related operations.
+ * Service for managing navigation-related operations. All reads run in
+ * read-only transactions, which are routed to the replica pools.
  */
 @Service
+@Transactional(readOnly = true)
 public class NavigationService {
     private final CategoryRepository categoryRepository;
     private final ArticleRepository articleRepository;
+    private final ArticleConnectionRepository connectionRepository;
+    private final ArticleViewCounter viewCounter;
+    private final ArticleSectionRepository sectionRepository;
+    private final ReadingOrder readingOrder;
 
     /**
      * Constructor for NavigationService.
      */
-    public NavigationService(CategoryRepository categoryRepository, ArticleRepository articleRepository) {
+    public NavigationService(CategoryRepository categoryRepository, ArticleRepository articleRepository,
+            ArticleConnectionRepository connectionRepository, ArticleViewCounter viewCounter,
+            ArticleSectionRepository sectionRepository, ReadingOrder readingOrder) {
         this.categoryRepository = categoryRepository;
         this.articleRepository = articleRepository;
+        this.connectionRepository = connectionRepository;
+        this.viewCounter = viewCounter;
+        this.sectionRepository = sectionRepository;
+        this.readingOrder = readingOrder;
     }
 
     /**
@@ -47,6 +71,7 @@ public class NavigationService {
                 .map(a -> new ArticleSummary(a.getId(), a.getTitle(), 
                         a.getPublished() != null && a.getPublished()))
                 .collect(Collectors.toList());
+        applyViews(articles);
         
         return new FolderContent(subCategories, articles);
     }
@@ -68,6 +93,7 @@ public class NavigationService {
                 .map(a -> new ArticleSummary(a.getId(), a.getTitle(), 
                         a.getPublished() != null && a.getPublished()))
                 .collect(Collectors.toList());
+        applyViews(articles);
         
         return new FolderContent(subCategories, articles);
     }
@@ -101,10 +127,12 @@ public class NavigationService {
      * @return List of published ArticleSummary.
      */
     public List<ArticleSummary> search() {
-        return articleRepository.findAll().stream()
+        List<ArticleSummary> articles = articleRepository.findAll().stream()
                 .filter(a -> a.getPublished() != null && a.getPublished())
                 .map(a -> new ArticleSummary(a.getId(), a.getTitle(), true))
                 .collect(Collectors.toList());
+        applyViews(articles);
+        return articles;
     }
 
     /**
@@ -119,14 +147,93 @@ public class NavigationService {
             if (article.getCategoryId() != null) {
                 breadcrumbs = getBreadcrumbs(article.getCategoryId());
             }
+            List<ArticleSummary> backgroundArticles = getBackgroundArticles(article.getId());
             
-            // For now, no background articles (would require ArticleConnection logic)
-            List<ArticleSummary> backgroundArticles = new ArrayList<>();
-            
-            return new ArticleContent(article, breadcrumbs, backgroundArticles);
+            ArticleBody body = new ArticleBody(article.getId(), article.getTitle(), article.getContent(),
+                    article.getCategoryId(), article.getPublished() != null && article.getPublished(),
+                    article.getOrder());
+            return new ArticleContent(body, breadcrumbs, backgroundArticles);
         });
     }
 
+    /**
+     * Get the outline of an article with the blocks of its first section,
+     * without reading the full content.
+     * 
+     * @param articleId The article ID.
+     * @return Optional of ArticleOutline, empty if the article does not exist.
+     */
+    public Optional<ArticleOutline> getArticleOutline(Long articleId) {
+        return articleRepository.findByIdIn(List.of(articleId), ArticleTreeRow.class).stream().findFirst()
+                .map(article -> {
+                    List<SectionHeading> headings = sectionRepository.findHeadings(articleId).stream()
+                            .map(h -> new SectionHeading(h.getPosition(), h.getTitle(), h.getLevel()))
+                            .collect(Collectors.toList());
+                    List<SectionContent> first = getArticleSections(articleId, 0, 0);
+                    return new ArticleOutline(article.getId(), article.getTitle(), article.getCategoryId(),
+                            article.getPublished() != null && article.getPublished(), headings,
+                            first.isEmpty() ? null : first.get(0));
+                });
+    }
+
+    /**
+     * Get a range of sections of an article.
+     * 
+     * @param articleId The article ID.
+     * @param from First section position.
+     * @param to Last section position (inclusive).
+     * @return List of SectionContent in order; positions past the end are left out.
+     */
+    public List<SectionContent> getArticleSections(Long articleId, int from, int to) {
+        return sectionRepository.findByIdArticleIdAndIdPositionBetweenOrderByIdPositionAsc(articleId, from, to).stream()
+                .map(NavigationService::toSectionContent)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the published articles an article directly builds on.
+     * 
+     * @param articleId The article ID.
+     * @return List of published ArticleSummary for the connection targets.
+     */
+    public List<ArticleSummary> getBackgroundArticles(Long articleId) {
+        List<Long> targets = connectionRepository.findByIdSourceId(articleId).stream()
+                .map(ArticleConnection::getTargetId)
+                .collect(Collectors.toList());
+        return getArticleSummaries(targets);
+    }
+
+    /**
+     * Get the published articles before and after an article in reading order,
+     * which continues across categories in tree order.
+     * 
+     * @param articleId The article ID.
+     * @return ArticleNeighbours, with null sides at the ends of the article's root category.
+     */
+    public ArticleNeighbours getNeighbours(Long articleId) {
+        ArticleNeighbours neighbours = readingOrder.neighbours(articleId);
+        List<ArticleSummary> sides = new ArrayList<>();
+        if (neighbours.getPrevious() != null) {
+            sides.add(neighbours.getPrevious());
+        }
+        if (neighbours.getNext() != null) {
+            sides.add(neighbours.getNext());
+        }
+        applyViews(sides);
+        return neighbours;
+    }
+
+    /**
+     * Get the outermost topic a category belongs to.
+     * 
+     * @param categoryId The category ID.
+     * @return The topic ID, or empty if the category is not inside a topic.
+     */
+    public Optional<Long> getTopicId(Long categoryId) {
+        return categoryRepository.findById(categoryId)
+                .map(c -> c.getTopicId() != null ? c.getTopicId() : (c.getTopic() ? c.getId() : null));
+    }
+
     /**
      * Get the navigation tree structure (all root categories).
      * 
@@ -145,6 +252,7 @@ public class NavigationService {
                                         a.getPublished() != null
                                                 && a.getPublished()),
                                 Collectors.toList())));
+        applyViews(articlesByCategory.values().stream().flatMap(List::stream).toList());
 
         // Map parentId -> list of child categories
         Map<Long, List<Category>> childrenByParent = allCategories.stream()
@@ -161,47 +269,49 @@ public class NavigationService {
 
     /**
      * Get the navigation tree structure starting from a specific category.
+     * Only the rows of that topic (or subtree) are loaded, so the cost grows
+     * with the size of the topic rather than the whole wiki.
      * 
      * @param categoryId The root category ID (nullable).
      * @return A list with the specified category as the root, or all root
      *         categories if null.
      */
     public List<SidebarNode> getNavigationTree(Long categoryId) {
-        List<Category> allCategories = categoryRepository.findAll();
-        List<Article> allArticles = articleRepository.findAll();
+        if (categoryId == null) {
+            return getNavigationTree();
+        }
+        Optional<Category> rootOpt = categoryRepository.findById(categoryId);
+        if (rootOpt.isEmpty()) {
+            return List.of(); // Not found
+        }
+        Category root = rootOpt.get();
 
-        Map<Long, List<ArticleSummary>> articlesByCategory = allArticles.stream()
+        // Outermost topics own their rows through topic_id; anything else is
+        // scoped through the closure table.
+        boolean topicRoot = root.getTopic() && root.getTopicId() == null;
+        List<Category> categories = topicRoot
+                ? categoryRepository.findTopicCategories(categoryId)
+                : categoryRepository.findSubtree(categoryId);
+        List<ArticleTreeRow> articles = topicRoot
+                ? articleRepository.findTreeRowsByTopic(categoryId)
+                : articleRepository.findTreeRowsBySubtree(categoryId);
+
+        Map<Long, List<ArticleSummary>> articlesByCategory = articles.stream()
                 .collect(Collectors.groupingBy(
-                        a -> a.getCategoryId() != null ? a.getCategoryId() : null,
+                        ArticleTreeRow::getCategoryId,
                         Collectors.mapping(
                                 a -> new ArticleSummary(a.getId(), a.getTitle(),
                                         a.getPublished() != null
                                                 && a.getPublished()),
                                 Collectors.toList())));
+        applyViews(articlesByCategory.values().stream().flatMap(List::stream).toList());
 
-        Map<Long, List<Category>> childrenByParent = allCategories.stream()
+        Map<Long, List<Category>> childrenByParent = categories.stream()
                 .filter(c -> c.getParentId() != null)
                 .collect(Collectors.groupingBy(Category::getParentId));
 
-        if (categoryId != null) {
-            // Find the category by ID
-            Optional<Category> rootOpt = allCategories.stream()
-                    .filter(c -> c.getId().equals(categoryId))
-                    .findFirst();
-            if (rootOpt.isPresent()) {
-                SidebarNode node = buildNode(rootOpt.get(), childrenByParent, articlesByCategory);
-                return node != null ? List.of(node) : List.of();
-            } else {
-                return List.of(); // Not found
-            }
-        } else {
-            // Original behavior: all root categories
-            return allCategories.stream()
-                    .filter(c -> c.getParentId() == null)
-                    .map(c -> buildNode(c, childrenByParent, articlesByCategory))
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-        }
+        SidebarNode node = buildNode(root, childrenByParent, articlesByCategory);
+        return node != null ? List.of(node) : List.of();
     }
 
     /**
@@ -211,11 +321,47 @@ public class NavigationService {
      * @return List of ArticleSummary.
      */
     public List<ArticleSummary> getArticleSummariesByCategory(Long categoryId) {
-        List<Article> articles = articleRepository.findByCategoryIdOrderByOrderAsc(categoryId);
-        return articles.stream()
+        List<ArticleSummary> articles = articleRepository.findByCategoryIdOrderByOrderAsc(categoryId).stream()
                 .map(a -> new ArticleSummary(a.getId(), a.getTitle(),
                         a.getPublished() != null && a.getPublished()))
                 .collect(Collectors.toList());
+        applyViews(articles);
+        return articles;
+    }
+
+    /**
+     * Get summaries of published articles in the given order.
+     * 
+     * @param ids The article IDs.
+     * @return List of published ArticleSummary, in the order of the IDs.
+     */
+    public List<ArticleSummary> getArticleSummaries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ArticleTreeRow> rows = articleRepository.findByIdIn(ids, ArticleTreeRow.class).stream()
+                .collect(Collectors.toMap(ArticleTreeRow::getId, a -> a));
+        List<ArticleSummary> articles = ids.stream()
+                .map(rows::get)
+                .filter(a -> a != null && a.getPublished() != null && a.getPublished())
+                .map(a -> new ArticleSummary(a.getId(), a.getTitle(), true))
+                .collect(Collectors.toList());
+        applyViews(articles);
+        return articles;
+    }
+
+    /**
+     * Fill in the view counts of a list of summaries with one lookup.
+     * 
+     * @param articles The summaries to update.
+     */
+    private void applyViews(List<ArticleSummary> articles) {
+        if (articles.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> views = viewCounter.counts(
+                articles.stream().map(ArticleSummary::getId).collect(Collectors.toSet()));
+        articles.forEach(a -> a.setViews(views.getOrDefault(a.getId(), 0L)));
     }
 
     /**
@@ -246,4 +392,8 @@ public class NavigationService {
         node.setPublished(true);
         return node;
     }
-}
\ No newline at end of file
+
+    private static SectionContent toSectionContent(ArticleSection section) {
+        return new SectionContent(section.getPosition(), section.getTitle(), section.getLevel(), section.getBlocks());
+    }
+}
@@ -0,0 +1,184 @@
+package wiki.ednotes.server.navigation;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wiki.ednotes.server.article.ArticleRepository;
+import wiki.ednotes.server.article.ArticleSyncRow;
+import wiki.ednotes.server.category.Category;
+import wiki.ednotes.server.category.CategoryRepository;
+import wiki.ednotes.server.change.ChangeEvent;
+import wiki.ednotes.server.change.EntityType;
+import wiki.ednotes.server.config.ReplicaRouting;
+import wiki.ednotes.server.navigation.dto.ArticleNeighbours;
+import wiki.ednotes.server.navigation.dto.ArticleSummary;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Precomputed previous/next links between published articles in tree order.
+ * <p>
+ * Each root category is walked depth first the way the sidebar shows it: a
+ * category's articles by display order, then its child categories by display
+ * order. Unpublished categories hide their subtree. Consecutive articles of
+ * one walk are neighbours, so the last article of a category links to the
+ * first article after it in the tree, but never across roots.
+ * <p>
+ * The links are loaded on first use and rebuilt off the request path after
+ * an article or category change; reads see the previous links until the
+ * rebuild is swapped in.
+ */
+@Component
+public class ReadingOrder {
+    private static final Logger log = LoggerFactory.getLogger(ReadingOrder.class);
+    private static final Comparator<Long> DISPLAY_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final CategoryRepository categoryRepository;
+    private final ArticleRepository articleRepository;
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("reading-order").daemon(true).factory());
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private volatile Map<Long, Links> links;
+
+    /**
+     * Constructor for ReadingOrder.
+     */
+    public ReadingOrder(CategoryRepository categoryRepository, ArticleRepository articleRepository) {
+        this.categoryRepository = categoryRepository;
+        this.articleRepository = articleRepository;
+    }
+
+    /**
+     * Get the published articles before and after an article in tree order.
+     * The summaries are new objects without view counts.
+     * @param articleId the article ID
+     * @return the neighbours; both sides are null for unpublished or unknown articles
+     */
+    public ArticleNeighbours neighbours(Long articleId) {
+        Map<Long, Links> current = links;
+        if (current == null) {
+            current = loadIfEmpty();
+        }
+        Links entry = current.get(articleId);
+        if (entry == null) {
+            return new ArticleNeighbours();
+        }
+        return new ArticleNeighbours(summary(entry.previous), summary(entry.next));
+    }
+
+    /**
+     * Rebuild once an article or category change has committed. A burst of
+     * changes is coalesced into one rebuild.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (links == null
+                || (event.getType() != EntityType.ARTICLE && event.getType() != EntityType.CATEGORY)) {
+            return;
+        }
+        if (rebuildPending.compareAndSet(false, true)) {
+            updater.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    ReplicaRouting.onPrimary(this::reload);
+                } catch (RuntimeException e) {
+                    log.warn("Could not rebuild the reading order: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updater.shutdownNow();
+    }
+
+    private synchronized Map<Long, Links> loadIfEmpty() {
+        if (links == null) {
+            ReplicaRouting.onPrimary(this::reload);
+        }
+        return links;
+    }
+
+    /**
+     * Read the primary, so a change that just committed is not missed
+     * through replica lag.
+     */
+    private synchronized void reload() {
+        List<Category> categories = categoryRepository.findAll();
+        List<ArticleSyncRow> articles = articleRepository.findByPublishedIsTrue(ArticleSyncRow.class);
+
+        Map<Long, List<Category>> children = new HashMap<>();
+        List<Category> roots = new ArrayList<>();
+        for (Category category : categories) {
+            if (!category.getPublished()) {
+                continue;
+            }
+            if (category.getParentId() == null) {
+                roots.add(category);
+            } else {
+                children.computeIfAbsent(category.getParentId(), k -> new ArrayList<>()).add(category);
+            }
+        }
+        Comparator<Category> categoryOrder = Comparator.comparing(Category::getOrder, DISPLAY_ORDER)
+                .thenComparing(Category::getId);
+        roots.sort(categoryOrder);
+        children.values().forEach(list -> list.sort(categoryOrder));
+
+        Map<Long, List<ArticleSyncRow>> articlesByCategory = new HashMap<>();
+        for (ArticleSyncRow article : articles) {
+            if (article.getCategoryId() != null) {
+                articlesByCategory.computeIfAbsent(article.getCategoryId(), k -> new ArrayList<>()).add(article);
+            }
+        }
+        Comparator<ArticleSyncRow> articleOrder = Comparator.comparing(ArticleSyncRow::getOrder, DISPLAY_ORDER)
+                .thenComparing(ArticleSyncRow::getId);
+        articlesByCategory.values().forEach(list -> list.sort(articleOrder));
+
+        Map<Long, Links> loaded = new HashMap<>();
+        for (Category root : roots) {
+            List<ArticleSyncRow> sequence = new ArrayList<>();
+            // Iterative walk, so deep trees cannot overflow the stack.
+            Deque<Category> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Category category = stack.pop();
+                sequence.addAll(articlesByCategory.getOrDefault(category.getId(), List.of()));
+                List<Category> below = children.getOrDefault(category.getId(), List.of());
+                for (int i = below.size() - 1; i >= 0; i--) {
+                    stack.push(below.get(i));
+                }
+            }
+            for (int i = 0; i < sequence.size(); i++) {
+                loaded.put(sequence.get(i).getId(), new Links(
+                        i > 0 ? Target.of(sequence.get(i - 1)) : null,
+                        i < sequence.size() - 1 ? Target.of(sequence.get(i + 1)) : null));
+            }
+        }
+        links = Map.copyOf(loaded);
+    }
+
+    private static ArticleSummary summary(Target target) {
+        return target == null ? null : new ArticleSummary(target.id, target.title, true);
+    }
+
+    private record Target(Long id, String title) {
+        private static Target of(ArticleSyncRow row) {
+            return new Target(row.getId(), row.getTitle());
+        }
+    }
+
+    private record Links(Target previous, Target next) {
+    }
+}
@@ -0,0 +1,284 @@
+package wiki.ednotes.server.navigation;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wiki.ednotes.server.article.ArticleRepository;
+import wiki.ednotes.server.article.ArticleSyncRow;
+import wiki.ednotes.server.article.ArticleViewCounter;
+import wiki.ednotes.server.category.Category;
+import wiki.ednotes.server.category.CategoryRepository;
+import wiki.ednotes.server.change.ChangeEvent;
+import wiki.ednotes.server.change.EntityType;
+import wiki.ednotes.server.config.ReplicaRouting;
+import wiki.ednotes.server.navigation.dto.Suggestion;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over published article and category titles.
+ * <p>
+ * Every word start of a normalised title is an entry, stored as two int
+ * arrays (item, offset into the title) sorted by the suffix they point at,
+ * so the index holds no substrings. A lookup binary-searches the first
+ * suffix not below the query and scans forward while suffixes still start
+ * with it. Matches at the start of a title rank first, then more viewed
+ * articles, then display order.
+ * <p>
+ * Items are kept in a map updated on each committed change (a single row
+ * reload for articles); the sorted arrays are then rebuilt off the request
+ * path and swapped in. Popularity is refreshed with a periodic full reload.
+ */
+@Component
+public class SuggestIndex {
+    private static final Logger log = LoggerFactory.getLogger(SuggestIndex.class);
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_SCAN = 2000;
+
+    private final CategoryRepository categoryRepository;
+    private final ArticleRepository articleRepository;
+    private final ArticleViewCounter viewCounter;
+    private final Map<String, Item> items = new ConcurrentHashMap<>();
+    private final Map<Long, Long> categoryTopics = new ConcurrentHashMap<>();
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("suggest-index").daemon(true).factory());
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructor for SuggestIndex.
+     */
+    public SuggestIndex(CategoryRepository categoryRepository, ArticleRepository articleRepository,
+            ArticleViewCounter viewCounter) {
+        this.categoryRepository = categoryRepository;
+        this.articleRepository = articleRepository;
+        this.viewCounter = viewCounter;
+    }
+
+    /**
+     * Find titles containing a word that starts with the query.
+     *
+     * @param query   the typed text
+     * @param topicId only return items of this topic (nullable)
+     * @param limit   maximum number of suggestions
+     * @return the best matches, best first
+     */
+    public List<Suggestion> suggest(String query, Long topicId, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = loadIfEmpty();
+        }
+        Set<Item> matches = new HashSet<>();
+        Set<Item> titleStarts = new HashSet<>();
+        int end = Math.min(current.entryItem.length, current.lowerBound(q) + MAX_SCAN);
+        for (int e = current.lowerBound(q); e < end && current.startsWith(e, q); e++) {
+            Item item = current.items[current.entryItem[e]];
+            if (topicId == null || topicId.equals(item.topicId)) {
+                matches.add(item);
+                if (current.entryOffset[e] == 0) {
+                    titleStarts.add(item);
+                }
+            }
+        }
+        return matches.stream()
+                .sorted(Comparator.comparing((Item item) -> !titleStarts.contains(item))
+                        .thenComparing(Comparator.comparingLong((Item item) -> item.views).reversed())
+                        .thenComparingLong(item -> item.order)
+                        .thenComparing(item -> item.title))
+                .limit(limit)
+                .map(item -> new Suggestion(item.type, item.id, item.title, item.topicId))
+                .toList();
+    }
+
+    /**
+     * Reload every title and view count.
+     */
+    @Scheduled(fixedDelayString = "${ednotes.suggest.refresh-interval:600000}",
+            initialDelayString = "${ednotes.suggest.refresh-interval:600000}")
+    public void refresh() {
+        if (snapshot == null) {
+            return;
+        }
+        updater.execute(() -> update(this::reloadAll));
+    }
+
+    /**
+     * Apply a committed change: reload the article, or everything for
+     * category changes since they can move or hide whole subtrees.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (snapshot == null) {
+            return;
+        }
+        if (event.getType() == EntityType.ARTICLE) {
+            updater.execute(() -> update(() -> reloadArticle(event.getId())));
+        } else if (event.getType() == EntityType.CATEGORY) {
+            updater.execute(() -> update(this::reloadAll));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updater.shutdownNow();
+    }
+
+    private synchronized Snapshot loadIfEmpty() {
+        if (snapshot == null) {
+            reloadAll();
+        }
+        return snapshot;
+    }
+
+    private synchronized void reloadAll() {
+        List<Category> categories = categoryRepository.findAll();
+        List<ArticleSyncRow> articles = articleRepository.findByPublishedIsTrue(ArticleSyncRow.class);
+        Map<Long, Long> views = viewCounter.counts(articles.stream().map(ArticleSyncRow::getId).toList());
+
+        Map<Long, Long> topics = new HashMap<>();
+        Map<String, Item> loaded = new HashMap<>();
+        for (Category category : categories) {
+            Long topicId = category.getTopicId() != null ? category.getTopicId()
+                    : category.getTopic() ? category.getId() : null;
+            topics.put(category.getId(), topicId == null ? 0L : topicId);
+            if (category.getPublished()) {
+                Item item = new Item("category", category.getId(), category.getTitle(), topicId, 0,
+                        category.getOrder() != null ? category.getOrder() : Long.MAX_VALUE);
+                loaded.put(item.key(), item);
+            }
+        }
+        for (ArticleSyncRow article : articles) {
+            Long topicId = article.getCategoryId() == null ? null : topics.get(article.getCategoryId());
+            Item item = new Item("article", article.getId(), article.getTitle(),
+                    topicId == null || topicId == 0L ? null : topicId,
+                    views.getOrDefault(article.getId(), 0L),
+                    article.getOrder() != null ? article.getOrder() : Long.MAX_VALUE);
+            loaded.put(item.key(), item);
+        }
+        categoryTopics.clear();
+        categoryTopics.putAll(topics);
+        items.clear();
+        items.putAll(loaded);
+        rebuild();
+    }
+
+    private void reloadArticle(Long id) {
+        List<ArticleSyncRow> rows = articleRepository.findByIdIn(List.of(id), ArticleSyncRow.class);
+        String key = "article:" + id;
+        if (rows.isEmpty() || !Boolean.TRUE.equals(rows.get(0).getPublished())) {
+            items.remove(key);
+        } else {
+            ArticleSyncRow article = rows.get(0);
+            Long topicId = article.getCategoryId() == null ? null : categoryTopics.get(article.getCategoryId());
+            items.put(key, new Item("article", id, article.getTitle(),
+                    topicId == null || topicId == 0L ? null : topicId,
+                    viewCounter.counts(List.of(id)).getOrDefault(id, 0L),
+                    article.getOrder() != null ? article.getOrder() : Long.MAX_VALUE));
+        }
+        rebuildPending.set(true);
+        // Coalesce a burst of edits into one rebuild.
+        updater.execute(() -> {
+            if (rebuildPending.getAndSet(false)) {
+                rebuild();
+            }
+        });
+    }
+
+    private synchronized void rebuild() {
+        Item[] all = items.values().toArray(Item[]::new);
+        String[] normalized = new String[all.length];
+        List<long[]> entries = new ArrayList<>();
+        for (int i = 0; i < all.length; i++) {
+            normalized[i] = normalize(all[i].title);
+            String title = normalized[i];
+            for (int offset = 0; offset < title.length(); offset++) {
+                if (offset == 0 || title.charAt(offset - 1) == ' ') {
+                    entries.add(new long[] {i, offset});
+                }
+            }
+        }
+        entries.sort((a, b) -> compareSuffixes(normalized[(int) a[0]], (int) a[1], normalized[(int) b[0]], (int) b[1]));
+        int[] entryItem = new int[entries.size()];
+        int[] entryOffset = new int[entries.size()];
+        for (int e = 0; e < entryItem.length; e++) {
+            entryItem[e] = (int) entries.get(e)[0];
+            entryOffset[e] = (int) entries.get(e)[1];
+        }
+        snapshot = new Snapshot(all, normalized, entryItem, entryOffset);
+        log.debug("Suggest index rebuilt with {} titles and {} entries", all.length, entryItem.length);
+    }
+
+    private void update(Runnable task) {
+        try {
+            ReplicaRouting.onPrimary(task);
+        } catch (RuntimeException e) {
+            log.warn("Could not update the suggest index: {}", e.getMessage());
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static int compareSuffixes(String a, int aOffset, String b, int bOffset) {
+        int length = Math.min(a.length() - aOffset, b.length() - bOffset);
+        for (int i = 0; i < length; i++) {
+            int diff = a.charAt(aOffset + i) - b.charAt(bOffset + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return (a.length() - aOffset) - (b.length() - bOffset);
+    }
+
+    private record Item(String type, Long id, String title, Long topicId, long views, long order) {
+        String key() {
+            return type + ":" + id;
+        }
+    }
+
+    private record Snapshot(Item[] items, String[] normalized, int[] entryItem, int[] entryOffset) {
+        int lowerBound(String q) {
+            int low = 0;
+            int high = entryItem.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareSuffixes(normalized[entryItem[mid]], entryOffset[mid], q, 0) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        boolean startsWith(int entry, String q) {
+            return normalized[entryItem[entry]].startsWith(q, entryOffset[entry]);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package wiki.ednotes.server.navigation.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Wire format of an article for readers. The content column already holds
+ * JSON, so it is written into the response verbatim instead of as an escaped
+ * string, and clients receive the block array directly (see
+ * {@link RawJsonSerializer}).
+ */
+public class ArticleBody {
+    private final Long id;
+    private final String title;
+    private final String content;
+    private final Long categoryId;
+    private final boolean published;
+    private final Long order;
+
+    public ArticleBody(Long id, String title, String content, Long categoryId, boolean published, Long order) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.categoryId = categoryId;
+        this.published = published;
+        this.order = order;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    @JsonSerialize(using = RawJsonSerializer.class)
+    public String getContent() {
+        return content;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public boolean getPublished() {
+        return published;
+    }
+
+    public Long getOrder() {
+        return order;
+    }
+}
@@ -1,30 +1,31 @@
 package wiki.ednotes.server.navigation.dto;
 
-import wiki.ednotes.server.article.Article;
 import java.util.List;
 
 /**
- * DTO for article viewing containing the article, breadcrumbs, and background references.
+ * DTO for article viewing containing the article, breadcrumbs, background references,
+ * and the previous and next articles in reading order.
  */
 public class ArticleContent {
-    private Article article;
+    private ArticleBody article;
     private List<CategorySummary> breadcrumbs;
     private List<ArticleSummary> backgroundArticles;
+    private ArticleNeighbours neighbours;
 
     public ArticleContent() {
     }
 
-    public ArticleContent(Article article, List<CategorySummary> breadcrumbs, List<ArticleSummary> backgroundArticles) {
+    public ArticleContent(ArticleBody article, List<CategorySummary> breadcrumbs, List<ArticleSummary> backgroundArticles) {
         this.article = article;
         this.breadcrumbs = breadcrumbs;
         this.backgroundArticles = backgroundArticles;
     }
 
-    public Article getArticle() {
+    public ArticleBody getArticle() {
         return article;
     }
 
-    public void setArticle(Article article) {
+    public void setArticle(ArticleBody article) {
         this.article = article;
     }
 
@@ -43,4 +44,12 @@ public class ArticleContent {
     public void setBackgroundArticles(List<ArticleSummary> backgroundArticles) {
         this.backgroundArticles = backgroundArticles;
     }
+
+    public ArticleNeighbours getNeighbours() {
+        return neighbours;
+    }
+
+    public void setNeighbours(ArticleNeighbours neighbours) {
+        this.neighbours = neighbours;
+    }
 }
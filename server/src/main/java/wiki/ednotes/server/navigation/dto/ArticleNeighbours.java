@@ -0,0 +1,34 @@
+package wiki.ednotes.server.navigation.dto;
+
+/**
+ * DTO with the published articles just before and after an article in its
+ * category. Either side is null at the ends of the category.
+ */
+public class ArticleNeighbours {
+    private ArticleSummary previous;
+    private ArticleSummary next;
+
+    public ArticleNeighbours() {
+    }
+
+    public ArticleNeighbours(ArticleSummary previous, ArticleSummary next) {
+        this.previous = previous;
+        this.next = next;
+    }
+
+    public ArticleSummary getPrevious() {
+        return previous;
+    }
+
+    public void setPrevious(ArticleSummary previous) {
+        this.previous = previous;
+    }
+
+    public ArticleSummary getNext() {
+        return next;
+    }
+
+    public void setNext(ArticleSummary next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,73 @@
+package wiki.ednotes.server.navigation.dto;
+
+import java.util.List;
+
+/**
+ * DTO for the first screen of an article: its metadata, the headings of all
+ * sections, and the blocks of the first section only. The remaining sections
+ * are loaded by position range. The previous and next articles in reading
+ * order are attached per response, so cached outlines carry none.
+ */
+public class ArticleOutline {
+    private final Long id;
+    private final String title;
+    private final Long categoryId;
+    private final boolean published;
+    private final List<SectionHeading> sections;
+    private final SectionContent first;
+    private final ArticleNeighbours neighbours;
+
+    public ArticleOutline(Long id, String title, Long categoryId, boolean published,
+            List<SectionHeading> sections, SectionContent first) {
+        this(id, title, categoryId, published, sections, first, null);
+    }
+
+    public ArticleOutline(Long id, String title, Long categoryId, boolean published,
+            List<SectionHeading> sections, SectionContent first, ArticleNeighbours neighbours) {
+        this.id = id;
+        this.title = title;
+        this.categoryId = categoryId;
+        this.published = published;
+        this.sections = sections;
+        this.first = first;
+        this.neighbours = neighbours;
+    }
+
+    /**
+     * Copy of this outline with the given neighbours.
+     */
+    public ArticleOutline withNeighbours(ArticleNeighbours neighbours) {
+        return new ArticleOutline(id, title, categoryId, published, sections, first, neighbours);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public boolean getPublished() {
+        return published;
+    }
+
+    public List<SectionHeading> getSections() {
+        return sections;
+    }
+
+    /**
+     * The section at position 0, or null for an empty article.
+     */
+    public SectionContent getFirst() {
+        return first;
+    }
+
+    public ArticleNeighbours getNeighbours() {
+        return neighbours;
+    }
+}
@@ -0,0 +1,68 @@
+package wiki.ednotes.server.navigation.dto;
+
+import java.util.List;
+
+/**
+ * DTO with everything an article page needs in one response. Optional parts
+ * that failed or timed out are null and listed in {@code missing}, so the
+ * client can fetch them separately.
+ */
+public class ArticlePage {
+    private ArticleBody article;
+    private List<CategorySummary> breadcrumbs;
+    private List<SidebarNode> tree;
+    private List<ArticleSummary> backgroundArticles;
+    private ArticleNeighbours neighbours;
+    private List<String> missing;
+
+    public ArticlePage() {
+    }
+
+    public ArticleBody getArticle() {
+        return article;
+    }
+
+    public void setArticle(ArticleBody article) {
+        this.article = article;
+    }
+
+    public List<CategorySummary> getBreadcrumbs() {
+        return breadcrumbs;
+    }
+
+    public void setBreadcrumbs(List<CategorySummary> breadcrumbs) {
+        this.breadcrumbs = breadcrumbs;
+    }
+
+    public List<SidebarNode> getTree() {
+        return tree;
+    }
+
+    public void setTree(List<SidebarNode> tree) {
+        this.tree = tree;
+    }
+
+    public List<ArticleSummary> getBackgroundArticles() {
+        return backgroundArticles;
+    }
+
+    public void setBackgroundArticles(List<ArticleSummary> backgroundArticles) {
+        this.backgroundArticles = backgroundArticles;
+    }
+
+    public ArticleNeighbours getNeighbours() {
+        return neighbours;
+    }
+
+    public void setNeighbours(ArticleNeighbours neighbours) {
+        this.neighbours = neighbours;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<String> missing) {
+        this.missing = missing;
+    }
+}
@@ -4,7 +4,7 @@ public class ArticleSummary {
     private Long id;
     private String title;
     private boolean published;
-
+    private long views;
 
     public ArticleSummary() {
     }
@@ -31,6 +31,14 @@ public class ArticleSummary {
         this.published = published;
     }
 
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+
     public String getTitle() {
         return title;
     }
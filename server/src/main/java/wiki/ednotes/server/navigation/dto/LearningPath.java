@@ -0,0 +1,37 @@
+package wiki.ednotes.server.navigation.dto;
+
+import java.util.List;
+
+/**
+ * DTO for a reading order: every published article of a topic or category,
+ * prerequisites first. Articles caught in prerequisite cycles come last, and
+ * each cycle is reported as the list of article IDs it contains.
+ */
+public class LearningPath {
+    private List<ArticleSummary> articles;
+    private List<List<Long>> cycles;
+
+    public LearningPath() {
+    }
+
+    public LearningPath(List<ArticleSummary> articles, List<List<Long>> cycles) {
+        this.articles = articles;
+        this.cycles = cycles;
+    }
+
+    public List<ArticleSummary> getArticles() {
+        return articles;
+    }
+
+    public void setArticles(List<ArticleSummary> articles) {
+        this.articles = articles;
+    }
+
+    public List<List<Long>> getCycles() {
+        return cycles;
+    }
+
+    public void setCycles(List<List<Long>> cycles) {
+        this.cycles = cycles;
+    }
+}
@@ -0,0 +1,34 @@
+package wiki.ednotes.server.navigation.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a string that already holds JSON as that JSON. Text generators get
+ * it verbatim; binary generators (CBOR, Smile) cannot take raw text, so the
+ * JSON is re-encoded token by token without building a tree.
+ */
+public class RawJsonSerializer extends StdSerializer<String> {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    public RawJsonSerializer() {
+        super(String.class);
+    }
+
+    @Override
+    public void serialize(String value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (!gen.canWriteBinaryNatively()) {
+            gen.writeRawValue(value);
+            return;
+        }
+        try (JsonParser parser = JSON.createParser(value)) {
+            parser.nextToken();
+            gen.copyCurrentStructure(parser);
+        }
+    }
+}
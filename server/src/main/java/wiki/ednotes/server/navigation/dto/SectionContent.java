@@ -0,0 +1,38 @@
+package wiki.ednotes.server.navigation.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * DTO for one section of an article: its heading and its blocks, written
+ * verbatim like {@link ArticleBody#getContent()}.
+ */
+public class SectionContent {
+    private final int position;
+    private final String title;
+    private final Integer level;
+    private final String blocks;
+
+    public SectionContent(int position, String title, Integer level, String blocks) {
+        this.position = position;
+        this.title = title;
+        this.level = level;
+        this.blocks = blocks;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Integer getLevel() {
+        return level;
+    }
+
+    @JsonSerialize(using = RawJsonSerializer.class)
+    public String getBlocks() {
+        return blocks;
+    }
+}
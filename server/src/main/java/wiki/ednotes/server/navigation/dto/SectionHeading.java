@@ -0,0 +1,29 @@
+package wiki.ednotes.server.navigation.dto;
+
+/**
+ * DTO for one entry of an article outline. Title and level are null for the
+ * untitled section before the first header.
+ */
+public class SectionHeading {
+    private final int position;
+    private final String title;
+    private final Integer level;
+
+    public SectionHeading(int position, String title, Integer level) {
+        this.position = position;
+        this.title = title;
+        this.level = level;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Integer getLevel() {
+        return level;
+    }
+}
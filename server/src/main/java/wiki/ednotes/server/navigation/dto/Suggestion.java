@@ -0,0 +1,53 @@
+package wiki.ednotes.server.navigation.dto;
+
+/**
+ * DTO for a title suggestion: an article or a category matching a typed prefix.
+ */
+public class Suggestion {
+    private String type;
+    private Long id;
+    private String title;
+    private Long topicId;
+
+    public Suggestion() {
+    }
+
+    public Suggestion(String type, Long id, String title, Long topicId) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.topicId = topicId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Long getTopicId() {
+        return topicId;
+    }
+
+    public void setTopicId(Long topicId) {
+        this.topicId = topicId;
+    }
+}
@@ -0,0 +1,171 @@
+package wiki.ednotes.server.page;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import wiki.ednotes.server.article.ArticleRepository;
+import wiki.ednotes.server.article.ArticleTreeRow;
+import wiki.ednotes.server.cache.LoadTimeoutException;
+import wiki.ednotes.server.cache.ReaderCache;
+import wiki.ednotes.server.cache.SingleFlight;
+import wiki.ednotes.server.config.ReplicaRouting;
+import wiki.ednotes.server.navigation.NavigationService;
+import wiki.ednotes.server.navigation.dto.ArticleContent;
+import wiki.ednotes.server.navigation.dto.ArticleNeighbours;
+import wiki.ednotes.server.navigation.dto.ArticlePage;
+import wiki.ednotes.server.navigation.dto.CategorySummary;
+import wiki.ednotes.server.navigation.dto.SidebarNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Assembles an article page from its parts in parallel.
+ * <p>
+ * After one indexed lookup for the article's category, the article (with its
+ * background articles), its breadcrumbs, the topic tree and its neighbours are
+ * loaded at the same time, each on its own virtual thread, so the page takes
+ * as long as its slowest part rather than the sum. The parts share one
+ * deadline. A part that misses it, or fails, is reported as missing instead
+ * of failing the page; only the article itself is required.
+ * <p>
+ * The forks live in a per-request executor that is shut down once the page is
+ * assembled, so it takes no new work. Late parts are not interrupted:
+ * interrupting a virtual thread blocked in socket I/O closes the socket,
+ * which would cost a pooled database connection. They finish in the
+ * background, bounded by the {@link wiki.ednotes.server.cache.ReadLimiter},
+ * and their results can still warm the caches.
+ */
+@Service
+public class ArticlePageService {
+    private static final Logger log = LoggerFactory.getLogger(ArticlePageService.class);
+    private static final ThreadFactory PARTS = Thread.ofVirtual().name("page-part-", 0).factory();
+
+    private final ArticleRepository articleRepository;
+    private final NavigationService navigationService;
+    private final ReaderCache readerCache;
+    private final SingleFlight singleFlight;
+    private final MeterRegistry meterRegistry;
+    private final long partTimeoutMillis;
+
+    /**
+     * Constructor for ArticlePageService.
+     * @param partTimeoutMillis deadline for all parts, from the start of the fan-out
+     */
+    public ArticlePageService(ArticleRepository articleRepository,
+            NavigationService navigationService,
+            ReaderCache readerCache,
+            SingleFlight singleFlight,
+            MeterRegistry meterRegistry,
+            @Value("${ednotes.pages.part-timeout:2000}") long partTimeoutMillis) {
+        this.articleRepository = articleRepository;
+        this.navigationService = navigationService;
+        this.readerCache = readerCache;
+        this.singleFlight = singleFlight;
+        this.meterRegistry = meterRegistry;
+        this.partTimeoutMillis = partTimeoutMillis;
+    }
+
+    /**
+     * Get everything an article page needs.
+     *
+     * @param id the article ID
+     * @return the page, or empty if the article does not exist
+     * @throws LoadTimeoutException if the article itself could not be loaded in time
+     */
+    public Optional<ArticlePage> getArticlePage(Long id) {
+        Optional<ArticleTreeRow> row = articleRepository.findByIdIn(List.of(id), ArticleTreeRow.class).stream()
+                .findFirst();
+        if (row.isEmpty()) {
+            return Optional.empty();
+        }
+        Long categoryId = row.get().getCategoryId();
+
+        ExecutorService scope = Executors.newThreadPerTaskExecutor(PARTS);
+        try {
+            // Forks inherit the caller's read-your-writes pinning.
+            boolean primary = ReplicaRouting.isPrimaryForced();
+            Future<Optional<ArticleContent>> article = fork(scope, primary, "article",
+                    () -> readerCache.article(id));
+            Future<List<CategorySummary>> breadcrumbs = fork(scope, primary, "breadcrumbs",
+                    () -> categoryId == null ? List.of()
+                            : singleFlight.load("path", categoryId, () -> navigationService.getBreadcrumbs(categoryId)));
+            Future<List<SidebarNode>> tree = fork(scope, primary, "tree",
+                    () -> categoryId == null ? List.of()
+                            : navigationService.getTopicId(categoryId).map(readerCache::tree).orElse(List.of()));
+            Future<ArticleNeighbours> neighbours = fork(scope, primary, "neighbours",
+                    () -> singleFlight.load("neighbours", id, () -> navigationService.getNeighbours(id)));
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(partTimeoutMillis);
+            List<String> missing = new ArrayList<>();
+            Optional<ArticleContent> content = join(article, "article", deadline, missing);
+            if (content == null) {
+                throw new LoadTimeoutException("Could not load article " + id + " for its page");
+            }
+            if (content.isEmpty()) {
+                return Optional.empty();
+            }
+            ArticlePage page = new ArticlePage();
+            page.setArticle(content.get().getArticle());
+            page.setBreadcrumbs(join(breadcrumbs, "breadcrumbs", deadline, missing));
+            page.setTree(join(tree, "tree", deadline, missing));
+            page.setBackgroundArticles(content.get().getBackgroundArticles());
+            page.setNeighbours(join(neighbours, "neighbours", deadline, missing));
+            page.setMissing(missing);
+            return Optional.of(page);
+        } finally {
+            scope.shutdown();
+        }
+    }
+
+    private <T> Future<T> fork(ExecutorService scope, boolean primary, String part, Callable<T> task) {
+        Timer timer = meterRegistry.timer("ednotes.pages.part", "part", part);
+        return scope.submit(() -> {
+            if (primary) {
+                ReplicaRouting.forcePrimary();
+            }
+            long start = System.nanoTime();
+            try {
+                return task.call();
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                ReplicaRouting.clear();
+            }
+        });
+    }
+
+    /**
+     * Wait for a part until the shared deadline.
+     *
+     * @return the part's value, or null if it failed or ran out of time
+     */
+    private <T> T join(Future<T> future, String part, long deadline, List<String> missing) {
+        String reason;
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            reason = "timeout";
+        } catch (ExecutionException e) {
+            log.debug("Page part {} failed: {}", part, e.getCause().getMessage());
+            reason = "error";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reason = "interrupted";
+        }
+        meterRegistry.counter("ednotes.pages.part.missing", "part", part, "reason", reason).increment();
+        missing.add(part);
+        return null;
+    }
+}
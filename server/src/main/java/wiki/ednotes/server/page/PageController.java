@@ -0,0 +1,61 @@
+package wiki.ednotes.server.page;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import wiki.ednotes.server.article.ArticleController;
+import wiki.ednotes.server.article.ArticleViewCounter;
+import wiki.ednotes.server.cache.HotContentTracker;
+import wiki.ednotes.server.navigation.dto.ArticlePage;
+import wiki.ednotes.server.startup.StartupWarmup;
+
+/**
+ * Controller for composite page payloads (reader API).
+ */
+@RestController
+@RequestMapping("/api/pages")
+public class PageController {
+    private final ArticlePageService articlePageService;
+    private final HotContentTracker hotContent;
+    private final ArticleViewCounter viewCounter;
+
+    /**
+     * Constructor for PageController.
+     * @param articlePageService assembles article pages
+     * @param hotContent tracker of the most read articles
+     * @param viewCounter write-behind view counter
+     */
+    public PageController(ArticlePageService articlePageService, HotContentTracker hotContent,
+            ArticleViewCounter viewCounter) {
+        this.articlePageService = articlePageService;
+        this.hotContent = hotContent;
+        this.viewCounter = viewCounter;
+    }
+
+    /**
+     * Get an article with its breadcrumbs, topic tree, background articles and
+     * neighbours in one response.
+     * @param id the ID of the article
+     * @param warmup set on startup warm-up requests, which are not counted
+     * @param purpose set by browsers on speculative prefetches, which are not counted either
+     * @return ArticlePage; parts that could not be loaded are listed in missing
+     */
+    @GetMapping("/article/{id}")
+    public ResponseEntity<ArticlePage> getArticlePage(@PathVariable Long id,
+            @RequestHeader(name = StartupWarmup.WARMUP_HEADER, defaultValue = "false") boolean warmup,
+            @RequestHeader(name = ArticleController.PURPOSE_HEADER, required = false) String purpose) {
+        boolean counted = !warmup && !ArticleController.isPrefetch(purpose);
+        return articlePageService.getArticlePage(id)
+                .map(page -> {
+                    if (counted) {
+                        hotContent.recordArticle(id);
+                        viewCounter.record(id);
+                    }
+                    return ResponseEntity.ok(page);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,6 +1,10 @@
 package wiki.ednotes.server.project;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.List;
 
 @Entity
 @Table(name = "projects")
@@ -24,10 +28,14 @@ public class Project {
     @Column(name = "tech_stack")
     private String techStack;
 
+    @Column(name = "tags")
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private List<String> tags;
+
     @Column(name = "article_id")
     private Long articleId;
 
-    @Column(name = "order")
+    @Column(name = "\"order\"")
     private Long order;
 
     public Long getId() {
@@ -78,6 +86,14 @@ public class Project {
         this.techStack = techStack;
     }
 
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
     public Long getArticleId() {
         return articleId;
     }
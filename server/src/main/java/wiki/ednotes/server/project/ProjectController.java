@@ -1,6 +1,9 @@
 package wiki.ednotes.server.project;
 
 import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -24,7 +27,37 @@ public class ProjectController {
      * @return list of all projects
      */
     @GetMapping
-    public List<Project> getAllProjects() {
+    public List<ProjectSummary> getAllProjects() {
         return projectService.findAll();
     }
+
+    /**
+     * Get a page of projects filtered by tech stack.
+     * @param all comma-separated tags every project must have (e.g. java,postgres)
+     * @param any comma-separated tags of which a project must have one (e.g. react,vue)
+     * @param page zero-based page number
+     * @param size page size (at most 100)
+     * @return ProjectPage with the matching projects in display order
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<ProjectPage> filterProjects(
+            @RequestParam(required = false) String all,
+            @RequestParam(required = false) String any,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(projectService.filter(all, any, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get every tech-stack tag with its number of projects.
+     * @return map of tag to project count
+     */
+    @GetMapping("/tags")
+    public Map<String, Integer> getTags() {
+        return projectService.tagCounts();
+    }
 }
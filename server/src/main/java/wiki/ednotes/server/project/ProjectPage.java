@@ -0,0 +1,55 @@
+package wiki.ednotes.server.project;
+
+import java.util.List;
+
+/**
+ * DTO with one page of filtered projects and the total number of matches.
+ */
+public class ProjectPage {
+    private List<ProjectSummary> projects;
+    private int total;
+    private int page;
+    private int size;
+
+    public ProjectPage() {
+    }
+
+    public ProjectPage(List<ProjectSummary> projects, int total, int page, int size) {
+        this.projects = projects;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+    }
+
+    public List<ProjectSummary> getProjects() {
+        return projects;
+    }
+
+    public void setProjects(List<ProjectSummary> projects) {
+        this.projects = projects;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -2,8 +2,10 @@ package wiki.ednotes.server.project;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import wiki.ednotes.server.change.ChangePublisher;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -12,21 +14,52 @@ import java.util.Optional;
 @Service
 public class ProjectService {
     private final ProjectRepository projectRepository;
+    private final ChangePublisher changePublisher;
+    private final ProjectTagIndex tagIndex;
 
     /**
      * Constructor for ProjectService.
      * @param projectRepository the project repository
+     * @param changePublisher the change event publisher
+     * @param tagIndex in-memory index of projects by tag
      */
-    public ProjectService(ProjectRepository projectRepository) {
+    public ProjectService(ProjectRepository projectRepository, ChangePublisher changePublisher,
+            ProjectTagIndex tagIndex) {
         this.projectRepository = projectRepository;
+        this.changePublisher = changePublisher;
+        this.tagIndex = tagIndex;
     }
 
     /**
      * Get all projects ordered by order field.
      * @return list of projects
      */
-    public List<Project> findAll() {
-        return projectRepository.findAllByOrderByOrderAsc();
+    public List<ProjectSummary> findAll() {
+        return tagIndex.all();
+    }
+
+    /**
+     * Get a page of projects filtered by tech-stack tags.
+     * @param all comma-separated tags every project must have
+     * @param any comma-separated tags of which a project must have one
+     * @param page zero-based page number
+     * @param size page size
+     * @return the page of projects in display order
+     * @throws IllegalArgumentException if the page or size is out of range
+     */
+    public ProjectPage filter(String all, String any, int page, int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and 100");
+        }
+        return tagIndex.filter(ProjectTags.terms(all), ProjectTags.terms(any), page, size);
+    }
+
+    /**
+     * Get every tech-stack tag with its number of projects.
+     * @return tag counts, alphabetically
+     */
+    public Map<String, Integer> tagCounts() {
+        return tagIndex.tagCounts();
     }
 
     /**
@@ -34,6 +67,7 @@ public class ProjectService {
      * @param id the project ID
      * @return the project if found
      */
+    @Transactional(readOnly = true)
     public Optional<Project> findById(Long id) {
         return projectRepository.findById(id);
     }
@@ -45,7 +79,10 @@ public class ProjectService {
      */
     @Transactional
     public Project create(Project project) {
-        return projectRepository.save(project);
+        project.setTags(ProjectTags.normalize(project.getTechStack()));
+        Project created = projectRepository.save(project);
+        changePublisher.projectChanged(created.getId(), false);
+        return created;
     }
 
     /**
@@ -59,6 +96,7 @@ public class ProjectService {
             return false;
         }
         projectRepository.deleteById(id);
+        changePublisher.projectChanged(id, true);
         return true;
     }
 }
@@ -0,0 +1,118 @@
+package wiki.ednotes.server.project;
+
+import java.util.List;
+
+/**
+ * DTO for a project as shown to readers, copied from the entity when the tag
+ * index loads so cached lists never hand out managed entities.
+ */
+public class ProjectSummary {
+    private Long id;
+    private String name;
+    private String description;
+    private String githubUrl;
+    private String demoUrl;
+    private String techStack;
+    private List<String> tags;
+    private Long articleId;
+    private Long order;
+
+    public ProjectSummary() {
+    }
+
+    public ProjectSummary(Long id, String name, String description, String githubUrl, String demoUrl,
+            String techStack, List<String> tags, Long articleId, Long order) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.githubUrl = githubUrl;
+        this.demoUrl = demoUrl;
+        this.techStack = techStack;
+        this.tags = tags;
+        this.articleId = articleId;
+        this.order = order;
+    }
+
+    /**
+     * Copy a project, normalizing the tech stack of rows saved before tags existed.
+     */
+    static ProjectSummary of(Project project) {
+        List<String> tags = project.getTags() != null ? List.copyOf(project.getTags())
+                : ProjectTags.normalize(project.getTechStack());
+        return new ProjectSummary(project.getId(), project.getName(), project.getDescription(),
+                project.getGithubUrl(), project.getDemoUrl(), project.getTechStack(), tags,
+                project.getArticleId(), project.getOrder());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getGithubUrl() {
+        return githubUrl;
+    }
+
+    public void setGithubUrl(String githubUrl) {
+        this.githubUrl = githubUrl;
+    }
+
+    public String getDemoUrl() {
+        return demoUrl;
+    }
+
+    public void setDemoUrl(String demoUrl) {
+        this.demoUrl = demoUrl;
+    }
+
+    public String getTechStack() {
+        return techStack;
+    }
+
+    public void setTechStack(String techStack) {
+        this.techStack = techStack;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public void setArticleId(Long articleId) {
+        this.articleId = articleId;
+    }
+
+    public Long getOrder() {
+        return order;
+    }
+
+    public void setOrder(Long order) {
+        this.order = order;
+    }
+}
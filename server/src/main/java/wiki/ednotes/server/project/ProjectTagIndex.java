@@ -0,0 +1,179 @@
+package wiki.ednotes.server.project;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import wiki.ednotes.server.change.ChangeEvent;
+import wiki.ednotes.server.change.EntityType;
+import wiki.ednotes.server.config.ReplicaRouting;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index from tech-stack tag to projects.
+ * <p>
+ * Projects are held in display order and each tag maps to a bitset of
+ * positions, so "all of" filters are bitset intersections and "any of"
+ * filters are unions. Filter results are cached per normalized query. The
+ * whole snapshot, cache included, is replaced after any project change.
+ */
+@Component
+public class ProjectTagIndex {
+    private final ProjectRepository projectRepository;
+    private final int cacheSize;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructor for ProjectTagIndex.
+     * @param cacheSize number of distinct filter results to keep
+     */
+    public ProjectTagIndex(ProjectRepository projectRepository,
+            @Value("${ednotes.projects.filter-cache-size:256}") int cacheSize) {
+        this.projectRepository = projectRepository;
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Get every project in display order.
+     */
+    public List<ProjectSummary> all() {
+        return snapshot().projects;
+    }
+
+    /**
+     * Get a page of the projects matching a filter, in display order.
+     * @param all tags every project must have
+     * @param any tags of which a project must have at least one (ignored if empty)
+     * @param page zero-based page number
+     * @param size page size
+     */
+    public ProjectPage filter(List<String> all, List<String> any, int page, int size) {
+        Snapshot current = snapshot();
+        String key = key(all, any);
+        int[] matches = current.results.get(key);
+        if (matches == null) {
+            matches = current.match(all, any);
+            if (current.results.size() >= cacheSize) {
+                current.results.clear();
+            }
+            current.results.put(key, matches);
+        }
+        int from = (int) Math.min((long) page * size, matches.length);
+        int to = Math.min(from + size, matches.length);
+        ProjectSummary[] projects = new ProjectSummary[to - from];
+        for (int i = from; i < to; i++) {
+            projects[i - from] = current.projects.get(matches[i]);
+        }
+        return new ProjectPage(List.of(projects), matches.length, page, size);
+    }
+
+    /**
+     * Get every tag with the number of projects using it, alphabetically.
+     */
+    public Map<String, Integer> tagCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        snapshot().tags.forEach((tag, bits) -> counts.put(tag, bits.cardinality()));
+        return counts;
+    }
+
+    /**
+     * Drop the snapshot once a project change has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (event.getType() == EntityType.PROJECT) {
+            version.incrementAndGet();
+            snapshot = null;
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    long loadedVersion = version.get();
+                    current = load();
+                    // A change that lands during the load leaves the snapshot
+                    // unset, so the next request loads again.
+                    if (version.get() == loadedVersion) {
+                        snapshot = current;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Build the snapshot from the primary, so a change that just committed is
+     * not missed through replica lag.
+     */
+    private Snapshot load() {
+        return ReplicaRouting.onPrimary(() -> {
+            List<ProjectSummary> projects = new ArrayList<>();
+            Map<String, BitSet> tags = new HashMap<>();
+            for (Project project : projectRepository.findAllByOrderByOrderAsc()) {
+                ProjectSummary summary = ProjectSummary.of(project);
+                for (String tag : summary.getTags()) {
+                    tags.computeIfAbsent(tag, k -> new BitSet()).set(projects.size());
+                }
+                projects.add(summary);
+            }
+            return new Snapshot(List.copyOf(projects), tags);
+        });
+    }
+
+    /**
+     * Cache key of a filter. Terms are sorted, since their order does not
+     * change the result.
+     */
+    static String key(List<String> all, List<String> any) {
+        return String.join(",", all.stream().sorted().toList()) + "|"
+                + String.join(",", any.stream().sorted().toList());
+    }
+
+    private static final class Snapshot {
+        private final List<ProjectSummary> projects;
+        private final Map<String, BitSet> tags;
+        private final Map<String, int[]> results = new ConcurrentHashMap<>();
+
+        private Snapshot(List<ProjectSummary> projects, Map<String, BitSet> tags) {
+            this.projects = projects;
+            this.tags = tags;
+        }
+
+        private int[] match(List<String> all, List<String> any) {
+            BitSet bits = new BitSet(projects.size());
+            bits.set(0, projects.size());
+            for (String tag : all) {
+                BitSet tagged = tags.get(tag);
+                if (tagged == null) {
+                    return new int[0];
+                }
+                bits.and(tagged);
+            }
+            if (!any.isEmpty()) {
+                BitSet union = new BitSet(projects.size());
+                for (String tag : any) {
+                    BitSet tagged = tags.get(tag);
+                    if (tagged != null) {
+                        union.or(tagged);
+                    }
+                }
+                bits.and(union);
+            }
+            return bits.stream().toArray();
+        }
+    }
+}
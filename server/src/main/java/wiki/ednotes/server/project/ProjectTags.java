@@ -0,0 +1,68 @@
+package wiki.ednotes.server.project;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes free-form tech stacks ("Spring Boot, PostgreSQL / React.js")
+ * into tags ("spring-boot", "postgres", "react"). Filter terms go through the
+ * same normalization, so they match however the stack was written.
+ */
+final class ProjectTags {
+    private static final Pattern SEPARATORS = Pattern.compile("[,;|/+\\n]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Map<String, String> ALIASES = Map.ofEntries(
+            Map.entry("postgresql", "postgres"),
+            Map.entry("js", "javascript"),
+            Map.entry("ts", "typescript"),
+            Map.entry("golang", "go"),
+            Map.entry("react.js", "react"),
+            Map.entry("reactjs", "react"),
+            Map.entry("vue.js", "vue"),
+            Map.entry("vuejs", "vue"),
+            Map.entry("node.js", "node"),
+            Map.entry("nodejs", "node"),
+            Map.entry("next.js", "nextjs"),
+            Map.entry("springboot", "spring-boot"),
+            Map.entry("k8s", "kubernetes"));
+
+    private ProjectTags() {
+    }
+
+    /**
+     * Split a tech stack into distinct tags, in the order they were written.
+     */
+    static List<String> normalize(String techStack) {
+        if (techStack == null || techStack.isBlank()) {
+            return List.of();
+        }
+        Set<String> tags = new LinkedHashSet<>();
+        for (String part : SEPARATORS.split(techStack)) {
+            String tag = tag(part);
+            if (!tag.isEmpty()) {
+                tags.add(tag);
+            }
+        }
+        return List.copyOf(tags);
+    }
+
+    /**
+     * Normalize a comma-separated list of filter terms.
+     */
+    static List<String> terms(String csv) {
+        if (csv == null || csv.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(csv.split(",")).map(ProjectTags::tag).filter(t -> !t.isEmpty()).distinct().toList();
+    }
+
+    private static String tag(String part) {
+        String tag = SPACES.matcher(part.trim().toLowerCase(Locale.ROOT)).replaceAll("-");
+        return ALIASES.getOrDefault(tag, tag);
+    }
+}
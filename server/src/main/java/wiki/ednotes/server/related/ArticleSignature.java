@@ -0,0 +1,45 @@
+package wiki.ednotes.server.related;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Entity representing the MinHash signature of an article's text, with the
+ * hash of the content it was computed from so unchanged articles are skipped.
+ */
+@Entity
+@Table(name = "ArticleSignatures")
+public class ArticleSignature {
+    @Id
+    @Column(name = "article_id")
+    private Long articleId;
+
+    @Column(name = "content_hash", nullable = false)
+    private String contentHash;
+
+    /** Packed big-endian ints; null when the article has no indexable text. */
+    @Column(name = "minhash")
+    private byte[] minhash;
+
+    protected ArticleSignature() {}
+
+    public ArticleSignature(Long articleId, String contentHash, byte[] minhash) {
+        this.articleId = articleId;
+        this.contentHash = contentHash;
+        this.minhash = minhash;
+    }
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public byte[] getMinhash() {
+        return minhash;
+    }
+}
@@ -0,0 +1,6 @@
+package wiki.ednotes.server.related;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ArticleSignatureRepository extends JpaRepository<ArticleSignature, Long> {
+}
@@ -0,0 +1,149 @@
+package wiki.ednotes.server.related;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.ByteBuffer;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+
+/**
+ * MinHash signatures over the word sets of articles, with LSH banding.
+ * Two signatures agree in a position with probability equal to the Jaccard
+ * similarity of the word sets, and share a band with high probability only
+ * when that similarity is high.
+ */
+final class MinHash {
+    static final int SIZE = 128;
+    static final int BANDS = 32;
+    private static final int ROWS = SIZE / BANDS;
+    private static final long[] SEEDS = new SplittableRandom(0x5EED_2024L).longs(SIZE).toArray();
+
+    private static final Set<String> TEXT_FIELDS = Set.of("content", "caption", "label", "description", "items");
+    private static final Set<String> SKIPPED_BLOCKS = Set.of("code", "equation");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORDS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "can", "for", "from", "has", "have", "if", "in",
+            "into", "is", "it", "its", "of", "on", "or", "that", "the", "then", "this", "to", "was", "we",
+            "which", "with", "you", "your");
+
+    private MinHash() {
+    }
+
+    /**
+     * The distinct words of an article: its title plus the text of its
+     * blocks, skipping code and equations.
+     */
+    static Set<String> words(ObjectMapper objectMapper, String title, String content) {
+        StringBuilder text = new StringBuilder(title == null ? "" : title);
+        if (content != null && !content.isBlank()) {
+            try {
+                collectText(objectMapper.readTree(content), text);
+            } catch (Exception e) {
+                text.append(' ').append(content);
+            }
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> words = new HashSet<>();
+        for (String word : WORDS.split(normalized)) {
+            if (word.length() > 1 && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @return the signature, or null for an empty word set
+     */
+    static int[] signature(Set<String> words) {
+        if (words.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String word : words) {
+            long base = word.hashCode() * 0x9E3779B97F4A7C15L + word.length();
+            for (int i = 0; i < SIZE; i++) {
+                signature[i] = Math.min(signature[i], (int) (mix(base ^ SEEDS[i]) >>> 33));
+            }
+        }
+        return signature;
+    }
+
+    static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / SIZE;
+    }
+
+    /**
+     * One bucket key per band; signatures sharing a key are candidate pairs.
+     */
+    static long[] bandKeys(int[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            int hash = Arrays.hashCode(Arrays.copyOfRange(signature, band * ROWS, (band + 1) * ROWS));
+            keys[band] = ((long) band << 32) | (hash & 0xFFFFFFFFL);
+        }
+        return keys;
+    }
+
+    static byte[] pack(int[] signature) {
+        if (signature == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    static int[] unpack(byte[] packed) {
+        if (packed == null || packed.length != SIZE * Integer.BYTES) {
+            return null;
+        }
+        int[] signature = new int[SIZE];
+        ByteBuffer.wrap(packed).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    private static void collectText(JsonNode node, StringBuilder text) {
+        if (node.isObject()) {
+            if (SKIPPED_BLOCKS.contains(node.path("type").asText())) {
+                return;
+            }
+            node.properties().forEach(field -> {
+                JsonNode value = field.getValue();
+                if (value.isTextual() && TEXT_FIELDS.contains(field.getKey())) {
+                    text.append(' ').append(value.asText());
+                } else if (value.isArray() && "items".equals(field.getKey())) {
+                    value.forEach(item -> text.append(' ').append(item.asText()));
+                } else if (value.isContainerNode()) {
+                    collectText(value, text);
+                }
+            });
+        } else if (node.isArray()) {
+            node.forEach(child -> collectText(child, text));
+        }
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,42 @@
+package wiki.ednotes.server.related;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+/**
+ * Entity representing one precomputed neighbour of an article.
+ */
+@Entity
+@Table(name = "RelatedArticles")
+public class RelatedArticle {
+    @EmbeddedId
+    private RelatedArticleId id;
+
+    @Column(name = "score", nullable = false)
+    private double score;
+
+    @Column(name = "rank", nullable = false)
+    private int rank;
+
+    protected RelatedArticle() {}
+
+    public RelatedArticle(Long articleId, Long relatedId, double score, int rank) {
+        this.id = new RelatedArticleId(articleId, relatedId);
+        this.score = score;
+        this.rank = rank;
+    }
+
+    public RelatedArticleId getId() {
+        return id;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+}
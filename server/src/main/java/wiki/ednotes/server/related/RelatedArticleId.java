@@ -0,0 +1,51 @@
+package wiki.ednotes.server.related;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Composite identifier for RelatedArticle.
+ */
+@Embeddable
+public class RelatedArticleId implements Serializable {
+    @Column(name = "article_id", nullable = false)
+    private Long articleId;
+
+    @Column(name = "related_id", nullable = false)
+    private Long relatedId;
+
+    protected RelatedArticleId() {}
+
+    public RelatedArticleId(Long articleId, Long relatedId) {
+        this.articleId = articleId;
+        this.relatedId = relatedId;
+    }
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public Long getRelatedId() {
+        return relatedId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RelatedArticleId that = (RelatedArticleId) o;
+        return Objects.equals(articleId, that.articleId) && Objects.equals(relatedId, that.relatedId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(articleId, relatedId);
+    }
+}
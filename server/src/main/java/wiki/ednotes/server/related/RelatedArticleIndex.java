@@ -0,0 +1,409 @@
+package wiki.ednotes.server.related;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import wiki.ednotes.server.article.Article;
+import wiki.ednotes.server.article.ArticleConnection;
+import wiki.ednotes.server.article.ArticleConnectionRepository;
+import wiki.ednotes.server.article.ArticleRepository;
+import wiki.ednotes.server.article.ArticleTreeRow;
+import wiki.ednotes.server.change.ChangeEvent;
+import wiki.ednotes.server.change.EntityType;
+import wiki.ednotes.server.config.ReplicaRouting;
+import wiki.ednotes.server.navigation.dto.ArticleSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed "related articles" for every article.
+ * <p>
+ * Text similarity is estimated from MinHash signatures of each article's
+ * words, with LSH banding to find candidates without comparing every pair.
+ * It is blended with proximity in the connection graph (direct connections
+ * score 1, two hops 0.5). The top neighbours are stored in RelatedArticles
+ * and held in memory, so serving them is a map lookup.
+ * <p>
+ * Changed articles are collected from committed change events and processed
+ * in batches. Only their signatures are recomputed, and only the articles
+ * whose neighbour lists they can affect are re-ranked. A nightly full run
+ * catches anything missed; it still skips the signatures of unchanged
+ * content. Signature and ranking work runs in parallel across cores.
+ * <p>
+ * Category changes can unpublish or delete whole subtrees, so they queue a
+ * full run. Until it has run, lookups are filtered against the published
+ * articles, which are refreshed as soon as a change commits.
+ */
+@Component
+public class RelatedArticleIndex {
+    private static final Logger log = LoggerFactory.getLogger(RelatedArticleIndex.class);
+    private static final long WRITE_LOCK_KEY = 0x4544_4E4F_5445_5302L;
+
+    private final ArticleRepository articleRepository;
+    private final ArticleConnectionRepository connectionRepository;
+    private final ArticleSignatureRepository signatureRepository;
+    private final RelatedArticleRepository relatedArticleRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int count;
+    private final double textWeight;
+    private final double minScore;
+
+    private final Map<Long, int[]> signatures = new ConcurrentHashMap<>();
+    private final Map<Long, String> contentHashes = new ConcurrentHashMap<>();
+    private final Map<Long, List<ArticleSummary>> neighbours = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean fullPending = new AtomicBoolean();
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("related-articles").daemon(true).factory());
+    private volatile Set<Long> publishedIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    /**
+     * Constructor for RelatedArticleIndex.
+     * @param count neighbours kept per article
+     * @param textWeight weight of text similarity against graph proximity
+     * @param minScore blended score below which a neighbour is dropped
+     */
+    public RelatedArticleIndex(ArticleRepository articleRepository,
+            ArticleConnectionRepository connectionRepository,
+            ArticleSignatureRepository signatureRepository,
+            RelatedArticleRepository relatedArticleRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${ednotes.related.count:5}") int count,
+            @Value("${ednotes.related.text-weight:0.7}") double textWeight,
+            @Value("${ednotes.related.min-score:0.1}") double minScore) {
+        this.articleRepository = articleRepository;
+        this.connectionRepository = connectionRepository;
+        this.signatureRepository = signatureRepository;
+        this.relatedArticleRepository = relatedArticleRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.count = count;
+        this.textWeight = textWeight;
+        this.minScore = minScore;
+    }
+
+    /**
+     * Get the related articles of an article.
+     * @param articleId the article ID
+     * @return the published neighbours, best first (empty until the index has
+     *         loaded, or if the article is not published)
+     */
+    public List<ArticleSummary> related(Long articleId) {
+        Set<Long> published = publishedIds;
+        if (!published.contains(articleId)) {
+            return List.of();
+        }
+        return neighbours.getOrDefault(articleId, List.of()).stream()
+                .filter(summary -> published.contains(summary.getId()))
+                .toList();
+    }
+
+    /**
+     * Queue articles whose content or connections changed, and a full run for
+     * category changes. The published articles are refreshed right away.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (event.getType() == EntityType.ARTICLE || event.getType() == EntityType.CONNECTION) {
+            dirty.add(event.getId());
+        }
+        if (!loaded) {
+            return;
+        }
+        if (event.getType() == EntityType.ARTICLE) {
+            updater.execute(() -> update(() -> refreshPublished(event.getId())));
+        } else if (event.getType() == EntityType.CATEGORY) {
+            fullPending.set(true);
+            updater.execute(() -> update(this::refreshPublished));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updater.shutdownNow();
+    }
+
+    /**
+     * Load the stored index on the first run, then process queued changes.
+     */
+    @Scheduled(fixedDelayString = "${ednotes.related.interval:60000}",
+            initialDelayString = "${ednotes.related.initial-delay:30000}")
+    public void update() {
+        update(() -> {
+            if (!loaded) {
+                load();
+            } else if (fullPending.getAndSet(false)) {
+                recompute(Set.of(), true);
+            } else if (!dirty.isEmpty()) {
+                Set<Long> changed = new HashSet<>(dirty);
+                dirty.removeAll(changed);
+                recompute(changed, false);
+            }
+        });
+    }
+
+    /**
+     * Recompute the neighbours of every article.
+     */
+    @Scheduled(cron = "${ednotes.related.full-cron:0 45 3 * * *}")
+    public void rebuildScheduled() {
+        update(this::rebuild);
+    }
+
+    /**
+     * Recompute the neighbours of every article, reading from the primary.
+     * @return the number of articles ranked
+     */
+    public synchronized int rebuild() {
+        return ReplicaRouting.onPrimary(() -> {
+            if (!loaded) {
+                load();
+            }
+            return recompute(Set.of(), true);
+        });
+    }
+
+    private synchronized void load() {
+        for (ArticleSignature signature : signatureRepository.findAll()) {
+            contentHashes.put(signature.getArticleId(), signature.getContentHash());
+            int[] minhash = MinHash.unpack(signature.getMinhash());
+            if (minhash != null) {
+                signatures.put(signature.getArticleId(), minhash);
+            }
+        }
+        Map<Long, ArticleTreeRow> published = publishedArticles();
+        Map<Long, List<ArticleSummary>> stored = new HashMap<>();
+        for (RelatedArticle row : relatedArticleRepository.findAllByOrderByIdArticleIdAscRankAsc()) {
+            ArticleTreeRow related = published.get(row.getId().getRelatedId());
+            if (related != null) {
+                stored.computeIfAbsent(row.getId().getArticleId(), id -> new ArrayList<>())
+                        .add(new ArticleSummary(related.getId(), related.getTitle(), true));
+            }
+        }
+        neighbours.putAll(stored);
+        publishedIds = idsOf(published);
+        loaded = true;
+        log.info("Loaded {} article signatures and neighbours for {} articles", contentHashes.size(), stored.size());
+        if (contentHashes.isEmpty()) {
+            recompute(Set.of(), true);
+        }
+    }
+
+    private synchronized int recompute(Set<Long> changed, boolean full) {
+        long start = System.nanoTime();
+        Map<Long, ArticleTreeRow> published = publishedArticles();
+
+        // 1. Signatures of changed content, in parallel.
+        List<Article> articles = full ? articleRepository.findAll() : articleRepository.findAllById(changed);
+        Set<Long> existing = articles.stream().map(Article::getId).collect(Collectors.toSet());
+        Set<Long> removed = new HashSet<>(full ? contentHashes.keySet() : changed);
+        removed.removeAll(existing);
+        List<ArticleSignature> updated = articles.parallelStream()
+                .map(article -> {
+                    String hash = contentHash(article);
+                    if (hash.equals(contentHashes.get(article.getId()))) {
+                        return null;
+                    }
+                    int[] signature = MinHash.signature(
+                            MinHash.words(objectMapper, article.getTitle(), article.getContent()));
+                    return new ArticleSignature(article.getId(), hash, MinHash.pack(signature));
+                })
+                .filter(Objects::nonNull)
+                .toList();
+        for (ArticleSignature signature : updated) {
+            contentHashes.put(signature.getArticleId(), signature.getContentHash());
+            int[] minhash = MinHash.unpack(signature.getMinhash());
+            if (minhash != null) {
+                signatures.put(signature.getArticleId(), minhash);
+            } else {
+                signatures.remove(signature.getArticleId());
+            }
+        }
+        removed.forEach(id -> {
+            contentHashes.remove(id);
+            signatures.remove(id);
+        });
+
+        // 2. Candidate structures: LSH buckets and the undirected connection graph.
+        Map<Long, List<Long>> buckets = new HashMap<>();
+        signatures.forEach((id, signature) -> {
+            for (long key : MinHash.bandKeys(signature)) {
+                buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+            }
+        });
+        Map<Long, Set<Long>> graph = new HashMap<>();
+        for (ArticleConnection connection : connectionRepository.findAll()) {
+            graph.computeIfAbsent(connection.getSourceId(), id -> new HashSet<>()).add(connection.getTargetId());
+            graph.computeIfAbsent(connection.getTargetId(), id -> new HashSet<>()).add(connection.getSourceId());
+        }
+
+        // 3. Articles whose neighbour lists can change.
+        Set<Long> targets = new HashSet<>();
+        if (full) {
+            targets.addAll(existing);
+        } else {
+            neighbours.forEach((id, list) -> {
+                if (list.stream().anyMatch(summary -> changed.contains(summary.getId()))) {
+                    targets.add(id);
+                }
+            });
+            for (Long id : changed) {
+                targets.addAll(candidates(id, buckets, graph));
+            }
+            targets.addAll(changed);
+            Set<Long> known = new HashSet<>(contentHashes.keySet());
+            known.addAll(published.keySet());
+            targets.retainAll(known);
+        }
+        targets.removeAll(removed);
+
+        // 4. Rank, in parallel.
+        Map<Long, List<Neighbour>> ranked = targets.parallelStream()
+                .collect(Collectors.toConcurrentMap(Function.identity(),
+                        id -> rank(id, candidates(id, buckets, graph), graph, published)));
+
+        // 5. Store and publish.
+        transactionTemplate.executeWithoutResult(status -> {
+            relatedArticleRepository.lockForWrite(WRITE_LOCK_KEY);
+            if (!removed.isEmpty()) {
+                signatureRepository.deleteAllByIdInBatch(removed);
+            }
+            signatureRepository.saveAll(updated);
+            Set<Long> cleared = new HashSet<>(ranked.keySet());
+            cleared.addAll(removed);
+            if (!cleared.isEmpty()) {
+                relatedArticleRepository.deleteByArticleIds(cleared);
+            }
+            List<RelatedArticle> rows = new ArrayList<>();
+            ranked.forEach((id, list) -> {
+                for (int i = 0; i < list.size(); i++) {
+                    rows.add(new RelatedArticle(id, list.get(i).id(), list.get(i).score(), i));
+                }
+            });
+            relatedArticleRepository.saveAll(rows);
+        });
+        removed.forEach(neighbours::remove);
+        publishedIds = idsOf(published);
+        ranked.forEach((id, list) -> neighbours.put(id, list.stream()
+                .map(neighbour -> new ArticleSummary(neighbour.id(),
+                        published.get(neighbour.id()).getTitle(), true))
+                .toList()));
+        log.debug("Related articles: {} signatures updated, {} articles ranked in {} ms",
+                updated.size(), ranked.size(), (System.nanoTime() - start) / 1_000_000);
+        return ranked.size();
+    }
+
+    private Set<Long> candidates(Long id, Map<Long, List<Long>> buckets, Map<Long, Set<Long>> graph) {
+        Set<Long> candidates = new HashSet<>();
+        int[] signature = signatures.get(id);
+        if (signature != null) {
+            for (long key : MinHash.bandKeys(signature)) {
+                candidates.addAll(buckets.getOrDefault(key, List.of()));
+            }
+        }
+        for (Long direct : graph.getOrDefault(id, Set.of())) {
+            candidates.add(direct);
+            candidates.addAll(graph.getOrDefault(direct, Set.of()));
+        }
+        candidates.remove(id);
+        return candidates;
+    }
+
+    private List<Neighbour> rank(Long id, Collection<Long> candidates, Map<Long, Set<Long>> graph,
+            Map<Long, ArticleTreeRow> published) {
+        int[] signature = signatures.get(id);
+        Set<Long> direct = graph.getOrDefault(id, Set.of());
+        List<Neighbour> scored = new ArrayList<>();
+        for (Long candidate : candidates) {
+            if (!published.containsKey(candidate)) {
+                continue;
+            }
+            int[] other = signatures.get(candidate);
+            double text = signature != null && other != null ? MinHash.similarity(signature, other) : 0;
+            double proximity = direct.contains(candidate) ? 1.0
+                    : direct.stream().anyMatch(d -> graph.getOrDefault(d, Set.of()).contains(candidate)) ? 0.5 : 0;
+            double score = textWeight * text + (1 - textWeight) * proximity;
+            if (score >= minScore) {
+                scored.add(new Neighbour(candidate, score));
+            }
+        }
+        scored.sort(Comparator.comparingDouble(Neighbour::score).reversed().thenComparing(Neighbour::id));
+        return scored.size() > count ? List.copyOf(scored.subList(0, count)) : scored;
+    }
+
+    private Map<Long, ArticleTreeRow> publishedArticles() {
+        return articleRepository.findByPublishedIsTrue(ArticleTreeRow.class).stream()
+                .collect(Collectors.toMap(ArticleTreeRow::getId, Function.identity()));
+    }
+
+    private void refreshPublished() {
+        publishedIds = idsOf(publishedArticles());
+    }
+
+    private void refreshPublished(Long articleId) {
+        boolean published = articleRepository.findByIdIn(List.of(articleId), ArticleTreeRow.class).stream()
+                .anyMatch(row -> Boolean.TRUE.equals(row.getPublished()));
+        if (published) {
+            publishedIds.add(articleId);
+        } else {
+            publishedIds.remove(articleId);
+        }
+    }
+
+    private static Set<Long> idsOf(Map<Long, ArticleTreeRow> published) {
+        Set<Long> ids = ConcurrentHashMap.newKeySet(published.size());
+        ids.addAll(published.keySet());
+        return ids;
+    }
+
+    private static String contentHash(Article article) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(article.getTitle()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(article.getContent()).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void update(Runnable task) {
+        try {
+            ReplicaRouting.onPrimary(task);
+        } catch (RuntimeException e) {
+            log.warn("Could not update related articles: {}", e.getMessage());
+        }
+    }
+
+    private record Neighbour(Long id, double score) {
+    }
+}
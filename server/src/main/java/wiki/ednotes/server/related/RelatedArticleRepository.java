@@ -0,0 +1,23 @@
+package wiki.ednotes.server.related;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RelatedArticleRepository extends JpaRepository<RelatedArticle, RelatedArticleId> {
+    List<RelatedArticle> findAllByOrderByIdArticleIdAscRankAsc();
+
+    /**
+     * Serialise writers across instances for the rest of the transaction.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    Integer lockForWrite(@Param("key") long key);
+
+    @Modifying
+    @Query(value = "DELETE FROM related_articles WHERE article_id IN (:ids)", nativeQuery = true)
+    int deleteByArticleIds(@Param("ids") Collection<Long> ids);
+}
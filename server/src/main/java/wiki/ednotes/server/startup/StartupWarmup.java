@@ -0,0 +1,155 @@
+package wiki.ednotes.server.startup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import wiki.ednotes.server.cache.ReaderCache;
+import wiki.ednotes.server.category.Category;
+import wiki.ednotes.server.category.CategoryRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the reader endpoints before the instance reports ready.
+ * <p>
+ * The reader caches are first filled from the persisted hot set. Application
+ * runners finish before Spring Boot flips readiness to ACCEPTING_TRAFFIC, so
+ * requests issued here then get the hot paths through class loading and JIT
+ * before real traffic arrives.
+ * Startup time and first-request latency are logged and exported as metrics.
+ */
+@Component
+public class StartupWarmup implements ApplicationRunner {
+    /**
+     * Marks warm-up requests so they are not counted as reader traffic.
+     */
+    public static final String WARMUP_HEADER = "X-Ednotes-Warmup";
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private final ApplicationContext context;
+    private final CategoryRepository categoryRepository;
+    private final RestClient.Builder restClientBuilder;
+    private final ReaderCache readerCache;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int iterations;
+    private final int articleSamples;
+
+    /**
+     * Constructor for StartupWarmup.
+     */
+    public StartupWarmup(ApplicationContext context,
+            CategoryRepository categoryRepository,
+            RestClient.Builder restClientBuilder,
+            ReaderCache readerCache,
+            MeterRegistry meterRegistry,
+            @Value("${ednotes.warmup.enabled:true}") boolean enabled,
+            @Value("${ednotes.warmup.iterations:3}") int iterations,
+            @Value("${ednotes.warmup.article-samples:10}") int articleSamples) {
+        this.context = context;
+        this.categoryRepository = categoryRepository;
+        this.restClientBuilder = restClientBuilder;
+        this.readerCache = readerCache;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.articleSamples = articleSamples;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long startupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        meterRegistry.timer("ednotes.startup.time").record(startupMillis, TimeUnit.MILLISECONDS);
+        log.info("Started in {} ms (JVM uptime)", startupMillis);
+
+        if (!enabled || !(context instanceof WebServerApplicationContext webContext)) {
+            return;
+        }
+        try {
+            readerCache.warmFromPersisted();
+        } catch (RuntimeException e) {
+            log.warn("Could not pre-warm caches from the persisted hot set: {}", e.getMessage());
+        }
+        RestClient client = restClientBuilder
+                .baseUrl("http://localhost:" + webContext.getWebServer().getPort())
+                .defaultHeader(WARMUP_HEADER, "true")
+                .build();
+
+        long start = System.nanoTime();
+        List<HotPath> paths = hotPaths(client);
+        long firstPass = 0;
+        long lastPass = 0;
+        for (int i = 0; i < iterations; i++) {
+            long pass = 0;
+            for (HotPath path : paths) {
+                long elapsed = call(client, path.uri());
+                pass += elapsed;
+                if (i == 0) {
+                    Timer.builder("ednotes.warmup.first.request")
+                            .tag("uri", path.template())
+                            .register(meterRegistry)
+                            .record(elapsed, TimeUnit.NANOSECONDS);
+                }
+            }
+            if (i == 0) {
+                firstPass = pass;
+            }
+            lastPass = pass;
+        }
+        Duration total = Duration.ofNanos(System.nanoTime() - start);
+        meterRegistry.timer("ednotes.warmup.time").record(total);
+        log.info("Warm-up of {} endpoints took {} ms: first pass {} ms, last pass {} ms",
+                paths.size(), total.toMillis(),
+                TimeUnit.NANOSECONDS.toMillis(firstPass), TimeUnit.NANOSECONDS.toMillis(lastPass));
+    }
+
+    private List<HotPath> hotPaths(RestClient client) {
+        List<HotPath> paths = new ArrayList<>();
+        paths.add(new HotPath("/api/navigation/roots", "/api/navigation/roots"));
+        paths.add(new HotPath("/api/navigation/search", "/api/navigation/search"));
+        paths.add(new HotPath("/api/navigation/suggest", "/api/navigation/suggest?q=a"));
+        paths.add(new HotPath("/api/projects", "/api/projects"));
+        try {
+            for (Category topic : categoryRepository.findByTopicIsTrueAndTopicIdIsNullAndPublishedIsTrueOrderByOrderAsc()) {
+                paths.add(new HotPath("/api/navigation/tree/{topicId}", "/api/navigation/tree/" + topic.getId()));
+            }
+            JsonNode articles = client.get().uri("/api/navigation/search").retrieve().body(JsonNode.class);
+            if (articles != null) {
+                for (int i = 0; i < Math.min(articleSamples, articles.size()); i++) {
+                    paths.add(new HotPath("/api/articles/{id}", "/api/articles/" + articles.get(i).path("id").asLong()));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not discover warm-up targets: {}", e.getMessage());
+        }
+        return paths;
+    }
+
+    private long call(RestClient client, String uri) {
+        long start = System.nanoTime();
+        try {
+            client.get().uri(uri).retrieve().toBodilessEntity();
+        } catch (RestClientException e) {
+            log.debug("Warm-up request to {} failed: {}", uri, e.getMessage());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private record HotPath(String template, String uri) {
+    }
+}
@@ -0,0 +1,39 @@
+-- Original schema: the category tree, articles, their connections and projects.
+-- Every statement is idempotent so the migration also runs cleanly against a
+-- database created before Flyway managed the schema.
+
+CREATE TABLE IF NOT EXISTS categories (
+    id        int8    GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title     text    NOT NULL,
+    parent_id int8    REFERENCES categories (id),
+    published bool    NOT NULL DEFAULT false,
+    "order"   int8,
+    topic     bool    NOT NULL DEFAULT false,
+    topic_id  int8    REFERENCES categories (id)
+);
+
+CREATE TABLE IF NOT EXISTS articles (
+    id          int8  GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title       text  NOT NULL,
+    content     jsonb NOT NULL DEFAULT '[]',
+    category_id int8  REFERENCES categories (id),
+    published   bool  DEFAULT false,
+    "order"     int8
+);
+
+CREATE TABLE IF NOT EXISTS article_connections (
+    source_id int8 NOT NULL REFERENCES articles (id) ON DELETE CASCADE,
+    target_id int8 NOT NULL REFERENCES articles (id) ON DELETE CASCADE,
+    PRIMARY KEY (source_id, target_id)
+);
+
+CREATE TABLE IF NOT EXISTS projects (
+    id          int8 GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        text NOT NULL,
+    description text,
+    github_url  text,
+    demo_url    text,
+    tech_stack  text,
+    article_id  int8 REFERENCES articles (id) ON DELETE SET NULL,
+    "order"     int8
+);
@@ -0,0 +1,67 @@
+-- Tables added for the reader: the category closure, change log, hot content
+-- snapshot, view counts, related articles, assets and project tags.
+
+CREATE TABLE IF NOT EXISTS category_closures (
+    ancestor_id   int8 NOT NULL REFERENCES categories (id) ON DELETE CASCADE,
+    descendant_id int8 NOT NULL REFERENCES categories (id) ON DELETE CASCADE,
+    depth         int4 NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+CREATE INDEX IF NOT EXISTS category_closures_descendant_idx ON category_closures (descendant_id, ancestor_id);
+
+-- Backfill the closure of an existing tree; a no-op once rows exist.
+INSERT INTO category_closures (ancestor_id, descendant_id, depth)
+WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0 FROM categories
+    UNION ALL
+    SELECT p.ancestor_id, c.id, p.depth + 1
+    FROM paths p JOIN categories c ON c.parent_id = p.descendant_id
+)
+SELECT ancestor_id, descendant_id, depth FROM paths
+WHERE NOT EXISTS (SELECT 1 FROM category_closures);
+
+CREATE TABLE IF NOT EXISTS change_log (
+    id          int8        GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity_type text        NOT NULL,
+    entity_id   int8        NOT NULL,
+    topic_id    int8,
+    deleted     bool        NOT NULL DEFAULT false,
+    changed_at  timestamptz NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS change_log_entity_idx ON change_log (entity_type, entity_id, id);
+CREATE INDEX IF NOT EXISTS change_log_changed_at_idx ON change_log (changed_at);
+
+CREATE TABLE IF NOT EXISTS hot_content (
+    kind      text NOT NULL,
+    entity_id int8 NOT NULL,
+    score     int8 NOT NULL,
+    PRIMARY KEY (kind, entity_id)
+);
+
+CREATE TABLE IF NOT EXISTS article_views (
+    article_id int8 PRIMARY KEY REFERENCES articles (id) ON DELETE CASCADE,
+    views      int8 NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS article_signatures (
+    article_id   int8 PRIMARY KEY REFERENCES articles (id) ON DELETE CASCADE,
+    content_hash text NOT NULL,
+    minhash      bytea
+);
+
+CREATE TABLE IF NOT EXISTS related_articles (
+    article_id int8   NOT NULL REFERENCES articles (id) ON DELETE CASCADE,
+    related_id int8   NOT NULL REFERENCES articles (id) ON DELETE CASCADE,
+    score      float8 NOT NULL,
+    rank       int4   NOT NULL,
+    PRIMARY KEY (article_id, related_id)
+);
+
+CREATE TABLE IF NOT EXISTS assets (
+    hash         text        PRIMARY KEY,
+    content_type text        NOT NULL,
+    size         int8        NOT NULL,
+    created_at   timestamptz NOT NULL DEFAULT now()
+);
+
+ALTER TABLE projects ADD COLUMN IF NOT EXISTS tags text[];
@@ -0,0 +1,56 @@
+-- Indexes for the reader's hot paths. Each one names the repository queries it
+-- serves; PlanRegressionTest fails if one of those falls back to a sequential
+-- scan on a seeded database.
+
+-- ArticleRepository.findByCategoryIdOrderByOrderAsc, findTreeRowsByTopic and
+-- findTreeRowsBySubtree: rows come back in display order, and the tree row
+-- columns are included so the tree queries need not touch the heap.
+CREATE INDEX IF NOT EXISTS articles_category_order_idx
+    ON articles (category_id, "order") INCLUDE (id, title, published);
+
+-- ArticleRepository.findByCategoryIdInAndPublishedIsTrueOrderByOrderAsc
+-- (GraphQL category articles).
+CREATE INDEX IF NOT EXISTS articles_published_category_order_idx
+    ON articles (category_id, "order") INCLUDE (id, title) WHERE published;
+
+-- CategoryRepository.findByParentIdOrderByOrderAsc and the child lists of the
+-- editor tree.
+CREATE INDEX IF NOT EXISTS categories_parent_order_idx
+    ON categories (parent_id, "order");
+
+-- CategoryRepository.findByParentIdAndPublishedIsTrueOrderByOrderAsc and
+-- findByParentIdInAndPublishedIsTrueOrderByOrderAsc (reader roots and children).
+CREATE INDEX IF NOT EXISTS categories_published_parent_order_idx
+    ON categories (parent_id, "order") WHERE published;
+
+-- CategoryRepository.findTopicCategories and ArticleRepository.findTreeRowsByTopic
+-- (the id = :topicId side is the primary key).
+CREATE INDEX IF NOT EXISTS categories_topic_order_idx
+    ON categories (topic_id, "order");
+
+-- CategoryRepository.findByTopicIsTrueAndTopicIdIsNullAndPublishedIsTrueOrderByOrderAsc.
+CREATE INDEX IF NOT EXISTS categories_published_topics_idx
+    ON categories ("order") WHERE topic AND topic_id IS NULL AND published;
+
+-- ArticleConnectionRepository.findByIdTargetId and findByIdTargetIdIn
+-- (dependents), and the cascade when a target article is deleted. The source
+-- side is the primary key.
+CREATE INDEX IF NOT EXISTS article_connections_target_idx
+    ON article_connections (target_id, source_id);
+
+-- RelatedArticleRepository.findAllByOrderByIdArticleIdAscRankAsc, read per
+-- article in rank order.
+CREATE INDEX IF NOT EXISTS related_articles_article_rank_idx
+    ON related_articles (article_id, rank);
+
+-- The cascade from Articles on the related side.
+CREATE INDEX IF NOT EXISTS related_articles_related_idx
+    ON related_articles (related_id);
+
+-- ProjectRepository.findAllByOrderByOrderAsc.
+CREATE INDEX IF NOT EXISTS projects_order_idx
+    ON projects ("order");
+
+-- HotContentRepository.findByIdKindOrderByScoreDesc.
+CREATE INDEX IF NOT EXISTS hot_content_kind_score_idx
+    ON hot_content (kind, score DESC);
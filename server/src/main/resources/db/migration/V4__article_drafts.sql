@@ -0,0 +1,11 @@
+-- Editor drafts, kept apart from the article row until they are published.
+-- saved_at is when the server received the draft, so a flush never replaces
+-- a newer draft written by another instance.
+
+CREATE TABLE IF NOT EXISTS article_drafts (
+    article_id  int8        PRIMARY KEY REFERENCES articles (id) ON DELETE CASCADE,
+    title       text        NOT NULL,
+    content     jsonb       NOT NULL DEFAULT '[]',
+    category_id int8,
+    saved_at    timestamptz NOT NULL
+);
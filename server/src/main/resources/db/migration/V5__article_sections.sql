@@ -0,0 +1,33 @@
+-- Article content split into sections at header blocks, so readers can load
+-- an outline and the first section before the rest. Section 0 holds the
+-- blocks before the first header, when there are any. Rewritten on every
+-- article save (ArticleSectionRepository.indexSections).
+
+CREATE TABLE IF NOT EXISTS article_sections (
+    article_id int8  NOT NULL REFERENCES articles (id) ON DELETE CASCADE,
+    position   int4  NOT NULL,
+    title      text,
+    level      int4,
+    blocks     jsonb NOT NULL,
+    PRIMARY KEY (article_id, position)
+);
+
+-- Backfill existing articles; a no-op once rows exist.
+INSERT INTO article_sections (article_id, position, title, level, blocks)
+SELECT a.id,
+       row_number() OVER (PARTITION BY a.id ORDER BY s.section) - 1,
+       CASE WHEN s.head ->> 'type' = 'header' THEN s.head ->> 'content' END,
+       CASE WHEN s.head ->> 'type' = 'header' THEN CAST(s.head ->> 'level' AS int4) END,
+       s.blocks
+FROM articles a
+CROSS JOIN LATERAL (
+    SELECT b.section, (array_agg(b.block ORDER BY b.n))[1] AS head, jsonb_agg(b.block ORDER BY b.n) AS blocks
+    FROM (
+        SELECT e.block, e.n,
+               count(*) FILTER (WHERE e.block ->> 'type' = 'header') OVER (ORDER BY e.n) AS section
+        FROM jsonb_array_elements(CASE WHEN jsonb_typeof(a.content) = 'array' THEN a.content ELSE '[]' END)
+             WITH ORDINALITY AS e (block, n)
+    ) b
+    GROUP BY b.section
+) s
+WHERE NOT EXISTS (SELECT 1 FROM article_sections);
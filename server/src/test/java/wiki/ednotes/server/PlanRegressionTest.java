@@ -0,0 +1,452 @@
+package wiki.ednotes.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import wiki.ednotes.server.article.ArticleConnectionRepository;
+import wiki.ednotes.server.article.ArticleDraftRepository;
+import wiki.ednotes.server.article.ArticleRepository;
+import wiki.ednotes.server.article.ArticleSectionRepository;
+import wiki.ednotes.server.article.ArticleTreeRow;
+import wiki.ednotes.server.article.ArticleViewRepository;
+import wiki.ednotes.server.category.CategoryClosureRepository;
+import wiki.ednotes.server.category.CategoryRepository;
+import wiki.ednotes.server.change.ChangeLogRepository;
+import wiki.ednotes.server.related.RelatedArticleRepository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query plan regression test for the repository queries.
+ * <p>
+ * Runs only when {@code EDNOTES_PLAN_TEST_URL} (with
+ * {@code EDNOTES_PLAN_TEST_USERNAME} and {@code EDNOTES_PLAN_TEST_PASSWORD})
+ * points at a Postgres database; the server workflow sets it. The migrations
+ * are applied to a throwaway schema, which is seeded with a wiki large enough
+ * that the planner prefers an index wherever one fits, and the application is
+ * started on that schema. Each case calls a repository method, and every
+ * statement it sends is EXPLAINed with its bound parameters, on the same
+ * connection, just before it runs. A sequential scan on a table with more
+ * than {@link #SEQ_SCAN_ROWS} rows fails its case. The calls share one
+ * transaction that is rolled back, so writes leave the seed untouched.
+ * <p>
+ * Queries that read a whole table by design (graph and index loads, the
+ * closure rebuild) are left out. A new repository query should get a case.
+ */
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=false",
+		"ednotes.invalidation.enabled=false",
+		"ednotes.warmup.enabled=false",
+		"ednotes.related.initial-delay=3600000"
+})
+@Transactional
+@EnabledIfEnvironmentVariable(named = "EDNOTES_PLAN_TEST_URL", matches = ".+")
+class PlanRegressionTest {
+	private static final long SEQ_SCAN_ROWS = 1000;
+	private static final String SCHEMA = "plan_regression_" + ProcessHandle.current().pid();
+
+	private static Connection connection;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+	@Autowired
+	private CategoryClosureRepository closureRepository;
+	@Autowired
+	private ArticleRepository articleRepository;
+	@Autowired
+	private ArticleConnectionRepository connectionRepository;
+	@Autowired
+	private ArticleViewRepository viewRepository;
+	@Autowired
+	private ArticleDraftRepository draftRepository;
+	@Autowired
+	private ArticleSectionRepository sectionRepository;
+	@Autowired
+	private RelatedArticleRepository relatedRepository;
+	@Autowired
+	private ChangeLogRepository changeLogRepository;
+
+	@DynamicPropertySource
+	static void dataSource(DynamicPropertyRegistry registry) {
+		String url = System.getenv("EDNOTES_PLAN_TEST_URL");
+		registry.add("spring.datasource.url", () -> url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA);
+		registry.add("spring.datasource.username", () -> System.getenv("EDNOTES_PLAN_TEST_USERNAME"));
+		registry.add("spring.datasource.password", () -> System.getenv("EDNOTES_PLAN_TEST_PASSWORD"));
+	}
+
+	@BeforeAll
+	static void migrateAndSeed() throws SQLException {
+		String url = System.getenv("EDNOTES_PLAN_TEST_URL");
+		String username = System.getenv("EDNOTES_PLAN_TEST_USERNAME");
+		String password = System.getenv("EDNOTES_PLAN_TEST_PASSWORD");
+		Flyway.configure()
+				.dataSource(url, username, password)
+				.schemas(SCHEMA)
+				.defaultSchema(SCHEMA)
+				.load()
+				.migrate();
+		connection = DriverManager.getConnection(url, username, password);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("SET search_path TO " + SCHEMA);
+			statement.execute(SEED);
+			// Sample every row so the plans do not vary between runs, and set the
+			// visibility map as autovacuum would, so index-only scans are costed as such.
+			statement.execute("SET default_statistics_target = 10000");
+			statement.execute("VACUUM ANALYZE");
+		}
+	}
+
+	@AfterAll
+	static void dropSchema() throws SQLException {
+		if (connection == null) {
+			return;
+		}
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+		} finally {
+			connection.close();
+		}
+	}
+
+	@TestFactory
+	Stream<DynamicTest> repositoryQueriesAvoidSequentialScans() throws Exception {
+		Map<String, List<JsonNode>> plans = plans();
+		Map<String, Long> rows = tableRows();
+		return plans.entrySet().stream()
+				.map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+					assertFalse(query.getValue().isEmpty(), () -> query.getKey() + " sent no statement");
+					List<String> scans = new ArrayList<>();
+					query.getValue().forEach(plan -> collectSequentialScans(plan, rows, scans));
+					assertTrue(scans.isEmpty(), () -> query.getKey() + " scans " + scans);
+				}));
+	}
+
+	/**
+	 * Call every repository query and collect the plans of the statements it
+	 * sent. Writes come last, since they change the rows later reads see.
+	 */
+	private Map<String, List<JsonNode>> plans() throws Exception {
+		Map<String, List<JsonNode>> plans = new LinkedHashMap<>();
+
+		plans.put("CategoryRepository.findByParentIdOrderByOrderAsc",
+				PlanCapture.capture(() -> categoryRepository.findByParentIdOrderByOrderAsc(60L)));
+		plans.put("CategoryRepository.findByParentIdAndPublishedIsTrueOrderByOrderAsc",
+				PlanCapture.capture(() -> categoryRepository.findByParentIdAndPublishedIsTrueOrderByOrderAsc(60L)));
+		plans.put("CategoryRepository.findByParentIdAndPublishedIsTrueOrderByOrderAsc (roots)",
+				PlanCapture.capture(() -> categoryRepository.findByParentIdAndPublishedIsTrueOrderByOrderAsc(null)));
+		plans.put("CategoryRepository.findByTopicIsTrueAndTopicIdIsNullAndPublishedIsTrueOrderByOrderAsc",
+				PlanCapture.capture(categoryRepository::findByTopicIsTrueAndTopicIdIsNullAndPublishedIsTrueOrderByOrderAsc));
+		plans.put("CategoryRepository.findByParentIdInAndPublishedIsTrueOrderByOrderAsc",
+				PlanCapture.capture(() -> categoryRepository.findByParentIdInAndPublishedIsTrueOrderByOrderAsc(
+						List.of(60L, 61L, 62L))));
+		plans.put("CategoryRepository.findTopicCategories",
+				PlanCapture.capture(() -> categoryRepository.findTopicCategories(3L)));
+		plans.put("CategoryRepository.findSubtree",
+				PlanCapture.capture(() -> categoryRepository.findSubtree(60L)));
+
+		plans.put("CategoryClosureRepository.findSubtreeIds",
+				PlanCapture.capture(() -> closureRepository.findSubtreeIds(60L)));
+		plans.put("CategoryClosureRepository.findAncestorRows",
+				PlanCapture.capture(() -> closureRepository.findAncestorRows(List.of(15000L, 15001L, 15002L))));
+		plans.put("CategoryClosureRepository.isAncestorOrSelf",
+				PlanCapture.capture(() -> closureRepository.isAncestorOrSelf(60L, 15000L)));
+		plans.put("CategoryClosureRepository.countDescendantCategories",
+				PlanCapture.capture(() -> closureRepository.countDescendantCategories(60L)));
+		plans.put("CategoryClosureRepository.countSubtreeArticles",
+				PlanCapture.capture(() -> closureRepository.countSubtreeArticles(60L)));
+
+		plans.put("ArticleRepository.findByCategoryIdOrderByOrderAsc",
+				PlanCapture.capture(() -> articleRepository.findByCategoryIdOrderByOrderAsc(60L)));
+		plans.put("ArticleRepository.findByIdIn",
+				PlanCapture.capture(() -> articleRepository.findByIdIn(List.of(10L, 20L, 30L), ArticleTreeRow.class)));
+		plans.put("ArticleRepository.findByCategoryIdInAndPublishedIsTrueOrderByOrderAsc",
+				PlanCapture.capture(() -> articleRepository.findByCategoryIdInAndPublishedIsTrueOrderByOrderAsc(
+						List.of(60L, 61L, 62L), ArticleTreeRow.class)));
+		plans.put("ArticleRepository.findTreeRowsByTopic",
+				PlanCapture.capture(() -> articleRepository.findTreeRowsByTopic(3L)));
+		plans.put("ArticleRepository.findTreeRowsBySubtree",
+				PlanCapture.capture(() -> articleRepository.findTreeRowsBySubtree(60L)));
+
+		plans.put("ArticleConnectionRepository.findByIdSourceId",
+				PlanCapture.capture(() -> connectionRepository.findByIdSourceId(100L)));
+		plans.put("ArticleConnectionRepository.findByIdTargetId",
+				PlanCapture.capture(() -> connectionRepository.findByIdTargetId(100L)));
+		plans.put("ArticleConnectionRepository.findByIdSourceIdIn",
+				PlanCapture.capture(() -> connectionRepository.findByIdSourceIdIn(List.of(100L, 200L, 300L))));
+		plans.put("ArticleConnectionRepository.findByIdTargetIdIn",
+				PlanCapture.capture(() -> connectionRepository.findByIdTargetIdIn(List.of(100L, 200L, 300L))));
+
+		plans.put("ArticleSectionRepository.findHeadings",
+				PlanCapture.capture(() -> sectionRepository.findHeadings(10L)));
+		plans.put("ArticleSectionRepository.findByIdArticleIdAndIdPositionBetweenOrderByIdPositionAsc",
+				PlanCapture.capture(() -> sectionRepository.findByIdArticleIdAndIdPositionBetweenOrderByIdPositionAsc(
+						10L, 1, 2)));
+
+		plans.put("ChangeLogRepository.findWatermark",
+				PlanCapture.capture(changeLogRepository::findWatermark));
+		plans.put("ChangeLogRepository.findCompactedSince",
+				PlanCapture.capture(() -> changeLogRepository.findCompactedSince(49900, 50000)));
+
+		long now = System.currentTimeMillis();
+		plans.put("ArticleViewRepository.addViews",
+				PlanCapture.capture(() -> viewRepository.addViews(new Long[] {10L, 20L}, new Long[] {1L, 2L})));
+		plans.put("ArticleDraftRepository.upsertAll",
+				PlanCapture.capture(() -> draftRepository.upsertAll(new Long[] {10L, 20L}, new String[] {"a", "b"},
+						new String[] {"[]", "[]"}, new Long[] {60L, 61L}, new Long[] {now, now})));
+		plans.put("ArticleDraftRepository.deleteUpTo",
+				PlanCapture.capture(() -> draftRepository.deleteUpTo(10L, Instant.ofEpochMilli(now))));
+		plans.put("ArticleSectionRepository.deleteSections",
+				PlanCapture.capture(() -> sectionRepository.deleteSections(10L)));
+		plans.put("ArticleSectionRepository.indexSections",
+				PlanCapture.capture(() -> sectionRepository.indexSections(10L, "[]")));
+		plans.put("RelatedArticleRepository.deleteByArticleIds",
+				PlanCapture.capture(() -> relatedRepository.deleteByArticleIds(List.of(10L, 20L, 30L))));
+		plans.put("ChangeLogRepository.logSubtree",
+				PlanCapture.capture(() -> changeLogRepository.logSubtree(60L, false)));
+		plans.put("ChangeLogRepository.pruneBefore",
+				PlanCapture.capture(() -> changeLogRepository.pruneBefore(Instant.now().minus(Duration.ofDays(29)))));
+
+		plans.put("CategoryClosureRepository.refreshSubtreeTopicIds",
+				PlanCapture.capture(() -> closureRepository.refreshSubtreeTopicIds(60L)));
+		plans.put("CategoryClosureRepository.publishSubtreeCategories",
+				PlanCapture.capture(() -> closureRepository.publishSubtreeCategories(60L, true)));
+		plans.put("CategoryClosureRepository.publishSubtreeArticles",
+				PlanCapture.capture(() -> closureRepository.publishSubtreeArticles(60L, true)));
+		plans.put("CategoryClosureRepository.detachSubtree",
+				PlanCapture.capture(() -> closureRepository.detachSubtree(60L)));
+		plans.put("CategoryClosureRepository.attachSubtree",
+				PlanCapture.capture(() -> closureRepository.attachSubtree(60L, 61L)));
+		plans.put("CategoryClosureRepository.deleteSubtreeConnections",
+				PlanCapture.capture(() -> closureRepository.deleteSubtreeConnections(60L)));
+		plans.put("CategoryClosureRepository.deleteSubtreeArticles",
+				PlanCapture.capture(() -> closureRepository.deleteSubtreeArticles(60L)));
+
+		// Deleting an article cascades to related_articles.related_id inside
+		// Postgres, so there is no statement to capture for it.
+		plans.put("related_articles (article delete cascade)",
+				List.of(PlanCapture.explain(connection, "DELETE FROM related_articles WHERE related_id = 10", List.of())));
+		return plans;
+	}
+
+	private static void collectSequentialScans(JsonNode node, Map<String, Long> rows, List<String> scans) {
+		if ("Seq Scan".equals(node.path("Node Type").asText())) {
+			String table = node.path("Relation Name").asText();
+			long count = rows.getOrDefault(table, 0L);
+			if (count > SEQ_SCAN_ROWS) {
+				scans.add(table + " (" + count + " rows)");
+			}
+		}
+		for (JsonNode child : node.path("Plans")) {
+			collectSequentialScans(child, rows, scans);
+		}
+	}
+
+	private static Map<String, Long> tableRows() throws SQLException {
+		Map<String, Long> rows = new HashMap<>();
+		try (Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery("""
+						SELECT c.relname, c.reltuples::int8 FROM pg_class c
+						JOIN pg_namespace n ON n.oid = c.relnamespace
+						WHERE n.nspname = current_schema() AND c.relkind = 'r'
+						""")) {
+			while (rs.next()) {
+				rows.put(rs.getString(1), rs.getLong(2));
+			}
+		}
+		return rows;
+	}
+
+	@TestConfiguration
+	static class CaptureConfig {
+		@Bean
+		static BeanPostProcessor explainStatements() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return "dataSource".equals(beanName) ? PlanCapture.wrap((DataSource) bean) : bean;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Wraps the application's data source so that, while a capture is open on
+	 * the calling thread, each prepared statement is EXPLAINed with its bound
+	 * parameters just before it runs. Statements from other threads, such as
+	 * scheduled jobs, are not captured.
+	 */
+	static final class PlanCapture {
+		private static final ThreadLocal<List<JsonNode>> PLANS = new ThreadLocal<>();
+		private static final Set<String> EXECUTE = Set.of(
+				"execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+		private record Bind(Method setter, Object[] args) {
+		}
+
+		static List<JsonNode> capture(Runnable call) {
+			List<JsonNode> plans = new ArrayList<>();
+			PLANS.set(plans);
+			try {
+				call.run();
+			} finally {
+				PLANS.remove();
+			}
+			return plans;
+		}
+
+		static DataSource wrap(DataSource dataSource) {
+			return proxy(DataSource.class, (proxy, method, args) -> {
+				Object result = invoke(dataSource, method, args);
+				return result instanceof Connection connection ? wrap(connection) : result;
+			});
+		}
+
+		private static Connection wrap(Connection connection) {
+			return proxy(Connection.class, (proxy, method, args) -> {
+				Object result = invoke(connection, method, args);
+				if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+					return wrap(statement, connection, (String) args[0]);
+				}
+				return result;
+			});
+		}
+
+		private static PreparedStatement wrap(PreparedStatement statement, Connection connection, String sql) {
+			Map<Integer, Bind> binds = new TreeMap<>();
+			return proxy(PreparedStatement.class, (proxy, method, args) -> {
+				String name = method.getName();
+				if (name.startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer index) {
+					binds.put(index, new Bind(method, args));
+				} else if (name.equals("clearParameters")) {
+					binds.clear();
+				} else if (args == null && EXECUTE.contains(name) && PLANS.get() != null) {
+					PLANS.get().add(explain(connection, sql, binds.values()));
+				}
+				return invoke(statement, method, args);
+			});
+		}
+
+		/**
+		 * EXPLAIN a statement with the given parameters. EXPLAIN without
+		 * ANALYZE does not run the statement.
+		 */
+		static JsonNode explain(Connection connection, String sql, Collection<Bind> binds) throws Exception {
+			try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+				for (Bind bind : binds) {
+					invoke(explain, bind.setter(), bind.args());
+				}
+				try (ResultSet rs = explain.executeQuery()) {
+					rs.next();
+					return new ObjectMapper().readTree(rs.getString(1)).get(0).get("Plan");
+				}
+			}
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Exception {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				if (e.getCause() instanceof Exception cause) {
+					throw cause;
+				}
+				throw e;
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+			return (T) Proxy.newProxyInstance(PlanRegressionTest.class.getClassLoader(), new Class<?>[] {type}, handler);
+		}
+	}
+
+	/**
+	 * 50 topics over a category tree five levels deep (20,000 categories),
+	 * 100,000 articles spread over the categories, up to four connections and
+	 * three related articles per article, and a change log.
+	 */
+	private static final String SEED = """
+			INSERT INTO categories (id, title, parent_id, published, "order", topic, topic_id)
+			SELECT n, 'Topic ' || n, NULL, true, n, true, NULL FROM generate_series(1, 50) n;
+
+			INSERT INTO categories (id, title, parent_id, published, "order", topic, topic_id)
+			SELECT n, 'Category ' || n,
+			       CASE WHEN n <= 550 THEN (n - 51) % 50 + 1 ELSE 51 + (n - 551) / 4 END,
+			       n % 10 <> 0, n, false, NULL
+			FROM generate_series(51, 20050) n;
+
+			INSERT INTO category_closures (ancestor_id, descendant_id, depth)
+			WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+			    SELECT id, id, 0 FROM categories
+			    UNION ALL
+			    SELECT p.ancestor_id, c.id, p.depth + 1
+			    FROM paths p JOIN categories c ON c.parent_id = p.descendant_id
+			)
+			SELECT ancestor_id, descendant_id, depth FROM paths;
+
+			UPDATE categories c SET topic_id = cc.ancestor_id
+			FROM category_closures cc
+			WHERE cc.descendant_id = c.id AND cc.ancestor_id <= 50 AND cc.depth > 0;
+
+			INSERT INTO articles (id, title, content, category_id, published, "order")
+			SELECT n, 'Article ' || n, '[{"type":"paragraph","text":"Lorem ipsum"}]',
+			       51 + n % 20000, n % 7 <> 0, n
+			FROM generate_series(1, 100000) n;
+
+			INSERT INTO article_connections (source_id, target_id)
+			SELECT DISTINCT n, (n::int8 * k * 7919) % 100000 + 1
+			FROM generate_series(1, 100000) n, generate_series(1, 4) k
+			WHERE (n::int8 * k * 7919) % 100000 + 1 <> n;
+
+			INSERT INTO article_sections (article_id, position, title, level, blocks)
+			SELECT n, k, 'Section ' || k, 2, '[{"type":"paragraph","text":"Lorem ipsum"}]'
+			FROM generate_series(1, 100000) n, generate_series(0, 3) k;
+
+			INSERT INTO related_articles (article_id, related_id, score, rank)
+			SELECT n, (n + k * 131) % 100000 + 1, 1.0 / (k + 1), k
+			FROM generate_series(1, 100000) n, generate_series(0, 2) k;
+
+			INSERT INTO change_log (entity_type, entity_id, topic_id, deleted, changed_at)
+			SELECT 'ARTICLE', n % 100000 + 1, n % 50 + 1, false, now() - (50000 - n) * interval '1 minute'
+			FROM generate_series(1, 50000) n;
+
+			INSERT INTO projects (name, tech_stack, tags, article_id, "order")
+			SELECT 'Project ' || n, 'Java, Spring', ARRAY['java', 'spring'], n, n FROM generate_series(1, 20) n;
+			""";
+}
@@ -0,0 +1,203 @@
+package wiki.ednotes.server.article;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import wiki.ednotes.server.change.DraftSignal;
+import wiki.ednotes.server.change.InvalidationBus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Validation of saved drafts, isolation of drafts that fail to flush,
+ * publishing, and handing a buffered draft between nodes.
+ */
+class ArticleDraftBufferTest {
+	private ArticleDraftRepository draftRepository;
+	private ArticleDraftBuffer buffer;
+	private final List<List<Long>> writes = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		draftRepository = mock(ArticleDraftRepository.class);
+		buffer = buffer(draftRepository, mock(InvalidationBus.class));
+	}
+
+	@Test
+	void rejectsContentThatIsNotJson() {
+		assertThrows(IllegalArgumentException.class, () -> buffer.save(1L, draft("[{\"type\":")));
+		assertThrows(IllegalArgumentException.class, () -> buffer.save(1L, draft("[] trailing")));
+		assertThrows(IllegalArgumentException.class, () -> buffer.save(1L, draft("[\"\\u0000\"]")));
+		assertTrue(buffer.find(1L).isEmpty());
+
+		assertTrue(buffer.save(1L, draft("[{\"type\":\"paragraph\"}]")).isPresent());
+	}
+
+	@Test
+	void dropsADraftTheDatabaseRejectsAndWritesTheOthers() {
+		failFor(2L, new DataIntegrityViolationException("invalid input syntax for type json"));
+		buffer.save(1L, draft("[]"));
+		buffer.save(2L, draft("[]"));
+		buffer.save(3L, draft("[]"));
+
+		buffer.shutdown();
+
+		assertEquals(3, writes.get(0).size());
+		assertEquals(List.of(List.of(1L), List.of(2L), List.of(3L)), sorted(writes.subList(1, writes.size())));
+		writes.clear();
+		buffer.shutdown();
+		assertTrue(writes.isEmpty());
+	}
+
+	@Test
+	void keepsADraftThatFailedForATransientReason() {
+		failFor(2L, new QueryTimeoutException("canceling statement due to statement timeout"));
+		buffer.save(1L, draft("[]"));
+		buffer.save(2L, draft("[]"));
+
+		buffer.shutdown();
+
+		assertTrue(buffer.find(2L).isPresent());
+		writes.clear();
+		buffer.shutdown();
+		assertEquals(List.of(List.of(2L)), writes);
+	}
+
+	@Test
+	void readsADraftBufferedOnAnotherNodeAndLeavesNothingToWriteBack() {
+		Map<Long, ArticleDraft> stored = new ConcurrentHashMap<>();
+		ArticleDraftRepository shared = store(stored);
+		InvalidationBus busA = mock(InvalidationBus.class);
+		InvalidationBus busB = mock(InvalidationBus.class);
+		ArticleDraftBuffer nodeA = buffer(shared, busA);
+		ArticleDraftBuffer nodeB = buffer(shared, busB);
+		connect(busA, nodeB);
+		connect(busB, nodeA);
+
+		nodeA.save(7L, draft("[\"latest\"]"));
+
+		assertEquals("[\"latest\"]", nodeB.find(7L).orElseThrow().getContent());
+		nodeB.discard(7L);
+		nodeA.shutdown();
+		assertTrue(stored.isEmpty());
+	}
+
+	@Test
+	void flushesWhileAnArticleIsBeingPublished() throws Exception {
+		Map<Long, ArticleDraft> stored = new ConcurrentHashMap<>();
+		ArticleRepository articleRepository = mock(ArticleRepository.class);
+		when(articleRepository.existsById(any())).thenReturn(true);
+		when(articleRepository.findById(any())).thenReturn(Optional.of(new Article()));
+		ArticleService articleService = mock(ArticleService.class);
+		CountDownLatch updating = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(articleService.update(any(), any())).thenAnswer(invocation -> {
+			updating.countDown();
+			release.await();
+			return Optional.of(invocation.getArgument(1));
+		});
+		ArticleDraftBuffer buffer = new ArticleDraftBuffer(store(stored), articleRepository, articleService,
+				mock(InvalidationBus.class), new ObjectMapper(), new SimpleMeterRegistry(), 5000, 30000, 1000);
+		buffer.save(1L, draft("[\"published\"]"));
+		buffer.save(2L, draft("[\"other\"]"));
+
+		CompletableFuture<Optional<Article>> publishing = CompletableFuture.supplyAsync(() -> buffer.publish(1L));
+		assertTrue(updating.await(5, TimeUnit.SECONDS));
+		CompletableFuture.runAsync(buffer::shutdown).get(5, TimeUnit.SECONDS);
+		assertEquals(Set.of(1L, 2L), stored.keySet());
+		release.countDown();
+
+		assertEquals("[\"published\"]", publishing.get(5, TimeUnit.SECONDS).orElseThrow().getContent());
+		assertEquals(Set.of(2L), stored.keySet());
+	}
+
+	private static ArticleDraftBuffer buffer(ArticleDraftRepository draftRepository, InvalidationBus bus) {
+		ArticleRepository articleRepository = mock(ArticleRepository.class);
+		when(articleRepository.existsById(any())).thenReturn(true);
+		return new ArticleDraftBuffer(draftRepository, articleRepository, mock(ArticleService.class), bus,
+				new ObjectMapper(), new SimpleMeterRegistry(), 5000, 30000, 1000);
+	}
+
+	/**
+	 * A draft repository over a map, shared by the nodes of a test.
+	 */
+	private static ArticleDraftRepository store(Map<Long, ArticleDraft> stored) {
+		ArticleDraftRepository repository = mock(ArticleDraftRepository.class);
+		when(repository.upsertAll(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+			Long[] ids = invocation.getArgument(0);
+			for (int i = 0; i < ids.length; i++) {
+				ArticleDraft draft = draft(invocation.<String[]>getArgument(2)[i]);
+				draft.setArticleId(ids[i]);
+				draft.setSavedAt(Instant.ofEpochMilli(invocation.<Long[]>getArgument(4)[i]));
+				stored.put(ids[i], draft);
+			}
+			return ids.length;
+		});
+		when(repository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.getArgument(0))));
+		doAnswer(invocation -> stored.remove(invocation.<Long>getArgument(0))).when(repository).deleteById(any());
+		when(repository.deleteUpTo(any(), any())).thenAnswer(invocation -> {
+			Instant savedAt = invocation.getArgument(1);
+			return stored.computeIfPresent(invocation.getArgument(0),
+					(id, draft) -> draft.getSavedAt().isAfter(savedAt) ? draft : null) == null ? 1 : 0;
+		});
+		return repository;
+	}
+
+	/**
+	 * Deliver the draft signals sent through a bus to another node.
+	 */
+	private static void connect(InvalidationBus bus, ArticleDraftBuffer other) {
+		when(bus.isConnected()).thenReturn(true);
+		doAnswer(invocation -> {
+			other.onSignal(new DraftSignal(invocation.getArgument(0), invocation.getArgument(1)));
+			return null;
+		}).when(bus).notifyDraft(any(), any());
+	}
+
+	/**
+	 * Record every upsert, failing any batch that contains the given article.
+	 */
+	private void failFor(Long articleId, RuntimeException failure) {
+		when(draftRepository.upsertAll(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+			List<Long> ids = List.of(invocation.<Long[]>getArgument(0));
+			writes.add(ids);
+			if (ids.contains(articleId)) {
+				throw failure;
+			}
+			return ids.size();
+		});
+	}
+
+	private static List<List<Long>> sorted(List<List<Long>> batches) {
+		List<List<Long>> copy = new ArrayList<>(batches);
+		copy.sort((a, b) -> Long.compare(a.get(0), b.get(0)));
+		return copy;
+	}
+
+	private static ArticleDraft draft(String content) {
+		ArticleDraft draft = new ArticleDraft();
+		draft.setTitle("Draft");
+		draft.setContent(content);
+		return draft;
+	}
+}
@@ -0,0 +1,85 @@
+package wiki.ednotes.server.asset;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Derivative widths, the pixel limit and subsampled generation, on images
+ * written to a temporary directory.
+ */
+class AssetDerivativesTest {
+	private static final String HASH = "ab0123456789";
+
+	@TempDir
+	private Path dir;
+	private AssetStore assetStore;
+	private AssetDerivatives derivatives;
+
+	@BeforeEach
+	void setUp() {
+		assetStore = mock(AssetStore.class);
+		when(assetStore.find(HASH)).thenReturn(Optional.of(new Asset(HASH, "image/png", 1)));
+		when(assetStore.path(HASH)).thenReturn(dir.resolve("original.png"));
+		derivatives = new AssetDerivatives(assetStore, new SimpleMeterRegistry(), dir, List.of(160, 320, 640),
+				4, 0.8f, 1_000_000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		derivatives.shutdown();
+	}
+
+	@Test
+	void offersTheWidthsNarrowerThanTheOriginal() throws IOException {
+		image(400, 300);
+
+		assertEquals(List.of(160, 320), derivatives.widthsFor(HASH));
+	}
+
+	@Test
+	void skipsImagesOverThePixelLimit() throws IOException {
+		image(2000, 501);
+
+		assertEquals(List.of(), derivatives.widthsFor(HASH));
+		assertNull(derivatives.srcset(HASH));
+	}
+
+	@Test
+	void generatesDerivativesFromASubsampledDecode() throws Exception {
+		image(1300, 650);
+
+		derivatives.schedule(HASH);
+
+		for (int attempt = 0; attempt < 100 && derivatives.find(HASH, 160).isEmpty(); attempt++) {
+			Thread.sleep(50);
+		}
+		for (int width : List.of(160, 320, 640)) {
+			Optional<Path> file = derivatives.find(HASH, width);
+			assertTrue(file.isPresent(), "width " + width);
+			BufferedImage derivative = ImageIO.read(file.get().toFile());
+			assertEquals(width, derivative.getWidth());
+			assertEquals(width / 2, derivative.getHeight());
+		}
+	}
+
+	private void image(int width, int height) throws IOException {
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png",
+				dir.resolve("original.png").toFile());
+	}
+}
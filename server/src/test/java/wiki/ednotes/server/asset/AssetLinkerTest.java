@@ -0,0 +1,76 @@
+package wiki.ednotes.server.asset;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Address checks for remote image imports. Literal addresses and localhost
+ * only, so no lookups leave the machine.
+ */
+class AssetLinkerTest {
+
+	@Test
+	void rejectsInternalIpv4Addresses() throws UnknownHostException {
+		for (String address : new String[] {"127.0.0.1", "10.1.2.3", "172.16.0.1", "192.168.1.1",
+				"169.254.169.254", "0.0.0.0", "0.1.2.3", "100.64.0.1", "100.127.255.255", "224.0.0.1"}) {
+			assertFalse(AssetLinker.isPublic(InetAddress.getByName(address)), address);
+		}
+	}
+
+	@Test
+	void rejectsInternalIpv6Addresses() throws UnknownHostException {
+		for (String address : new String[] {"::1", "::", "fe80::1", "fc00::1", "fd12:3456::1", "ff02::1",
+				"::ffff:127.0.0.1", "::ffff:10.0.0.1"}) {
+			assertFalse(AssetLinker.isPublic(InetAddress.getByName(address)), address);
+		}
+	}
+
+	@Test
+	void acceptsPublicAddresses() throws UnknownHostException {
+		for (String address : new String[] {"93.184.216.34", "100.63.255.255", "100.128.0.1", "8.8.8.8",
+				"2606:2800:220:1:248:1893:25c8:1946"}) {
+			assertTrue(AssetLinker.isPublic(InetAddress.getByName(address)), address);
+		}
+	}
+
+	@Test
+	void neverConnectsToInternalTargets() throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		AtomicInteger requests = new AtomicInteger();
+		server.createContext("/", exchange -> {
+			requests.incrementAndGet();
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+		});
+		server.start();
+		try {
+			AssetStore assetStore = mock(AssetStore.class);
+			AssetLinker linker = new AssetLinker(assetStore, mock(AssetDerivatives.class), new ObjectMapper(),
+					RestClient.builder(), true, Duration.ofSeconds(2));
+			int port = server.getAddress().getPort();
+			for (String host : new String[] {"127.0.0.1", "localhost", "[::1]"}) {
+				String content = "[{\"type\":\"figure\",\"src\":\"http://" + host + ":" + port + "/image.png\"}]";
+				assertEquals(content, linker.rewrite(content), host);
+			}
+			assertEquals(0, requests.get());
+			verifyNoInteractions(assetStore);
+		} finally {
+			server.stop(0);
+		}
+	}
+}
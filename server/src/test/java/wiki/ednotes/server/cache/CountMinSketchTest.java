@@ -0,0 +1,55 @@
+package wiki.ednotes.server.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+	@Test
+	void startsEmpty() {
+		CountMinSketch sketch = new CountMinSketch(64);
+
+		assertEquals(0, sketch.estimate(42));
+	}
+
+	@Test
+	void neverUndercounts() {
+		// A narrow table forces collisions.
+		CountMinSketch sketch = new CountMinSketch(16);
+		for (long key = 0; key < 500; key++) {
+			for (int i = 0; i <= key % 7; i++) {
+				sketch.increment(key);
+			}
+		}
+
+		for (long key = 0; key < 500; key++) {
+			assertTrue(sketch.estimate(key) >= key % 7 + 1, "key " + key);
+		}
+	}
+
+	@Test
+	void incrementReturnsTheNewEstimate() {
+		CountMinSketch sketch = new CountMinSketch(1024);
+
+		assertEquals(1, sketch.increment(7));
+		assertEquals(2, sketch.increment(7));
+		assertEquals(2, sketch.estimate(7));
+	}
+
+	@Test
+	void decayHalvesCounts() {
+		CountMinSketch sketch = new CountMinSketch(1024);
+		for (int i = 0; i < 10; i++) {
+			sketch.increment(7);
+		}
+
+		sketch.decay();
+		assertEquals(5, sketch.estimate(7));
+		sketch.decay();
+		sketch.decay();
+		sketch.decay();
+		assertEquals(0, sketch.estimate(7));
+	}
+}
@@ -0,0 +1,95 @@
+package wiki.ednotes.server.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Permit queueing and rejection with one permit and one queue slot. The
+ * permit is held by a load blocked on a latch.
+ */
+class ReadLimiterTest {
+	private MeterRegistry meterRegistry;
+	private ReadLimiter readLimiter;
+	private ExecutorService callers;
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		readLimiter = new ReadLimiter(meterRegistry, 1, 1, 500);
+		callers = Executors.newVirtualThreadPerTaskExecutor();
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		callers.shutdownNow();
+	}
+
+	@Test
+	void rejectsWhenTheQueueIsFull() throws Exception {
+		Future<String> holder = hold();
+		Future<String> queued = callers.submit(() -> readLimiter.call(() -> "queued"));
+		for (int attempt = 0; attempt < 200 && gauge("ednotes.reader.waiting") < 1; attempt++) {
+			Thread.sleep(10);
+		}
+		assertEquals(1, gauge("ednotes.reader.waiting"));
+
+		assertThrows(LoadTimeoutException.class, () -> readLimiter.call(() -> "rejected"));
+		assertEquals(1, rejected());
+
+		release.countDown();
+		assertEquals("held", holder.get(1, TimeUnit.SECONDS));
+		assertEquals("queued", queued.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void rejectsWhenNoPermitFreesUpInTime() throws Exception {
+		Future<String> holder = hold();
+
+		assertThrows(LoadTimeoutException.class, () -> readLimiter.call(() -> "late"));
+		assertEquals(1, rejected());
+		assertEquals(0, gauge("ednotes.reader.waiting"));
+
+		release.countDown();
+		assertEquals("held", holder.get(1, TimeUnit.SECONDS));
+		assertEquals("free", readLimiter.call(() -> "free"));
+		assertEquals(0, gauge("ednotes.reader.active"));
+	}
+
+	private Future<String> hold() throws InterruptedException {
+		Future<String> holder = callers.submit(() -> readLimiter.call(() -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "held";
+		}));
+		assertTrue(started.await(1, TimeUnit.SECONDS));
+		return holder;
+	}
+
+	private double rejected() {
+		return meterRegistry.counter("ednotes.reader.rejected").count();
+	}
+
+	private double gauge(String name) {
+		return meterRegistry.get(name).gauge().value();
+	}
+}
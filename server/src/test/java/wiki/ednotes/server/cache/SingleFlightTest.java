@@ -0,0 +1,147 @@
+package wiki.ednotes.server.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import wiki.ednotes.server.change.ChangeEvent;
+import wiki.ednotes.server.change.EntityType;
+import wiki.ednotes.server.config.ReplicaRouting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sharing of concurrent loads. Each test holds the leader's loader on a
+ * latch until the other callers have joined (or not) its flight.
+ */
+class SingleFlightTest {
+	private MeterRegistry meterRegistry;
+	private SingleFlight singleFlight;
+	private ExecutorService callers;
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		singleFlight = new SingleFlight(meterRegistry, new ReadLimiter(meterRegistry, 10, 10, 1000), 200);
+		callers = Executors.newVirtualThreadPerTaskExecutor();
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		callers.shutdownNow();
+	}
+
+	@Test
+	void joinersShareTheLeadersResult() throws Exception {
+		Object value = new Object();
+		Future<Object> leader = callers.submit(() -> singleFlight.load("article", 1L, () -> blocked(value)));
+		await(() -> loads.get() == 1);
+		List<Future<Object>> joiners = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			joiners.add(callers.submit(() -> singleFlight.load("article", 1L, () -> blocked(new Object()))));
+		}
+		await(() -> count("joined") == 5);
+
+		release.countDown();
+
+		assertSame(value, leader.get(1, TimeUnit.SECONDS));
+		for (Future<Object> joiner : joiners) {
+			assertSame(value, joiner.get(1, TimeUnit.SECONDS));
+		}
+		assertEquals(1, loads.get());
+		assertEquals(1, count("leader"));
+	}
+
+	@Test
+	void joinersReceiveTheLeadersException() throws Exception {
+		IllegalStateException failure = new IllegalStateException("database down");
+		Future<Object> leader = callers.submit(() -> singleFlight.load("article", 1L, () -> {
+			blocked(null);
+			throw failure;
+		}));
+		await(() -> loads.get() == 1);
+		Future<Object> joiner = callers.submit(() -> singleFlight.load("article", 1L, Object::new));
+		await(() -> count("joined") == 1);
+
+		release.countDown();
+
+		assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(1, TimeUnit.SECONDS)).getCause());
+		assertSame(failure, assertThrows(ExecutionException.class, () -> joiner.get(1, TimeUnit.SECONDS)).getCause());
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void joinersStopWaitingAfterTheTimeout() throws Exception {
+		Future<Object> leader = callers.submit(() -> singleFlight.load("article", 1L, () -> blocked("slow")));
+		await(() -> loads.get() == 1);
+
+		assertThrows(LoadTimeoutException.class, () -> singleFlight.load("article", 1L, Object::new));
+
+		release.countDown();
+		assertEquals("slow", leader.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void callersAfterAChangeStartANewLoad() throws Exception {
+		Future<Object> before = callers.submit(() -> singleFlight.load("article", 1L, () -> blocked("before")));
+		await(() -> loads.get() == 1);
+
+		singleFlight.onChange(new ChangeEvent(EntityType.ARTICLE, 1L, null, 7, false));
+
+		assertEquals("after", singleFlight.load("article", 1L, () -> "after"));
+		release.countDown();
+		assertEquals("before", before.get(1, TimeUnit.SECONDS));
+		assertEquals(2, count("leader"));
+		assertEquals(0, count("joined"));
+	}
+
+	@Test
+	void primaryPinnedCallersDoNotJoinReplicaLoads() throws Exception {
+		Future<Object> replica = callers.submit(() -> singleFlight.load("article", 1L, () -> blocked("replica")));
+		await(() -> loads.get() == 1);
+
+		assertEquals("primary", ReplicaRouting.onPrimary(() -> singleFlight.load("article", 1L, () -> "primary")));
+		release.countDown();
+		assertEquals("replica", replica.get(1, TimeUnit.SECONDS));
+		assertEquals(0, count("joined"));
+	}
+
+	private <T> T blocked(T value) {
+		loads.incrementAndGet();
+		try {
+			assertTrue(release.await(5, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return value;
+	}
+
+	private double count(String role) {
+		return meterRegistry.counter("ednotes.singleflight.loads", "entity", "article", "role", role).count();
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		for (int attempt = 0; attempt < 200 && !condition.getAsBoolean(); attempt++) {
+			Thread.sleep(10);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+}
@@ -0,0 +1,159 @@
+package wiki.ednotes.server.category;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import wiki.ednotes.server.article.Article;
+import wiki.ednotes.server.article.ArticleConnection;
+import wiki.ednotes.server.article.ArticleConnectionRepository;
+import wiki.ednotes.server.article.ArticleRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Subtree operations of CategoryService against the closure table. Like
+ * ServerApplicationTests it needs the application's database; every test
+ * builds its own categories in a transaction that is rolled back.
+ * <p>
+ * The tree used by the tests:
+ * <pre>
+ * first (topic)          second (topic)       outside
+ * └── section            └── (empty)          └── reference
+ *     └── chapter
+ *         └── lesson
+ * </pre>
+ */
+@SpringBootTest(properties = {
+		"ednotes.invalidation.enabled=false",
+		"ednotes.warmup.enabled=false",
+		"ednotes.related.initial-delay=3600000"
+})
+@Transactional
+class CategoryServiceTest {
+	@Autowired
+	private CategoryService categoryService;
+	@Autowired
+	private CategoryRepository categoryRepository;
+	@Autowired
+	private CategoryClosureRepository closureRepository;
+	@Autowired
+	private ArticleRepository articleRepository;
+	@Autowired
+	private ArticleConnectionRepository connectionRepository;
+
+	private Category first;
+	private Category second;
+	private Category section;
+	private Category chapter;
+	private Article lesson;
+	private Article reference;
+
+	@BeforeEach
+	void setUp() {
+		first = categoryService.create(new Category(null, "First", null, true, 1L, true));
+		second = categoryService.create(new Category(null, "Second", null, true, 2L, true));
+		Category outside = categoryService.create(new Category(null, "Outside", null, true, 3L, false));
+		section = categoryService.create(new Category(null, "Section", first.getId(), true, 1L, false));
+		chapter = categoryService.create(new Category(null, "Chapter", section.getId(), true, 1L, false));
+		lesson = article("Lesson", chapter.getId());
+		reference = article("Reference", outside.getId());
+		connect(reference, lesson);
+	}
+
+	@Test
+	void createDerivesTheTopicFromTheAncestors() {
+		Category sent = new Category(null, "Sent with a topic", chapter.getId(), true, 2L, false);
+		sent.setTopicId(second.getId());
+
+		assertEquals(first.getId(), categoryService.create(sent).getTopicId());
+		assertEquals(first.getId(), chapter.getTopicId());
+		assertNull(first.getTopicId());
+	}
+
+	@Test
+	void updateKeepsTheDerivedTopic() {
+		Category renamed = new Category(null, "Renamed", first.getId(), true, 1L, false);
+		renamed.setTopicId(second.getId());
+
+		Category updated = categoryService.update(section.getId(), renamed).orElseThrow();
+
+		assertEquals("Renamed", updated.getTitle());
+		assertEquals(first.getId(), updated.getTopicId());
+	}
+
+	@Test
+	void moveRelinksTheSubtreeAndItsTopics() {
+		categoryService.moveSubtree(section.getId(), second.getId());
+
+		assertTrue(closureRepository.isAncestorOrSelf(second.getId(), chapter.getId()));
+		assertFalse(closureRepository.isAncestorOrSelf(first.getId(), chapter.getId()));
+		assertEquals(second.getId(), topicOf(section));
+		assertEquals(second.getId(), topicOf(chapter));
+	}
+
+	@Test
+	void moveThroughUpdateRelinksTheSubtree() {
+		categoryService.update(section.getId(), new Category(null, "Section", second.getId(), true, 1L, false));
+
+		assertTrue(closureRepository.isAncestorOrSelf(second.getId(), chapter.getId()));
+		assertEquals(second.getId(), topicOf(chapter));
+	}
+
+	@Test
+	void moveBelowItsOwnSubtreeIsRejected() {
+		assertThrows(IllegalArgumentException.class,
+				() -> categoryService.moveSubtree(section.getId(), chapter.getId()));
+		assertThrows(IllegalArgumentException.class,
+				() -> categoryService.moveSubtree(section.getId(), section.getId()));
+	}
+
+	@Test
+	void publishingCascadesThroughTheSubtree() {
+		assertTrue(categoryService.publishSubtree(section.getId(), false));
+
+		assertFalse(categoryRepository.findById(section.getId()).orElseThrow().getPublished());
+		assertFalse(categoryRepository.findById(chapter.getId()).orElseThrow().getPublished());
+		assertFalse(articleRepository.findById(lesson.getId()).orElseThrow().getPublished());
+		assertTrue(categoryRepository.findById(first.getId()).orElseThrow().getPublished());
+		assertTrue(articleRepository.findById(reference.getId()).orElseThrow().getPublished());
+	}
+
+	@Test
+	void deleteCascadesToArticlesAndConnections() {
+		assertTrue(categoryService.delete(section.getId()));
+
+		assertFalse(categoryRepository.existsById(section.getId()));
+		assertFalse(categoryRepository.existsById(chapter.getId()));
+		assertFalse(articleRepository.existsById(lesson.getId()));
+		assertTrue(connectionRepository.findByIdSourceId(reference.getId()).isEmpty());
+		assertTrue(articleRepository.existsById(reference.getId()));
+		assertFalse(closureRepository.isAncestorOrSelf(first.getId(), chapter.getId()));
+	}
+
+	private Long topicOf(Category category) {
+		return categoryRepository.findById(category.getId()).orElseThrow().getTopicId();
+	}
+
+	private Article article(String title, Long categoryId) {
+		Article article = new Article();
+		article.setTitle(title);
+		article.setContent("[]");
+		article.setCategoryId(categoryId);
+		article.setPublished(true);
+		article.setOrder(1L);
+		return articleRepository.saveAndFlush(article);
+	}
+
+	private void connect(Article source, Article target) {
+		ArticleConnection connection = new ArticleConnection();
+		connection.setSourceId(source.getId());
+		connection.setTargetId(target.getId());
+		connectionRepository.saveAndFlush(connection);
+	}
+}
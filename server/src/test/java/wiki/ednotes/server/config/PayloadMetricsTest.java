@@ -0,0 +1,75 @@
+package wiki.ednotes.server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Time spent blocked on the response stream is recorded as write time, not
+ * as encode time.
+ */
+class PayloadMetricsTest {
+
+	@Test
+	void separatesEncodingFromWriting() throws Exception {
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		PayloadMetrics metrics = new PayloadMetrics(meterRegistry, "json");
+		HttpHeaders headers = new HttpHeaders();
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		OutputStream slowClient = new OutputStream() {
+			@Override
+			public void write(int b) {
+				written.write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				sleep(100);
+				written.write(b, off, len);
+			}
+		};
+		HttpOutputMessage message = new HttpOutputMessage() {
+			@Override
+			public OutputStream getBody() {
+				return slowClient;
+			}
+
+			@Override
+			public HttpHeaders getHeaders() {
+				return headers;
+			}
+		};
+
+		metrics.write(message, out -> {
+			sleep(50);
+			out.getBody().write(new byte[] {'[', '1', ']'}, 0, 3);
+			out.getBody().flush();
+		});
+
+		double encode = meterRegistry.get("ednotes.payload.encode").timer().totalTime(TimeUnit.MILLISECONDS);
+		double write = meterRegistry.get("ednotes.payload.write").timer().totalTime(TimeUnit.MILLISECONDS);
+		assertTrue(write >= 100, "write " + write);
+		assertTrue(encode >= 50 && encode < write, "encode " + encode);
+		assertEquals(3, meterRegistry.get("ednotes.payload.size").summary().totalAmount());
+		assertEquals("[1]", written.toString());
+		assertEquals(List.of(HttpHeaders.ACCEPT), headers.getVary());
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
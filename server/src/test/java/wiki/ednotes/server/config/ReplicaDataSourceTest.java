@@ -0,0 +1,201 @@
+package wiki.ednotes.server.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Replica routing, read-your-writes stickiness and failover against a real
+ * second database.
+ * <p>
+ * Runs only when {@code EDNOTES_PLAN_TEST_URL} (with
+ * {@code EDNOTES_PLAN_TEST_USERNAME} and {@code EDNOTES_PLAN_TEST_PASSWORD})
+ * points at a Postgres database the user may create databases on. That
+ * database plays the primary; a throwaway database on the same server plays
+ * the replica, and each connection reports which one it reached.
+ */
+@EnabledIfEnvironmentVariable(named = "EDNOTES_PLAN_TEST_URL", matches = ".+")
+class ReplicaDataSourceTest {
+	private static final String REPLICA = "replica_routing_" + ProcessHandle.current().pid();
+
+	private static Connection admin;
+	private static String primaryName;
+
+	private HikariDataSource primary;
+	private HikariDataSource replica;
+	private ReplicaDataSource routing;
+	private MeterRegistry meterRegistry;
+
+	@BeforeAll
+	static void createReplica() throws SQLException {
+		admin = DriverManager.getConnection(System.getenv("EDNOTES_PLAN_TEST_URL"),
+				System.getenv("EDNOTES_PLAN_TEST_USERNAME"), System.getenv("EDNOTES_PLAN_TEST_PASSWORD"));
+		try (Statement statement = admin.createStatement()) {
+			statement.execute("CREATE DATABASE " + REPLICA);
+		}
+		primaryName = admin.getCatalog();
+	}
+
+	@AfterAll
+	static void dropReplica() throws SQLException {
+		if (admin == null) {
+			return;
+		}
+		try (Statement statement = admin.createStatement()) {
+			statement.execute("DROP DATABASE IF EXISTS " + REPLICA + " WITH (FORCE)");
+		} finally {
+			admin.close();
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		String url = System.getenv("EDNOTES_PLAN_TEST_URL");
+		primary = pool("primary", url);
+		replica = pool("replica-0", url.replaceFirst("/[^/?]*(\\?|$)", "/" + REPLICA + "$1"));
+		meterRegistry = new SimpleMeterRegistry();
+		routing = new ReplicaDataSource(primary, List.of(replica), meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() throws SQLException {
+		routing.close();
+		primary.close();
+		allowReplicaConnections(true);
+		ReplicaRouting.clear();
+	}
+
+	@Test
+	void readsGoToTheReplicaUnlessPinned() {
+		assertEquals(REPLICA, database(routing));
+		assertEquals(primaryName, ReplicaRouting.onPrimary(() -> database(routing)));
+		assertEquals(1, meterRegistry.counter("ednotes.datasource.reads", "target", "replica-0").count());
+		assertEquals(1, meterRegistry.counter("ednotes.datasource.reads", "target", "primary").count());
+	}
+
+	@Test
+	void editorWritesKeepTheClientOnThePrimary() throws Exception {
+		ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(10), "test-key");
+		MockHttpServletResponse write = new MockHttpServletResponse();
+		assertEquals(primaryName, read(filter, new MockHttpServletRequest("PUT", "/api/editor/articles/1"), write));
+		Cookie cookie = write.getCookie("ednotes-primary-until");
+		assertNotNull(cookie);
+
+		assertEquals(primaryName, read(filter, withCookie(cookie)));
+		assertEquals(REPLICA, read(filter, new MockHttpServletRequest("GET", "/api/articles/1")));
+		assertEquals(REPLICA, read(new ReadYourWritesFilter(Duration.ofSeconds(10), "other-key"), withCookie(cookie)));
+		String signature = cookie.getValue().substring(cookie.getValue().indexOf('.') + 1);
+		assertEquals(REPLICA, read(filter, withCookie(new Cookie(cookie.getName(), Long.MAX_VALUE + "." + signature))));
+		assertEquals(REPLICA, read(filter, withCookie(new Cookie(cookie.getName(), Long.toString(Long.MAX_VALUE)))));
+	}
+
+	@Test
+	void stickinessExpires() throws Exception {
+		ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMillis(100), "test-key");
+		MockHttpServletResponse write = new MockHttpServletResponse();
+		read(filter, new MockHttpServletRequest("POST", "/api/editor/articles"), write);
+		Cookie cookie = write.getCookie("ednotes-primary-until");
+
+		Thread.sleep(200);
+
+		assertEquals(REPLICA, read(filter, withCookie(cookie)));
+	}
+
+	@Test
+	void failsOverToThePrimaryAndBack() throws Exception {
+		assertEquals(REPLICA, database(routing));
+
+		allowReplicaConnections(false);
+		// Past Hikari's window in which a pooled connection is handed out unchecked.
+		Thread.sleep(600);
+		assertEquals(primaryName, database(routing));
+		assertEquals(0, healthy());
+		routing.checkHealth();
+		assertEquals(0, healthy());
+		assertEquals(primaryName, database(routing));
+
+		allowReplicaConnections(true);
+		routing.checkHealth();
+		assertEquals(1, healthy());
+		assertEquals(REPLICA, database(routing));
+	}
+
+	private double healthy() {
+		return meterRegistry.get("ednotes.datasource.replica.healthy").tag("pool", "replica-0").gauge().value();
+	}
+
+	private static void allowReplicaConnections(boolean allowed) throws SQLException {
+		try (Statement statement = admin.createStatement()) {
+			statement.execute("ALTER DATABASE " + REPLICA + " ALLOW_CONNECTIONS " + allowed);
+			if (!allowed) {
+				statement.execute("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE datname = '"
+						+ REPLICA + "'");
+			}
+		}
+	}
+
+	private String read(ReadYourWritesFilter filter, MockHttpServletRequest request) throws Exception {
+		return read(filter, request, new MockHttpServletResponse());
+	}
+
+	private String read(ReadYourWritesFilter filter, MockHttpServletRequest request,
+			MockHttpServletResponse response) throws Exception {
+		AtomicReference<String> seen = new AtomicReference<>();
+		FilterChain chain = (req, res) -> seen.set(database(routing));
+		filter.doFilter(request, response, chain);
+		return seen.get();
+	}
+
+	private static MockHttpServletRequest withCookie(Cookie cookie) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/articles/1");
+		request.setCookies(cookie);
+		return request;
+	}
+
+	private static String database(DataSource dataSource) {
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet result = statement.executeQuery("SELECT current_database()")) {
+			result.next();
+			return result.getString(1);
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static HikariDataSource pool(String name, String url) {
+		HikariDataSource pool = new HikariDataSource();
+		pool.setPoolName(name);
+		pool.setJdbcUrl(url);
+		pool.setUsername(System.getenv("EDNOTES_PLAN_TEST_USERNAME"));
+		pool.setPassword(System.getenv("EDNOTES_PLAN_TEST_PASSWORD"));
+		pool.setMaximumPoolSize(2);
+		pool.setMinimumIdle(0);
+		pool.setConnectionTimeout(250);
+		pool.setInitializationFailTimeout(-1);
+		return pool;
+	}
+}
@@ -0,0 +1,37 @@
+package wiki.ednotes.server.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pinning work to the primary without losing an outer pin.
+ */
+class ReplicaRoutingTest {
+	@AfterEach
+	void tearDown() {
+		ReplicaRouting.clear();
+	}
+
+	@Test
+	void pinsTheTaskAndUnpinsAfterwards() {
+		assertTrue(ReplicaRouting.onPrimary(ReplicaRouting::isPrimaryForced));
+		assertFalse(ReplicaRouting.isPrimaryForced());
+	}
+
+	@Test
+	void leavesAnOuterPinInPlace() {
+		ReplicaRouting.forcePrimary();
+		ReplicaRouting.onPrimary(() -> {
+		});
+		assertTrue(ReplicaRouting.isPrimaryForced());
+
+		assertThrows(IllegalStateException.class, () -> ReplicaRouting.onPrimary(() -> {
+			throw new IllegalStateException();
+		}));
+		assertTrue(ReplicaRouting.isPrimaryForced());
+	}
+}
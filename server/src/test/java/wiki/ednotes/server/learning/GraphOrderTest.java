@@ -0,0 +1,88 @@
+package wiki.ednotes.server.learning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GraphOrderTest {
+
+	@Test
+	void keepsTieBreakOrderWithoutEdges() {
+		GraphOrder.Result result = GraphOrder.topological(List.of(3L, 1L, 2L), Map.of());
+
+		assertEquals(List.of(3L, 1L, 2L), result.order());
+		assertEquals(List.of(), result.cycles());
+	}
+
+	@Test
+	void putsPrerequisitesFirstAndOtherwiseKeepsTieBreakOrder() {
+		// 3 requires 2, 1 requires 4
+		Map<Long, Set<Long>> prerequisites = Map.of(3L, Set.of(2L), 1L, Set.of(4L));
+
+		GraphOrder.Result result = GraphOrder.topological(List.of(3L, 1L, 2L, 4L), prerequisites);
+
+		assertEquals(List.of(2L, 3L, 4L, 1L), result.order());
+	}
+
+	@Test
+	void ignoresEdgesLeavingTheNodes() {
+		GraphOrder.Result result = GraphOrder.topological(List.of(1L, 2L), Map.of(1L, Set.of(99L)));
+
+		assertEquals(List.of(1L, 2L), result.order());
+		assertEquals(List.of(), result.cycles());
+	}
+
+	@Test
+	void appendsBlockedNodesAndReportsOnlyTheCycles() {
+		// 1 and 2 require each other, 3 sits behind the cycle, 5 requires itself
+		Map<Long, Set<Long>> prerequisites = Map.of(
+				1L, Set.of(2L),
+				2L, Set.of(1L),
+				3L, Set.of(1L),
+				5L, Set.of(5L));
+
+		GraphOrder.Result result = GraphOrder.topological(List.of(5L, 3L, 2L, 1L, 4L), prerequisites);
+
+		assertEquals(List.of(4L, 5L, 3L, 2L, 1L), result.order());
+		assertEquals(List.of(List.of(5L), List.of(2L, 1L)), result.cycles());
+	}
+
+	@Test
+	void findsLongCyclesWithoutRecursion() {
+		int size = 100_000;
+		List<Long> nodes = new ArrayList<>();
+		Map<Long, Set<Long>> prerequisites = new HashMap<>();
+		for (long i = 0; i < size; i++) {
+			nodes.add(i);
+			prerequisites.put(i, Set.of((i + 1) % size));
+		}
+
+		GraphOrder.Result result = GraphOrder.topological(nodes, prerequisites);
+
+		assertEquals(nodes, result.order());
+		assertEquals(1, result.cycles().size());
+		assertEquals(nodes, result.cycles().get(0));
+	}
+
+	@Test
+	void closureFollowsEdgesTransitively() {
+		Map<Long, Set<Long>> prerequisites = Map.of(1L, Set.of(2L), 2L, Set.of(3L, 4L), 5L, Set.of(1L));
+
+		assertEquals(Set.of(2L, 3L, 4L), GraphOrder.closure(1L, prerequisites));
+		assertEquals(Set.of(), GraphOrder.closure(3L, prerequisites));
+	}
+
+	@Test
+	void closureIncludesTheStartOnlyWhenItIsOnACycle() {
+		Map<Long, Set<Long>> prerequisites = Map.of(1L, Set.of(2L), 2L, Set.of(1L, 3L));
+
+		assertEquals(Set.of(1L, 2L, 3L), GraphOrder.closure(1L, prerequisites));
+		assertEquals(Set.of(), GraphOrder.closure(3L, prerequisites));
+	}
+}
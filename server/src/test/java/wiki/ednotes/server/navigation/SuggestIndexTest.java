@@ -0,0 +1,121 @@
+package wiki.ednotes.server.navigation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import wiki.ednotes.server.article.ArticleRepository;
+import wiki.ednotes.server.article.ArticleSyncRow;
+import wiki.ednotes.server.article.ArticleViewCounter;
+import wiki.ednotes.server.category.Category;
+import wiki.ednotes.server.category.CategoryRepository;
+import wiki.ednotes.server.navigation.dto.Suggestion;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Lookup and ranking of the suggest index over a fixed set of titles.
+ */
+class SuggestIndexTest {
+	private SuggestIndex index;
+
+	@BeforeEach
+	void load() {
+		Category maths = new Category(1L, "Mathematics", null, true, 1L, true);
+		Category algebra = new Category(2L, "Algebra Basics", 1L, true, 2L, false);
+		algebra.setTopicId(1L);
+		Category physics = new Category(3L, "Physics", null, true, 3L, true);
+		Category hidden = new Category(4L, "Algorithms", null, false, 4L, true);
+
+		CategoryRepository categoryRepository = mock(CategoryRepository.class);
+		when(categoryRepository.findAll()).thenReturn(List.of(maths, algebra, physics, hidden));
+		ArticleRepository articleRepository = mock(ArticleRepository.class);
+		when(articleRepository.findByPublishedIsTrue(ArticleSyncRow.class)).thenReturn(List.of(
+				new Row(10L, "Linear Algebra", 2L, 1L),
+				new Row(11L, "Algebraic Topology", 2L, 2L),
+				new Row(12L, "Dialgebra", 2L, 3L),
+				new Row(13L, "Algebra of Forces", 3L, 1L),
+				new Row(14L, "Zeta Functions", 2L, 4L)));
+		ArticleViewCounter viewCounter = mock(ArticleViewCounter.class);
+		when(viewCounter.counts(any())).thenReturn(Map.of(13L, 50L, 11L, 5L));
+
+		index = new SuggestIndex(categoryRepository, articleRepository, viewCounter);
+	}
+
+	@Test
+	void matchesWordStartsOnly() {
+		List<Long> ids = ids(index.suggest("alg", null, 10));
+
+		// "Dialgebra" contains "alg" mid-word and is not a match.
+		assertEquals(List.of(13L, 11L, 2L, 10L), ids);
+	}
+
+	@Test
+	void ranksTitleStartsFirstThenViewsThenOrder() {
+		List<Suggestion> suggestions = index.suggest("algebra", null, 10);
+
+		// Title starts by views (13, 11), then the category (order 2), then the later word match.
+		assertEquals(List.of(13L, 11L, 2L, 10L), ids(suggestions));
+		assertEquals("category", suggestions.get(2).getType());
+	}
+
+	@Test
+	void normalizesQueriesAndMatchesAcrossWords() {
+		assertEquals(List.of(10L), ids(index.suggest("  LINEAR   ál", null, 10)));
+	}
+
+	@Test
+	void filtersByTopicAndLimits() {
+		assertEquals(List.of(11L, 2L), ids(index.suggest("alg", 1L, 2)));
+		assertEquals(List.of(13L), ids(index.suggest("alg", 3L, 10)));
+	}
+
+	@Test
+	void handlesQueriesAtTheEndsOfTheIndex() {
+		assertEquals(List.of(), ids(index.suggest("zzz", null, 10)));
+		assertEquals(List.of(14L), ids(index.suggest("zeta functions", null, 10)));
+		assertEquals(List.of(), ids(index.suggest("zeta functionsx", null, 10)));
+		assertEquals(List.of(13L, 11L, 2L, 10L), ids(index.suggest("a", null, 10)));
+		assertEquals(List.of(), index.suggest(" ?! ", null, 10));
+	}
+
+	@Test
+	void leavesOutUnpublishedCategories() {
+		assertEquals(List.of(), ids(index.suggest("algor", null, 10)));
+	}
+
+	private static List<Long> ids(List<Suggestion> suggestions) {
+		return suggestions.stream().map(Suggestion::getId).toList();
+	}
+
+	private record Row(Long id, String title, Long categoryId, Long order) implements ArticleSyncRow {
+		@Override
+		public Long getId() {
+			return id;
+		}
+
+		@Override
+		public String getTitle() {
+			return title;
+		}
+
+		@Override
+		public Boolean getPublished() {
+			return true;
+		}
+
+		@Override
+		public Long getCategoryId() {
+			return categoryId;
+		}
+
+		@Override
+		public Long getOrder() {
+			return order;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package wiki.ednotes.server.navigation.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Article content written through RawJsonSerializer reads back as the same
+ * JSON tree in every response format.
+ */
+class RawJsonSerializerTest {
+	private static final String CONTENT = """
+			[{"type":"heading","level":2,"text":"Ünïcode — \\"quoted\\" \\\\ \\u2028 😀"},
+			 {"type":"tabs","tabs":[{"title":"A","blocks":[{"type":"code","lines":[1,-2,9223372036854775807,
+			   123456789012345678901234567890],"ratio":1.5,"tiny":-2.5E-300,"wrap":true,"caption":null}]},
+			   {"title":"B","blocks":[]}]},
+			 {"type":"figure","src":"/api/assets/ab12","meta":{}}]
+			""";
+
+	private final ObjectMapper json = new ObjectMapper();
+
+	@Test
+	void jsonGetsTheContentVerbatim() throws IOException {
+		String written = json.writeValueAsString(body(CONTENT));
+
+		assertEquals(json.readTree(CONTENT), json.readTree(written).get("content"));
+	}
+
+	@Test
+	void cborRoundTripsTheContent() throws IOException {
+		assertRoundTrip(new ObjectMapper(new CBORFactory()));
+	}
+
+	@Test
+	void smileRoundTripsTheContent() throws IOException {
+		assertRoundTrip(new ObjectMapper(new SmileFactory()));
+	}
+
+	private void assertRoundTrip(ObjectMapper binary) throws IOException {
+		for (String content : new String[] {CONTENT, "[]", "{\"blocks\":[[],[[]]]}"}) {
+			JsonNode read = binary.readTree(binary.writeValueAsBytes(body(content)));
+
+			assertEquals(json.readTree(content), read.get("content"), content);
+			assertEquals("Title", read.get("title").asText());
+			assertEquals(7, read.get("order").asLong());
+		}
+	}
+
+	private static ArticleBody body(String content) {
+		return new ArticleBody(1L, "Title", content, 2L, true, 7L);
+	}
+}
@@ -0,0 +1,116 @@
+package wiki.ednotes.server.project;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import wiki.ednotes.server.change.ChangeEvent;
+import wiki.ednotes.server.change.EntityType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tag filters of ProjectTagIndex over a mocked repository. Projects, in
+ * display order:
+ * <pre>
+ * 0 alpha   java, spring-boot, postgres
+ * 1 beta    java, react
+ * 2 gamma   python, postgres   (saved before tags existed)
+ * 3 delta   java, vue, postgres
+ * </pre>
+ */
+class ProjectTagIndexTest {
+	private ProjectRepository projectRepository;
+	private ProjectTagIndex index;
+
+	@BeforeEach
+	void setUp() {
+		projectRepository = mock(ProjectRepository.class);
+		when(projectRepository.findAllByOrderByOrderAsc()).thenReturn(List.of(
+				project(1L, "alpha", "Java, Spring Boot, PostgreSQL", true),
+				project(2L, "beta", "Java / React", true),
+				project(3L, "gamma", "Python, Postgres", false),
+				project(4L, "delta", "java, vue.js, postgresql", true)));
+		index = new ProjectTagIndex(projectRepository, 16);
+	}
+
+	@Test
+	void allOfIntersectsTheTags() {
+		assertEquals(List.of("alpha", "delta"), names(index.filter(List.of("java", "postgres"), List.of(), 0, 10)));
+		assertEquals(List.of("alpha", "gamma", "delta"), names(index.filter(List.of("postgres"), List.of(), 0, 10)));
+		assertEquals(List.of(), names(index.filter(List.of("java", "rust"), List.of(), 0, 10)));
+	}
+
+	@Test
+	void anyOfUnitesTheTags() {
+		assertEquals(List.of("beta", "delta"), names(index.filter(List.of(), List.of("react", "vue"), 0, 10)));
+		assertEquals(List.of("gamma"), names(index.filter(List.of(), List.of("python", "rust"), 0, 10)));
+		assertEquals(List.of(), names(index.filter(List.of(), List.of("rust"), 0, 10)));
+	}
+
+	@Test
+	void combinesAllAndAny() {
+		assertEquals(List.of("delta"),
+				names(index.filter(List.of("java", "postgres"), List.of("vue", "python"), 0, 10)));
+	}
+
+	@Test
+	void noTermsMatchEverything() {
+		assertEquals(List.of("alpha", "beta", "gamma", "delta"), names(index.filter(List.of(), List.of(), 0, 10)));
+	}
+
+	@Test
+	void pagesKeepTheTotal() {
+		ProjectPage page = index.filter(List.of("java"), List.of(), 1, 2);
+
+		assertEquals(List.of("delta"), names(page));
+		assertEquals(3, page.getTotal());
+		assertEquals(List.of(), names(index.filter(List.of("java"), List.of(), 5, 2)));
+	}
+
+	@Test
+	void termOrderDoesNotChangeTheCacheKey() {
+		assertEquals(ProjectTagIndex.key(List.of("java", "postgres"), List.of("vue", "react")),
+				ProjectTagIndex.key(List.of("postgres", "java"), List.of("react", "vue")));
+		assertEquals(names(index.filter(List.of("java", "postgres"), List.of(), 0, 10)),
+				names(index.filter(List.of("postgres", "java"), List.of(), 0, 10)));
+	}
+
+	@Test
+	void countsTagsAndReloadsAfterAProjectChange() {
+		assertEquals(Map.of("java", 3, "spring-boot", 1, "postgres", 3, "react", 1, "python", 1, "vue", 1),
+				index.tagCounts());
+		assertEquals("gamma", index.all().get(2).getName());
+		assertEquals(List.of("python", "postgres"), index.all().get(2).getTags());
+		verify(projectRepository, times(1)).findAllByOrderByOrderAsc();
+
+		index.onChange(new ChangeEvent(EntityType.PROJECT, 1L, null, 1, false));
+		index.all();
+
+		verify(projectRepository, times(2)).findAllByOrderByOrderAsc();
+	}
+
+	private static List<String> names(ProjectPage page) {
+		List<String> names = new ArrayList<>();
+		page.getProjects().forEach(project -> names.add(project.getName()));
+		return names;
+	}
+
+	private static Project project(Long id, String name, String techStack, boolean tagged) {
+		Project project = new Project();
+		project.setId(id);
+		project.setName(name);
+		project.setTechStack(techStack);
+		project.setOrder(id);
+		if (tagged) {
+			project.setTags(ProjectTags.normalize(techStack));
+		}
+		return project;
+	}
+}
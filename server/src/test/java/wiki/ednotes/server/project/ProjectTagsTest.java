@@ -0,0 +1,46 @@
+package wiki.ednotes.server.project;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Normalization of free-form tech stacks and filter terms.
+ */
+class ProjectTagsTest {
+
+	@Test
+	void splitsOnEverySeparator() {
+		assertEquals(List.of("java", "spring-boot", "postgres", "react", "docker", "kubernetes"),
+				ProjectTags.normalize("Java, Spring Boot; PostgreSQL / React.js + Docker | k8s"));
+		assertEquals(List.of("go", "redis"), ProjectTags.normalize("Golang\nRedis"));
+	}
+
+	@Test
+	void collapsesSpacesAndAliases() {
+		assertEquals(List.of("spring-boot"), ProjectTags.normalize("  spring   boot , SpringBoot, Spring Boot"));
+		assertEquals(List.of("node", "typescript"), ProjectTags.normalize("Node.js, nodejs, TS"));
+	}
+
+	@Test
+	void keepsTheWrittenOrderWithoutDuplicates() {
+		assertEquals(List.of("vue", "javascript"), ProjectTags.normalize("Vue.js, JS, vuejs, javascript"));
+	}
+
+	@Test
+	void emptyStacksHaveNoTags() {
+		assertEquals(List.of(), ProjectTags.normalize(null));
+		assertEquals(List.of(), ProjectTags.normalize("  "));
+		assertEquals(List.of(), ProjectTags.normalize(",;/ "));
+	}
+
+	@Test
+	void termsMatchTheTagsOfTheSameStack() {
+		assertEquals(List.of("postgres", "spring-boot", "react"),
+				ProjectTags.terms("PostgreSQL, spring boot,,react.js, postgres"));
+		assertEquals(List.of(), ProjectTags.terms(null));
+		assertEquals(List.of(), ProjectTags.terms(" , "));
+	}
+}
@@ -0,0 +1,86 @@
+package wiki.ednotes.server.related;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashTest {
+
+	@Test
+	void wordsSkipCodeStopWordsAndAccents() {
+		String content = """
+				[{"type":"paragraph","content":"The Fourier transform of a signal"},
+				 {"type":"code","content":"int secret = 1;"},
+				 {"type":"list","items":["Résumé","x"]}]
+				""";
+
+		Set<String> words = MinHash.words(new ObjectMapper(), "Signals", content);
+
+		assertEquals(Set.of("signals", "fourier", "transform", "signal", "resume"), words);
+	}
+
+	@Test
+	void emptyWordSetHasNoSignature() {
+		assertNull(MinHash.signature(Set.of()));
+	}
+
+	@Test
+	void similarityEstimatesJaccard() {
+		Set<String> a = new HashSet<>();
+		Set<String> b = new HashSet<>();
+		for (int i = 0; i < 300; i++) {
+			a.add("shared" + i);
+			b.add("shared" + i);
+		}
+		for (int i = 0; i < 150; i++) {
+			a.add("left" + i);
+			b.add("right" + i);
+		}
+		// Jaccard similarity 300 / 600 = 0.5
+		double estimate = MinHash.similarity(MinHash.signature(a), MinHash.signature(b));
+
+		assertTrue(Math.abs(estimate - 0.5) < 0.15, "estimate " + estimate);
+		assertEquals(1.0, MinHash.similarity(MinHash.signature(a), MinHash.signature(a)));
+	}
+
+	@Test
+	void disjointSetsRarelyAgree() {
+		Set<String> a = new HashSet<>();
+		Set<String> b = new HashSet<>();
+		for (int i = 0; i < 200; i++) {
+			a.add("left" + i);
+			b.add("right" + i);
+		}
+
+		assertTrue(MinHash.similarity(MinHash.signature(a), MinHash.signature(b)) < 0.1);
+	}
+
+	@Test
+	void identicalSignaturesShareEveryBand() {
+		int[] signature = MinHash.signature(Set.of("graph", "closure", "table"));
+
+		long[] keys = MinHash.bandKeys(signature);
+
+		assertEquals(MinHash.BANDS, keys.length);
+		assertArrayEquals(keys, MinHash.bandKeys(signature.clone()));
+		for (int band = 0; band < MinHash.BANDS; band++) {
+			assertEquals(band, keys[band] >>> 32);
+		}
+	}
+
+	@Test
+	void packRoundTrips() {
+		int[] signature = MinHash.signature(Set.of("graph", "closure", "table"));
+
+		assertArrayEquals(signature, MinHash.unpack(MinHash.pack(signature)));
+		assertNull(MinHash.pack(null));
+		assertNull(MinHash.unpack(new byte[3]));
+	}
+}